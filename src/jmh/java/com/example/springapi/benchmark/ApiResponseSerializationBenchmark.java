@@ -0,0 +1,94 @@
+package com.example.springapi.benchmark;
+
+import com.example.springapi.config.JacksonConfig;
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.User;
+import com.example.springapi.web.PreResolvedJacksonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la sérialisation d'une réponse de liste, avec un ObjectMapper par défaut et le convertisseur Spring standard,
+ * puis avec l'ObjectMapper partagé de JacksonConfig et le convertisseur à ObjectWriter pré-résolu de WebConfig.
+ * Allocation par opération : ajouter {@code -prof gc} aux options JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private static final Type RESPONSE_TYPE = new ParameterizedTypeReference<ApiResponse<List<User>>>() {}.getType();
+
+    private ObjectMapper objectMapper;
+    private MappingJackson2HttpMessageConverter converter;
+    private ObjectMapper sharedObjectMapper;
+    private PreResolvedJacksonHttpMessageConverter preResolvedConverter;
+    private ApiResponse<List<User>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        converter = new MappingJackson2HttpMessageConverter();
+        sharedObjectMapper = new JacksonConfig().objectMapper();
+        preResolvedConverter = new PreResolvedJacksonHttpMessageConverter(sharedObjectMapper, List.of(RESPONSE_TYPE),
+                MediaType.APPLICATION_JSON);
+        response = ApiResponse.success("Utilisateurs récupérés avec succès", BenchmarkData.users(size));
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Les convertisseurs écrivent dans un flux qui ignore les octets, comme vers le socket : seule leur allocation est mesurée
+    @Benchmark
+    public HttpOutputMessage messageConverter() throws IOException {
+        HttpOutputMessage output = discardingOutput();
+        converter.write(response, RESPONSE_TYPE, MediaType.APPLICATION_JSON, output);
+        return output;
+    }
+
+    @Benchmark
+    public byte[] sharedObjectMapper() throws IOException {
+        return sharedObjectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public HttpOutputMessage preResolvedConverter() throws IOException {
+        HttpOutputMessage output = discardingOutput();
+        preResolvedConverter.write(response, RESPONSE_TYPE, MediaType.APPLICATION_JSON, output);
+        return output;
+    }
+
+    private static HttpOutputMessage discardingOutput() {
+        HttpHeaders headers = new HttpHeaders();
+        OutputStream body = OutputStream.nullOutputStream();
+        return new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+}
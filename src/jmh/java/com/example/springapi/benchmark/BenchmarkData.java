@@ -0,0 +1,21 @@
+package com.example.springapi.benchmark;
+
+import com.example.springapi.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User("Utilisateur " + i, "user" + i + "@example.com");
+            user.setId((long) i);
+            users.add(user);
+        }
+        return users;
+    }
+}
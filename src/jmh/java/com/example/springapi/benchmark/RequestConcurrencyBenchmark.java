@@ -0,0 +1,129 @@
+package com.example.springapi.benchmark;
+
+import com.example.springapi.datasource.ConcurrencyLimitedDataSource;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test de charge : latence (p50/p99 via le mode SampleTime) d'une requête servie pendant que
+ * {@code concurrency} clients maintiennent une charge continue (1 requête sur 5 va en base, 5 ms
+ * de connexion retenue ; les autres sont servies depuis le cache).
+ * <ul>
+ *   <li>{@code platform} : 200 threads (maxThreads Tomcat par défaut) devant un pool de 20 connexions</li>
+ *   <li>{@code virtual} : un thread virtuel par requête, accès base borné par le sémaphore (JDK 21+)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class RequestConcurrencyBenchmark {
+
+    private static final int CONNECTOR_THREADS = 200;
+    private static final int POOL_SIZE = 20;
+    private static final long QUERY_MILLIS = 5;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"100", "400", "1600"})
+    private int concurrency;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile boolean running;
+
+    private BasicDataSource pool;
+    private DataSource dataSource;
+    private Executor executor;
+
+    @Setup
+    public void setUp() {
+        pool = new BasicDataSource();
+        pool.setUrl("jdbc:h2:mem:load;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaxTotal(POOL_SIZE);
+        pool.setMaxIdle(POOL_SIZE);
+
+        if ("virtual".equals(mode)) {
+            SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor("load-vt-");
+            virtualThreads.setVirtualThreads(true);
+            executor = virtualThreads;
+            dataSource = new ConcurrencyLimitedDataSource(pool, POOL_SIZE, 60_000);
+        } else {
+            executor = Executors.newFixedThreadPool(CONNECTOR_THREADS);
+            dataSource = pool;
+        }
+
+        running = true;
+        for (int i = 0; i < concurrency; i++) {
+            client();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        running = false;
+        while (inFlight.get() > 0) {
+            Thread.sleep(10);
+        }
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+        pool.close();
+    }
+
+    @Benchmark
+    public void cachedRequest() {
+        CompletableFuture.runAsync(RequestConcurrencyBenchmark::cacheHit, executor).join();
+    }
+
+    @Benchmark
+    public void databaseRequest() {
+        CompletableFuture.runAsync(this::query, executor).join();
+    }
+
+    // Un client enchaîne ses requêtes tant que le benchmark tourne
+    private void client() {
+        if (!running) {
+            return;
+        }
+        inFlight.incrementAndGet();
+        Runnable request = requests.incrementAndGet() % 5 == 0 ? this::query : RequestConcurrencyBenchmark::cacheHit;
+        CompletableFuture.runAsync(request, executor).whenComplete((ignored, error) -> {
+            inFlight.decrementAndGet();
+            client();
+        });
+    }
+
+    private static void cacheHit() {
+        Blackhole.consumeCPU(2_000);
+    }
+
+    private void query() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+            Thread.sleep(QUERY_MILLIS);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
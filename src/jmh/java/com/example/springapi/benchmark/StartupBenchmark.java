@@ -0,0 +1,89 @@
+package com.example.springapi.benchmark;
+
+import com.example.springapi.config.WebInitializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Démarrage à froid : création des contextes racine et web de WebInitializer puis première requête servie.
+ * Chaque mesure s'exécute dans une JVM neuve (chargement des classes compris).
+ * Base H2 en mémoire par défaut (schéma généré par Hibernate, migrations désactivées) ; pour mesurer
+ * sur PostgreSQL avec les migrations : -jvmArgsAppend -Dbenchmark.database-url=jdbc:postgresql://...
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+    private AnnotationConfigWebApplicationContext root;
+    private AnnotationConfigWebApplicationContext web;
+
+    @Setup(Level.Trial)
+    public void configure() {
+        String url = System.getProperty("benchmark.database-url");
+        if (url == null) {
+            System.setProperty("DATABASE_URL", "jdbc:h2:mem:startup;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            System.setProperty("spring.datasource.driver-class-name", "org.h2.Driver");
+            System.setProperty("DATABASE_USERNAME", "sa");
+            System.setProperty("JPA_DDL_AUTO", "create");
+            System.setProperty("MIGRATIONS_ENABLED", "false");
+        } else {
+            System.setProperty("DATABASE_URL", url);
+            System.setProperty("DATABASE_USERNAME", System.getProperty("benchmark.database-username", "postgres"));
+        }
+        System.setProperty("DATABASE_PASSWORD", System.getProperty("benchmark.database-password", ""));
+        // Pas de serveur HTTP ici : le préchauffage (asynchrone) n'aurait personne à interroger
+        System.setProperty("WARMUP_ENABLED", "false");
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        WebInitializer initializer = new WebInitializer();
+        MockServletContext servletContext = new MockServletContext();
+        root = new AnnotationConfigWebApplicationContext();
+        root.register(configClasses(initializer, "getRootConfigClasses"));
+        root.setServletContext(servletContext);
+        root.refresh();
+        web = new AnnotationConfigWebApplicationContext();
+        web.setParent(root);
+        web.register(configClasses(initializer, "getServletConfigClasses"));
+        web.setServletContext(servletContext);
+        web.refresh();
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(web).build();
+        MvcResult result = mockMvc.perform(get("/api/users/1")).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse().getStatus();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        if (web != null) {
+            web.close();
+        }
+        if (root != null) {
+            root.close();
+        }
+    }
+
+    private static Class<?>[] configClasses(WebInitializer initializer, String method) throws Exception {
+        Method getter = WebInitializer.class.getDeclaredMethod(method);
+        getter.setAccessible(true);
+        return (Class<?>[]) getter.invoke(initializer);
+    }
+}
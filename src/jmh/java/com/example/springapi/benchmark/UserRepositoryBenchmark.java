@@ -0,0 +1,155 @@
+package com.example.springapi.benchmark;
+
+import com.example.springapi.cache.BatchLoader;
+import com.example.springapi.cache.EmailIndex;
+import com.example.springapi.cache.NoOpEntityCache;
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.example.springapi.repository.impl.CachingUserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opérations du repository de bout en bout (transaction Spring, Hibernate, JDBC) sur une base H2 en mémoire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserRepositoryBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private AnnotationConfigApplicationContext context;
+    private IUserRepository repository;
+    private IUserRepository indexedRepository;
+    private IUserRepository batchedRepository;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(H2BenchmarkConfig.class);
+        repository = context.getBean(IUserRepository.class);
+
+        for (int start = 0; start < ROWS; start += 500) {
+            List<User> chunk = new ArrayList<>(500);
+            for (int i = start; i < start + 500; i++) {
+                chunk.add(new User("Utilisateur " + i, "user" + i + "@example.com"));
+            }
+            repository.saveAll(chunk);
+        }
+
+        EmailIndex emailIndex = new EmailIndex(true, ROWS, 0.01);
+        emailIndex.rebuild(ROWS, sink -> repository.findAll().forEach(user -> sink.accept(user.getEmail())));
+        indexedRepository = new CachingUserRepository(repository, new NoOpEntityCache<>(), new NoOpEntityCache<>(), emailIndex,
+            SingleFlight.disabled(), BatchLoader.disabled(), new String[0], 0);
+        batchedRepository = new CachingUserRepository(repository, new NoOpEntityCache<>(), new NoOpEntityCache<>(), emailIndex,
+            SingleFlight.disabled(), new BatchLoader<>(true, Duration.ofNanos(200_000), 100), new String[0], 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return repository.findById(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+    }
+
+    // Résolution d'une liste d'IDs : une requête par ID, puis une seule requête WHERE id = ANY(?)
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public List<Optional<User>> findByIdHundredOneByOne() {
+        List<Optional<User>> users = new ArrayList<>(100);
+        for (Long id : randomIds(100)) {
+            users.add(repository.findById(id));
+        }
+        return users;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public List<User> findAllByIdsHundred() {
+        return repository.findAllByIds(randomIds(100));
+    }
+
+    // Lectures unitaires simultanées : chacune sa requête, ou regroupées par le BatchLoader (fenêtre de 200 µs)
+    @Benchmark
+    @Threads(16)
+    public Optional<User> findByIdConcurrent() {
+        return repository.findById(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Optional<User> findByIdConcurrentBatched() {
+        return batchedRepository.findById(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return repository.findByEmail("user" + ThreadLocalRandom.current().nextInt(ROWS) + "@example.com");
+    }
+
+    @Benchmark
+    public List<User> findPage() {
+        return repository.findPage(ThreadLocalRandom.current().nextLong(ROWS - 50), 50);
+    }
+
+    @Benchmark
+    public long count() {
+        return repository.count();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public List<User> saveAllHundred() {
+        long batch = sequence.incrementAndGet();
+        List<User> users = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            users.add(new User("Lot " + batch, "batch" + batch + "-" + i + "@example.com"));
+        }
+        return repository.saveAll(users);
+    }
+
+    // Vérification d'unicité d'un lot d'emails nouveaux (cas courant d'une création en masse)
+    @Benchmark
+    public Map<String, Long> findIdsByEmailsNew() {
+        return repository.findIdsByEmails(newEmails());
+    }
+
+    @Benchmark
+    public Map<String, Long> findIdsByEmailsNewWithIndex() {
+        return indexedRepository.findIdsByEmails(newEmails());
+    }
+
+    private static List<Long> randomIds(int size) {
+        List<Long> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+        }
+        return ids;
+    }
+
+    private List<String> newEmails() {
+        long batch = sequence.incrementAndGet();
+        List<String> emails = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            emails.add("new" + batch + "-" + i + "@example.com");
+        }
+        return emails;
+    }
+}
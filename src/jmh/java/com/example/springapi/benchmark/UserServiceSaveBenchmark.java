@@ -0,0 +1,75 @@
+package com.example.springapi.benchmark;
+
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.example.springapi.service.impl.UserServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins de validation de UserServiceImpl.save, isolés de la base par un repository factice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceSaveBenchmark {
+
+    private UserServiceImpl service;
+    private User newUser;
+    private User existingUser;
+    private User blankName;
+    private User blankEmail;
+
+    @Setup
+    public void setUp() {
+        IUserRepository repository = (IUserRepository) Proxy.newProxyInstance(
+            IUserRepository.class.getClassLoader(),
+            new Class<?>[]{IUserRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "insertIfEmailAbsent", "updateIfExists" -> Optional.of(args[0]);
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        // save() n'ouvre pas de transaction programmatique : pas de gestionnaire de transactions
+        service = new UserServiceImpl(repository, null, SingleFlight.disabled());
+
+        newUser = new User("John Doe", "john@example.com");
+        existingUser = new User("John Doe", "john@example.com");
+        existingUser.setId(1L);
+        blankName = new User("  ", "john@example.com");
+        blankEmail = new User("John Doe", "");
+    }
+
+    @Benchmark
+    public User createValid() {
+        return service.save(newUser);
+    }
+
+    @Benchmark
+    public User updateValid() {
+        return service.save(existingUser);
+    }
+
+    @Benchmark
+    public Object rejectBlankName() {
+        return rejected(blankName);
+    }
+
+    @Benchmark
+    public Object rejectBlankEmail() {
+        return rejected(blankEmail);
+    }
+
+    private Object rejected(User user) {
+        try {
+            return service.save(user);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.springapi.benchmark;
+
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodage / décodage d'une liste d'utilisateurs selon le format négocié (JSON, Smile, CBOR), avec ou sans gzip.
+ * La taille de la charge utile de chaque combinaison est affichée au démarrage de l'essai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<ApiResponse<List<User>>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private ApiResponse<List<User>> response;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> new ObjectMapper();
+        };
+        response = ApiResponse.success("Utilisateurs récupérés avec succès", BenchmarkData.users(size));
+        payload = encode();
+        System.out.printf("%n[taille] format=%s gzip=%s utilisateurs=%d : %d octets%n", format, gzip, size, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream output = new GZIPOutputStream(bytes)) {
+                mapper.writeValue(output, response);
+            }
+        } else {
+            mapper.writeValue(bytes, response);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public ApiResponse<List<User>> decode() throws IOException {
+        try (InputStream input = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(payload))
+                : new ByteArrayInputStream(payload)) {
+            return mapper.readValue(input, RESPONSE_TYPE);
+        }
+    }
+}
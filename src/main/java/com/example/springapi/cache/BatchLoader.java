@@ -0,0 +1,148 @@
+package com.example.springapi.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Regroupement des lectures unitaires en lots (à la manière d'un DataLoader) : les clés demandées pendant une courte
+ * fenêtre sont chargées par un seul appel au chargeur de lot. Le premier appelant d'un lot attend la fin de la fenêtre
+ * puis exécute le chargement dans son propre thread ; les suivants attendent son résultat. Un lot plein est fermé et
+ * chargé sans attendre par l'appelant qui l'a rempli.
+ * <p>
+ * Le chargeur reçoit les clés distinctes du lot et renvoie les valeurs trouvées ; une clé absente du résultat donne
+ * {@link Optional#empty()}. Une exception du chargeur est transmise à tous les appelants du lot.
+ */
+public class BatchLoader<K, V> {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Batch<K, V> pending;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+
+    public BatchLoader(boolean enabled, Duration window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("La taille maximale d'un lot doit être positive");
+        }
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public static <K, V> BatchLoader<K, V> disabled() {
+        return new BatchLoader<>(false, Duration.ZERO, 1);
+    }
+
+    public Optional<V> load(K key, Function<Set<K>, Map<K, V>> loader) {
+        if (!enabled) {
+            batches.increment();
+            keys.increment();
+            return Optional.ofNullable(loader.apply(Set.of(key)).get(key));
+        }
+
+        Batch<K, V> batch;
+        CompletableFuture<V> result;
+        boolean full;
+        synchronized (lock) {
+            if (pending == null) {
+                pending = new Batch<>(Thread.currentThread());
+            }
+            batch = pending;
+            result = batch.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            full = batch.futures.size() >= maxBatchSize && close(batch);
+        }
+
+        if (full) {
+            if (batch.leader != Thread.currentThread()) {
+                LockSupport.unpark(batch.leader);
+            }
+            dispatch(batch, loader);
+        } else if (batch.leader == Thread.currentThread()) {
+            long deadline = System.nanoTime() + windowNanos;
+            for (long remaining = windowNanos; remaining > 0 && !batch.closed; remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            boolean closedHere;
+            synchronized (lock) {
+                closedHere = close(batch);
+            }
+            if (closedHere) {
+                dispatch(batch, loader);
+            }
+        }
+        return Optional.ofNullable(join(result));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getKeyCount() {
+        return keys.sum();
+    }
+
+    // Appelé sous le verrou : un seul appelant ferme (et donc charge) un lot donné
+    private boolean close(Batch<K, V> batch) {
+        if (batch.closed) {
+            return false;
+        }
+        batch.closed = true;
+        if (pending == batch) {
+            pending = null;
+        }
+        return true;
+    }
+
+    private void dispatch(Batch<K, V> batch, Function<Set<K>, Map<K, V>> loader) {
+        batches.increment();
+        keys.add(batch.futures.size());
+        try {
+            Map<K, V> found = loader.apply(new LinkedHashSet<>(batch.futures.keySet()));
+            batch.futures.forEach((key, future) -> future.complete(found.get(key)));
+        } catch (RuntimeException | Error e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // Les clés ne sont ajoutées que sous le verrou, tant que le lot est ouvert ; une fois fermé, il n'est plus modifié
+    private static final class Batch<K, V> {
+        private final Thread leader;
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        private volatile boolean closed;
+
+        private Batch(Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
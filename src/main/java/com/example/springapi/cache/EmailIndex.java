@@ -0,0 +1,112 @@
+package com.example.springapi.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Index en mémoire des emails existants, adossé à un {@link BloomFilter} : une réponse négative dispense
+ * d'interroger la base, une réponse positive doit être confirmée par une requête. Tant que l'index n'a pas
+ * été construit (ou s'il est désactivé), tout email est considéré comme probablement présent.
+ * <p>
+ * Un filtre de Bloom ne permet pas de retirer un élément : les suppressions et changements d'email laissent
+ * des positifs périmés, purgés à la reconstruction suivante.
+ * <p>
+ * Seules les écritures de cette instance sont ajoutées au filtre : il n'est valide que si elle est la seule à
+ * écrire dans users (voir CacheConfig), sans quoi un email créé ailleurs serait une réponse négative certaine.
+ */
+public class EmailIndex {
+
+    private final boolean enabled;
+    private final long minimumExpectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder probableHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailIndex(boolean enabled, long minimumExpectedInsertions, double falsePositiveRate) {
+        this.enabled = enabled;
+        this.minimumExpectedInsertions = minimumExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public static EmailIndex disabled() {
+        return new EmailIndex(false, 1, 0.5);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(email.trim())) {
+            probableHits.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    public void add(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String key = email.trim();
+        // building avant filter : rebuild publie filter avant d'effacer building, donc un ajout qui ne voit plus
+        // building voit forcément le nouveau filtre (l'ordre inverse pouvait manquer les deux)
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        BloomFilter current = filter;
+        if (current != null && current != next) {
+            current.put(key);
+        }
+    }
+
+    /** Un email déclaré probablement présent s'est révélé absent en base. */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Construit un nouveau filtre à partir des emails fournis par {@code loader}, puis remplace l'ancien.
+     * Les ajouts concurrents sont reportés dans les deux filtres pendant la construction.
+     */
+    public void rebuild(long currentCount, Consumer<Consumer<String>> loader) {
+        if (!enabled) {
+            return;
+        }
+        // Marge x2 pour que le taux de faux positifs reste sous la cible jusqu'à la reconstruction suivante
+        BloomFilter next = new BloomFilter(Math.max(minimumExpectedInsertions, currentCount * 2), falsePositiveRate);
+        building = next;
+        try {
+            loader.accept(email -> next.put(email.trim()));
+            filter = next;
+        } finally {
+            building = null;
+        }
+    }
+
+    public EmailIndexStatistics stats() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return new EmailIndexStatistics(false, 0, 0, 0, 0, 1.0,
+                    negatives.sum(), probableHits.sum(), falsePositives.sum());
+        }
+        return new EmailIndexStatistics(true, current.bitSize(), current.hashFunctions(), current.memoryBytes(),
+                current.approximateElementCount(), current.expectedFalsePositiveRate(),
+                negatives.sum(), probableHits.sum(), falsePositives.sum());
+    }
+}
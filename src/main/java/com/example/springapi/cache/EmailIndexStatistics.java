@@ -0,0 +1,43 @@
+package com.example.springapi.cache;
+
+public class EmailIndexStatistics {
+    private final boolean ready;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long memoryBytes;
+    private final long approximateElementCount;
+    private final double expectedFalsePositiveRate;
+    private final long negativeCount;
+    private final long probableHitCount;
+    private final long falsePositiveCount;
+
+    public EmailIndexStatistics(boolean ready, long bitSize, int hashFunctions, long memoryBytes,
+                                long approximateElementCount, double expectedFalsePositiveRate,
+                                long negativeCount, long probableHitCount, long falsePositiveCount) {
+        this.ready = ready;
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+        this.memoryBytes = memoryBytes;
+        this.approximateElementCount = approximateElementCount;
+        this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+        this.negativeCount = negativeCount;
+        this.probableHitCount = probableHitCount;
+        this.falsePositiveCount = falsePositiveCount;
+    }
+
+    public boolean isReady() { return ready; }
+    public long getBitSize() { return bitSize; }
+    public int getHashFunctions() { return hashFunctions; }
+    public long getMemoryBytes() { return memoryBytes; }
+    public long getApproximateElementCount() { return approximateElementCount; }
+    public double getExpectedFalsePositiveRate() { return expectedFalsePositiveRate; }
+    public long getNegativeCount() { return negativeCount; }
+    public long getProbableHitCount() { return probableHitCount; }
+    public long getFalsePositiveCount() { return falsePositiveCount; }
+
+    // Faux positifs constatés parmi les emails absents : probables démentis par la base / (démentis + négatifs)
+    public double getObservedFalsePositiveRate() {
+        long absent = falsePositiveCount + negativeCount;
+        return absent == 0 ? 0.0 : (double) falsePositiveCount / absent;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.springapi.cache;
+
+import java.util.Optional;
+
+public interface EntityCache<K, V> {
+    Optional<V> getIfPresent(K key);
+    void put(K key, V value);
+    void invalidate(K key);
+    void invalidateAll();
+    CacheStatistics stats();
+}
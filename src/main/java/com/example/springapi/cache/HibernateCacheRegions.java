@@ -0,0 +1,31 @@
+package com.example.springapi.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Régions du cache de second niveau Hibernate, adossées au même moteur Caffeine que {@link CaffeineEntityCache}.
+ */
+public final class HibernateCacheRegions {
+
+    public static final String USERS_REGION = "users";
+
+    private HibernateCacheRegions() {}
+
+    public static CacheManager createCacheManager(long maximumSize, Duration timeToLive) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        if (cacheManager.getCache(USERS_REGION) == null) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(USERS_REGION, configuration);
+        }
+        return cacheManager;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.springapi.cache;
+
+import java.util.Optional;
+
+public class NoOpEntityCache<K, V> implements EntityCache<K, V> {
+
+    @Override
+    public Optional<V> getIfPresent(K key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(K key, V value) {}
+
+    @Override
+    public void invalidate(K key) {}
+
+    @Override
+    public void invalidateAll() {}
+
+    @Override
+    public CacheStatistics stats() {
+        return CacheStatistics.empty();
+    }
+}
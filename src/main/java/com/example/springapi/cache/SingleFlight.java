@@ -0,0 +1,103 @@
+package com.example.springapi.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des chargements simultanés (single-flight) : tant qu'un chargement d'une clé est en cours,
+ * les appels suivants pour la même clé attendent son résultat au lieu d'interroger la base à leur tour.
+ * Rien n'est conservé au-delà du chargement : ce n'est pas un cache, seulement une file d'attente par clé.
+ * Le résultat (ou l'exception) est partagé entre tous les appelants et ne doit donc pas être modifié.
+ * <p>
+ * {@link #forget(Object)} et {@link #forgetIf(Predicate)} détachent les chargements en cours des clés qu'une écriture
+ * peut modifier : les appels suivants relancent un chargement, ce qui garantit qu'une lecture commencée après une
+ * écriture validée ne reçoit pas un résultat lu avant elle. Les autres clés continuent d'être regroupées.
+ * Le ConcurrentHashMap verrouille par case : des clés différentes ne se bloquent pas entre elles.
+ */
+public class SingleFlight<K, V> {
+
+    private final boolean enabled;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public SingleFlight(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static <K, V> SingleFlight<K, V> disabled() {
+        return new SingleFlight<>(false);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        if (!enabled) {
+            loads.increment();
+            return loader.get();
+        }
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            collapsed.increment();
+            return join(leader);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetIf(Predicate<? super K> keys) {
+        inFlight.keySet().removeIf(keys);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
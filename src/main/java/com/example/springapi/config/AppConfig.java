@@ -1,19 +1,54 @@
 package com.example.springapi.config;
 
+import com.example.springapi.cache.HibernateCacheRegions;
+import com.example.springapi.datasource.ConcurrencyLimitedDataSource;
+import com.example.springapi.datasource.ConnectionPoolFactory;
+import com.example.springapi.datasource.Dbcp2PoolFactory;
+import com.example.springapi.datasource.HikariPoolFactory;
+import com.example.springapi.datasource.PoolSettings;
+import com.example.springapi.datasource.ReadWriteRoutingDataSource;
+import com.example.springapi.datasource.SchemaMigrator;
+import com.example.springapi.datasource.SqlTracingDataSource;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.impl.IdempotencyRepositoryImpl;
+import com.example.springapi.repository.impl.CachingUserRepository;
+import com.example.springapi.repository.impl.EmailIndexLoader;
+import com.example.springapi.repository.impl.UserChangeRepositoryImpl;
+import com.example.springapi.repository.impl.UserRepositoryImpl;
+import com.example.springapi.repository.impl.UserStatsRepositoryImpl;
+import com.example.springapi.service.impl.IdempotencyServiceImpl;
+import com.example.springapi.service.impl.UserBatchServiceImpl;
+import com.example.springapi.service.impl.UserChangeServiceImpl;
+import com.example.springapi.service.impl.UserIngestServiceImpl;
+import com.example.springapi.service.impl.UserServiceImpl;
+import com.example.springapi.service.impl.UserStatsServiceImpl;
+import com.example.springapi.service.impl.UserTransferServiceImpl;
 import jakarta.persistence.EntityManagerFactory;
-import org.apache.commons.dbcp2.BasicDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.*;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
+// Composants déclarés explicitement plutôt que découverts par parcours du classpath au démarrage
 @Configuration
-@ComponentScan(basePackages={"com.example.springapi.repository", "com.example.springapi.service"})
+@Import({UserRepositoryImpl.class, CachingUserRepository.class, EmailIndexLoader.class,
+        UserChangeRepositoryImpl.class, UserStatsRepositoryImpl.class, IdempotencyRepositoryImpl.class,
+        UserServiceImpl.class, UserBatchServiceImpl.class, UserIngestServiceImpl.class,
+        UserChangeServiceImpl.class, UserStatsServiceImpl.class, IdempotencyServiceImpl.class,
+        UserTransferServiceImpl.class})
 @EnableTransactionManagement
 @PropertySource("classpath:application.properties")
 @PropertySource(value = "classpath:application-default.properties", ignoreResourceNotFound = true)
@@ -28,12 +63,81 @@ public class AppConfig {
     @Value("${spring.datasource.password:password}")
     private String dbPassword;
 
-    @Value("${spring.jpa.hibernate.ddl-auto:update}")
+    @Value("${spring.datasource.driver-class-name:org.postgresql.Driver}")
+    private String dbDriverClassName;
+
+    @Value("${app.datasource.pool:hikari}")
+    private String poolType;
+
+    @Value("${app.datasource.prewarm:false}")
+    private boolean poolPrewarm;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolMaximumSize;
+
+    @Value("${spring.datasource.hikari.minimum-idle:5}")
+    private int poolMinimumIdle;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long poolConnectionTimeoutMillis;
+
+    @Value("${spring.datasource.hikari.idle-timeout:600000}")
+    private long poolIdleTimeoutMillis;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long poolMaxLifetimeMillis;
+
+    @Value("${spring.datasource.hikari.leak-detection-threshold:0}")
+    private long poolLeakDetectionThresholdMillis;
+
+    @Value("${app.migrations.enabled:true}")
+    private boolean migrationsEnabled;
+
+    @Value("${spring.jpa.hibernate.ddl-auto:none}")
     private String hibernateDdlAuto;
 
     @Value("${spring.jpa.show-sql}")
     private boolean showSql;
 
+    @Value("${spring.jpa.properties.hibernate.format_sql:false}")
+    private boolean formatSql;
+
+    @Value("${spring.jpa.properties.hibernate.use_sql_comments:false}")
+    private boolean useSqlComments;
+
+    @Value("${app.sql.tracing.enabled:true}")
+    private boolean sqlTracingEnabled;
+
+    @Value("${app.sql.slow-threshold-ms:200}")
+    private long sqlSlowThresholdMillis;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    @Value("${app.cache.second-level.enabled:false}")
+    private boolean secondLevelCacheEnabled;
+
+    @Value("${app.cache.users.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${app.cache.users.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.datasource.replicas.urls:}")
+    private String[] replicaUrls;
+
+    @Value("${app.datasource.replicas.strategy:round-robin}")
+    private String replicaStrategy;
+
+    @Value("${app.datasource.replicas.stickiness-ms:2000}")
+    private long replicaStickinessMillis;
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${app.db.max-concurrency:0}")
+    private int dbMaxConcurrency;
+
     @Bean
     public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
         PropertySourcesPlaceholderConfigurer configurer = new PropertySourcesPlaceholderConfigurer();
@@ -44,44 +148,100 @@ public class AppConfig {
 
     @Bean
     public DataSource dataSource() {
-        BasicDataSource ds = new BasicDataSource();
-        ds.setDriverClassName("org.postgresql.Driver");
-        ds.setUrl(dbUrl);
-        ds.setUsername(dbUsername);
-        ds.setPassword(dbPassword);
-
-        // Configuration du pool de connexions
-        ds.setInitialSize(5);
-        ds.setMaxTotal(20);
-        ds.setMaxIdle(10);
-        ds.setMinIdle(5);
-        ds.setMaxWaitMillis(60000);
-        ds.setValidationQuery("SELECT 1");
-        ds.setTestOnBorrow(true);
-        ds.setTestWhileIdle(true);
-        ds.setTimeBetweenEvictionRunsMillis(30000);
+        PoolSettings settings = new PoolSettings(poolMaximumSize, poolMinimumIdle,
+            Duration.ofMillis(poolConnectionTimeoutMillis), Duration.ofMillis(poolIdleTimeoutMillis),
+            Duration.ofMillis(poolMaxLifetimeMillis), Duration.ofMillis(poolLeakDetectionThresholdMillis));
+        ConnectionPoolFactory poolFactory = poolFactory();
+        DataSource ds = pool(poolFactory, dbUrl, settings);
 
+        // Réplicas en lecture : les transactions readOnly y sont routées au premier ordre SQL
+        List<DataSource> replicas = new ArrayList<>();
+        for (String replicaUrl : replicaUrls) {
+            if (!replicaUrl.isBlank()) {
+                replicas.add(pool(poolFactory, replicaUrl.trim(), settings));
+            }
+        }
+        if (!replicas.isEmpty()) {
+            LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                ds, replicas, ReadWriteRoutingDataSource.Strategy.of(replicaStrategy), Duration.ofMillis(replicaStickinessMillis)));
+            lazy.setDefaultAutoCommit(true);
+            lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            ds = lazy;
+        }
         return ds;
     }
 
+    // En mode threads virtuels, l'accès à chaque pool (primaire, réplicas) est borné à sa taille (par défaut)
+    private DataSource pool(ConnectionPoolFactory poolFactory, String url, PoolSettings settings) {
+        DataSource pool = traced(poolFactory.create(dbDriverClassName, url, dbUsername, dbPassword, settings));
+        if (poolPrewarm) {
+            poolFactory.prewarm(pool, settings);
+        }
+        if (!virtualThreadsEnabled) {
+            return pool;
+        }
+        int permits = dbMaxConcurrency > 0 ? dbMaxConcurrency : settings.getMaximumPoolSize();
+        return new ConcurrencyLimitedDataSource(pool, permits, settings.getConnectionTimeout().toMillis());
+    }
+
+    // Au plus près du pool : compte aussi les instructions routées vers les réplicas
+    private DataSource traced(DataSource pool) {
+        return sqlTracingEnabled ? new SqlTracingDataSource(pool, Duration.ofMillis(sqlSlowThresholdMillis)) : pool;
+    }
+
+    private ConnectionPoolFactory poolFactory() {
+        return switch (poolType) {
+            case "hikari" -> new HikariPoolFactory();
+            case "dbcp2" -> new Dbcp2PoolFactory();
+            default -> throw new IllegalArgumentException("Pool de connexions inconnu : " + poolType);
+        };
+    }
+
+    // Schéma versionné (db/migration), appliqué avant la création de l'EntityManagerFactory
     @Bean
+    public SchemaMigrator schemaMigrator(DataSource dataSource) throws IOException, SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource);
+        if (migrationsEnabled) {
+            migrator.migrate();
+        }
+        return migrator;
+    }
+
+    @Bean
+    @DependsOn("schemaMigrator")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
         LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
         emf.setDataSource(dataSource);
-        emf.setPackagesToScan("com.example.springapi.model");
+        emf.setManagedTypes(PersistenceManagedTypes.of(User.class.getName()));
         emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
 
         Properties jpaProperties = new Properties();
         jpaProperties.put("hibernate.hbm2ddl.auto", hibernateDdlAuto);
         jpaProperties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        // Dialecte fixé : pas de lecture des métadonnées JDBC au démarrage
+        jpaProperties.put("hibernate.boot.allow_jdbc_metadata_access", false);
+        // Aucune contrainte Bean Validation sur les entités : l'intégration ne ferait que ralentir le démarrage
+        jpaProperties.put("jakarta.persistence.validation.mode", "none");
         jpaProperties.put("hibernate.show_sql", showSql);
-        jpaProperties.put("hibernate.format_sql", true);
-        jpaProperties.put("hibernate.use_sql_comments", true);
-        jpaProperties.put("hibernate.jdbc.batch_size", 20);
+        jpaProperties.put("hibernate.format_sql", formatSql);
+        jpaProperties.put("hibernate.use_sql_comments", useSqlComments);
+        jpaProperties.put("hibernate.jdbc.batch_size", jdbcBatchSize);
         jpaProperties.put("hibernate.order_inserts", true);
         jpaProperties.put("hibernate.order_updates", true);
         jpaProperties.put("hibernate.jdbc.batch_versioned_data", true);
 
+        // Cache de second niveau optionnel pour l'entité User (région "users")
+        if (secondLevelCacheEnabled) {
+            jpaProperties.put("hibernate.cache.use_second_level_cache", true);
+            jpaProperties.put("hibernate.cache.region.factory_class", "jcache");
+            jpaProperties.put("hibernate.javax.cache.missing_cache_strategy", "create");
+            jpaProperties.put("hibernate.javax.cache.cache_manager",
+                HibernateCacheRegions.createCacheManager(cacheMaximumSize, Duration.ofSeconds(cacheTtlSeconds)));
+        } else {
+            // Sinon Hibernate active la région "users" (@Cacheable) avec le fournisseur JCache trouvé sur le classpath
+            jpaProperties.put("hibernate.cache.use_second_level_cache", false);
+        }
+
         emf.setJpaProperties(jpaProperties);
 
         return emf;
@@ -0,0 +1,93 @@
+package com.example.springapi.config;
+
+import com.example.springapi.cache.BatchLoader;
+import com.example.springapi.cache.CaffeineEntityCache;
+import com.example.springapi.cache.EmailIndex;
+import com.example.springapi.cache.EntityCache;
+import com.example.springapi.cache.NoOpEntityCache;
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${app.cache.users.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.users.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.cache.users.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.single-flight.enabled:true}")
+    private boolean singleFlightEnabled;
+
+    @Value("${app.user-batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${app.user-batch.window-micros:200}")
+    private long batchWindowMicros;
+
+    @Value("${app.user-batch.max-size:100}")
+    private int batchMaxSize;
+
+    @Value("${app.email-index.enabled:true}")
+    private boolean emailIndexEnabled;
+
+    @Value("${app.email-index.single-node:false}")
+    private boolean emailIndexSingleNode;
+
+    @Value("${app.email-index.expected-insertions:1000000}")
+    private long emailIndexExpectedInsertions;
+
+    @Value("${app.email-index.false-positive-rate:0.01}")
+    private double emailIndexFalsePositiveRate;
+
+    // Le filtre ne voit que les écritures de cette instance : avec plusieurs instances, un email créé ailleurs
+    // serait une réponse négative certaine jusqu'à la reconstruction suivante (findByEmail, existsByEmail et
+    // findIdsByEmails le diraient absent). L'index n'est donc actif que si le déploiement n'a qu'une instance.
+    @Bean
+    public EmailIndex emailIndex() {
+        if (!emailIndexEnabled || !emailIndexSingleNode) {
+            return EmailIndex.disabled();
+        }
+        return new EmailIndex(true, emailIndexExpectedInsertions, emailIndexFalsePositiveRate);
+    }
+
+    @Bean
+    public EntityCache<Long, User> userByIdCache() {
+        return newCache();
+    }
+
+    @Bean
+    public EntityCache<String, Long> userIdByEmailCache() {
+        return newCache();
+    }
+
+    // Lectures d'utilisateurs regroupées (clé Long : par ID ; autres clés : listes, pages, version de la table),
+    // oubliées par les écritures qui peuvent les modifier
+    @Bean
+    public SingleFlight<Object, Object> userReads() {
+        return new SingleFlight<>(singleFlightEnabled);
+    }
+
+    // Recherches par ID manquées par le cache, regroupées en une requête WHERE id = ANY(?)
+    @Bean
+    public BatchLoader<Long, User> userBatches() {
+        return new BatchLoader<>(batchEnabled, Duration.of(batchWindowMicros, ChronoUnit.MICROS), batchMaxSize);
+    }
+
+    private <K, V> EntityCache<K, V> newCache() {
+        if (!enabled) {
+            return new NoOpEntityCache<>();
+        }
+        return new CaffeineEntityCache<>(maximumSize, Duration.ofSeconds(ttlSeconds));
+    }
+}
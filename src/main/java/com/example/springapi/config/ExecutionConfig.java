@@ -0,0 +1,32 @@
+package com.example.springapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Exécuteur des traitements asynchrones de Spring MVC (Callable).
+ * Mode threads virtuels (JDK 21+) : chaque requête s'exécute sur son propre thread virtuel
+ * et libère le thread Tomcat pendant l'attente JDBC (voir MvcConfig). Sinon, les handlers restent synchrones
+ * et cet exécuteur n'est pas sollicité par UserController.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Bean
+    public AsyncTaskExecutor requestExecutor() {
+        if (!virtualThreadsEnabled) {
+            return new TaskExecutorAdapter(new SyncTaskExecutor());
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("request-vt-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.springapi.config;
+
+import com.example.springapi.web.AdaptiveConcurrencyLimiter;
+import com.example.springapi.web.ApplicationWarmup;
+import com.example.springapi.web.CompressionFilter;
+import com.example.springapi.web.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Filtres servlet déclarés comme beans du contexte racine et branchés par DelegatingFilterProxy (WebInitializer).
+ */
+@Configuration
+public class FilterConfig {
+
+    @Value("${app.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${app.compression.min-size:1024}")
+    private int compressionMinSize;
+
+    @Value("${app.rate-limit.enabled:false}")
+    private boolean rateLimitEnabled;
+
+    @Value("${app.rate-limit.expensive.permits-per-second:5}")
+    private double expensivePermitsPerSecond;
+
+    @Value("${app.rate-limit.expensive.burst:20}")
+    private int expensiveBurst;
+
+    @Value("${app.rate-limit.lookup.permits-per-second:50}")
+    private double lookupPermitsPerSecond;
+
+    @Value("${app.rate-limit.lookup.burst:100}")
+    private int lookupBurst;
+
+    @Value("${app.rate-limit.max-clients:100000}")
+    private long rateLimitMaxClients;
+
+    @Value("${app.rate-limit.client-header:}")
+    private String rateLimitClientHeader;
+
+    @Value("${app.rate-limit.trusted-proxies:1}")
+    private int rateLimitTrustedProxies;
+
+    @Value("${app.load-shedding.enabled:false}")
+    private boolean loadSheddingEnabled;
+
+    @Value("${app.load-shedding.initial-limit:20}")
+    private int loadSheddingInitialLimit;
+
+    @Value("${app.load-shedding.min-limit:4}")
+    private int loadSheddingMinLimit;
+
+    @Value("${app.load-shedding.max-limit:200}")
+    private int loadSheddingMaxLimit;
+
+    @Value("${app.load-shedding.latency-tolerance:1.5}")
+    private double loadSheddingTolerance;
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(ObjectMapper objectMapper, ApplicationWarmup warmup) {
+        AdaptiveConcurrencyLimiter limiter = loadSheddingEnabled
+                ? new AdaptiveConcurrencyLimiter(loadSheddingInitialLimit, loadSheddingMinLimit, loadSheddingMaxLimit, loadSheddingTolerance)
+                : null;
+        return new RateLimitFilter(rateLimitEnabled,
+                new RateLimitFilter.Budget(expensivePermitsPerSecond, expensiveBurst),
+                new RateLimitFilter.Budget(lookupPermitsPerSecond, lookupBurst),
+                rateLimitMaxClients, rateLimitClientHeader, rateLimitTrustedProxies, limiter, objectMapper,
+                warmup::isWarmupRequest);
+    }
+
+    @Bean
+    public CompressionFilter compressionFilter() {
+        return new CompressionFilter(compressionEnabled, compressionMinSize);
+    }
+}
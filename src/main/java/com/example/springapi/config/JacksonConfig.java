@@ -0,0 +1,46 @@
+package com.example.springapi.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * ObjectMapper partagés (JSON, Smile, CBOR) : configurés une fois, leurs caches de sérialiseurs servent à toutes les requêtes.
+ * Blackbird remplace la réflexion par des accesseurs générés. Les tampons d'écriture viennent d'un pool partagé
+ * plutôt que d'un pool par thread, inefficace lorsque chaque requête s'exécute sur son propre thread virtuel.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    @Primary
+    public ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(JsonFactory.builder().recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool()).build())
+                .modulesToInstall(new BlackbirdModule())
+                .build();
+    }
+
+    @Bean
+    public ObjectMapper smileObjectMapper() {
+        return Jackson2ObjectMapperBuilder.smile()
+                .factory(SmileFactory.builder().recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool()).build())
+                .modulesToInstall(new BlackbirdModule())
+                .build();
+    }
+
+    @Bean
+    public ObjectMapper cborObjectMapper() {
+        return Jackson2ObjectMapperBuilder.cbor()
+                .factory(CBORFactory.builder().recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool()).build())
+                .modulesToInstall(new BlackbirdModule())
+                .build();
+    }
+}
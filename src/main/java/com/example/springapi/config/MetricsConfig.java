@@ -0,0 +1,79 @@
+package com.example.springapi.config;
+
+import com.example.springapi.cache.BatchLoader;
+import com.example.springapi.cache.EmailIndex;
+import com.example.springapi.cache.EntityCache;
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.metrics.BatchLoaderMetrics;
+import com.example.springapi.metrics.DataSourcePoolMetrics;
+import com.example.springapi.metrics.EmailIndexMetrics;
+import com.example.springapi.metrics.EntityCacheMetrics;
+import com.example.springapi.metrics.RepositoryMetricsAspect;
+import com.example.springapi.metrics.SingleFlightMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class MetricsConfig {
+
+    @Bean(destroyMethod = "close")
+    public PrometheusMeterRegistry meterRegistry(List<MeterBinder> binders) {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(DataSourcePoolMetrics.poolTimingHistograms());
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmGcMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        binders.forEach(binder -> binder.bindTo(registry));
+        return registry;
+    }
+
+    @Bean
+    public RepositoryMetricsAspect repositoryMetricsAspect(MeterRegistry meterRegistry) {
+        return new RepositoryMetricsAspect(meterRegistry);
+    }
+
+    @Bean
+    public DataSourcePoolMetrics dataSourcePoolMetrics(DataSource dataSource) {
+        return new DataSourcePoolMetrics(dataSource);
+    }
+
+    @Bean
+    public EntityCacheMetrics userByIdCacheMetrics(@Qualifier("userByIdCache") EntityCache<?, ?> cache) {
+        return new EntityCacheMetrics("users.byId", cache);
+    }
+
+    @Bean
+    public EntityCacheMetrics userIdByEmailCacheMetrics(@Qualifier("userIdByEmailCache") EntityCache<?, ?> cache) {
+        return new EntityCacheMetrics("users.byEmail", cache);
+    }
+
+    @Bean
+    public SingleFlightMetrics userReadsMetrics(@Qualifier("userReads") SingleFlight<?, ?> singleFlight) {
+        return new SingleFlightMetrics("users", singleFlight);
+    }
+
+    @Bean
+    public BatchLoaderMetrics userBatchesMetrics(@Qualifier("userBatches") BatchLoader<?, ?> batchLoader) {
+        return new BatchLoaderMetrics("users", batchLoader);
+    }
+
+    @Bean
+    public EmailIndexMetrics emailIndexMetrics(EmailIndex emailIndex) {
+        return new EmailIndexMetrics(emailIndex);
+    }
+}
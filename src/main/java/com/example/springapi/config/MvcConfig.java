@@ -0,0 +1,25 @@
+package com.example.springapi.config;
+
+import com.example.springapi.web.VirtualThreadHandlerAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Infrastructure Spring MVC (à la place de @EnableWebMvc), configurée par WebConfig. Par défaut les handlers
+ * sont synchrones ; en mode threads virtuels, ils s'exécutent sur l'exécuteur de requêtes (VirtualThreadHandlerAdapter).
+ */
+@Configuration
+public class MvcConfig extends DelegatingWebMvcConfiguration {
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Override
+    @NonNull
+    protected RequestMappingHandlerAdapter createRequestMappingHandlerAdapter() {
+        return virtualThreadsEnabled ? new VirtualThreadHandlerAdapter() : super.createRequestMappingHandlerAdapter();
+    }
+}
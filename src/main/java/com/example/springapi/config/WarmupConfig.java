@@ -0,0 +1,55 @@
+package com.example.springapi.config;
+
+import com.example.springapi.web.ApplicationWarmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Préchauffage au démarrage (voir ApplicationWarmup) : les requêtes synthétiques visent le connecteur local
+ * sur server.port, sous le chemin de contexte de l'application. server.port est obligatoire : un port par défaut
+ * différent de celui du connecteur ferait échouer chaque préchauffage.
+ */
+@Configuration
+public class WarmupConfig {
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.requests:2000}")
+    private int requests;
+
+    @Value("${app.warmup.timeout-ms:60000}")
+    private long timeoutMillis;
+
+    @Value("${app.warmup.ready-on-timeout:false}")
+    private boolean readyOnTimeout;
+
+    @Value("${server.port}")
+    private int serverPort;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolMaximumSize;
+
+    @Value("${app.db.max-concurrency:0}")
+    private int dbMaxConcurrency;
+
+    @Bean
+    public ApplicationWarmup applicationWarmup(DataSource dataSource, ServletContext servletContext, ObjectMapper objectMapper,
+                                               @Qualifier("smileObjectMapper") ObjectMapper smileObjectMapper,
+                                               @Qualifier("cborObjectMapper") ObjectMapper cborObjectMapper) {
+        // En mode threads virtuels, app.db.max-concurrency peut borner les emprunts simultanés en deçà du pool
+        int connections = dbMaxConcurrency > 0 ? Math.min(dbMaxConcurrency, poolMaximumSize) : poolMaximumSize;
+        return new ApplicationWarmup(enabled, dataSource, connections,
+                List.of(objectMapper, smileObjectMapper, cborObjectMapper),
+                "http://127.0.0.1:" + serverPort + servletContext.getContextPath(), requests, Duration.ofMillis(timeoutMillis),
+                readyOnTimeout);
+    }
+}
@@ -1,30 +1,98 @@
 package com.example.springapi.config;
 
-import org.springframework.context.annotation.ComponentScan;
+import com.example.springapi.controller.CacheController;
+import com.example.springapi.controller.GlobalExceptionHandler;
+import com.example.springapi.controller.MetricsController;
+import com.example.springapi.controller.ReadinessController;
+import com.example.springapi.controller.UserBatchController;
+import com.example.springapi.controller.UserChangeController;
+import com.example.springapi.controller.UserController;
+import com.example.springapi.controller.UserStatsController;
+import com.example.springapi.controller.UserStreamController;
+import com.example.springapi.controller.UserTransferController;
+import com.example.springapi.metrics.RequestMetricsInterceptor;
+import com.example.springapi.metrics.SqlStatementsInterceptor;
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.CursorPage;
+import com.example.springapi.model.User;
+import com.example.springapi.web.PreResolvedJacksonHttpMessageConverter;
+import com.example.springapi.web.ReadYourWritesInterceptor;
+import com.example.springapi.web.ResponseFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.*;
 
+import java.lang.reflect.Type;
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
-@EnableWebMvc
-@ComponentScan(basePackages = "com.example.springapi.controller")
+@Import({UserController.class, UserBatchController.class, UserStreamController.class, UserTransferController.class, UserChangeController.class,
+        UserStatsController.class, CacheController.class, MetricsController.class, ReadinessController.class,
+        GlobalExceptionHandler.class})
 public class WebConfig implements WebMvcConfigurer {
+
+    // Réponses de UserController dont l'ObjectWriter est résolu une fois pour toutes
+    private static final List<Type> PRE_RESOLVED_TYPES = List.of(
+            new ParameterizedTypeReference<ApiResponse<User>>() {}.getType(),
+            new ParameterizedTypeReference<ApiResponse<List<User>>>() {}.getType(),
+            new ParameterizedTypeReference<ApiResponse<CursorPage<User>>>() {}.getType());
+
+    private final MeterRegistry meterRegistry;
+    private final AsyncTaskExecutor requestExecutor;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileObjectMapper;
+    private final ObjectMapper cborObjectMapper;
+    private final SqlStatementsInterceptor sqlStatementsInterceptor;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    public WebConfig(MeterRegistry meterRegistry, AsyncTaskExecutor requestExecutor, ObjectMapper objectMapper,
+                     @Qualifier("smileObjectMapper") ObjectMapper smileObjectMapper,
+                     @Qualifier("cborObjectMapper") ObjectMapper cborObjectMapper,
+                     @Value("${app.sql.repeated-threshold:20}") int sqlRepeatedThreshold,
+                     @Value("${app.datasource.replicas.stickiness-ms:2000}") long replicaStickinessMillis) {
+        this.meterRegistry = meterRegistry;
+        this.requestExecutor = requestExecutor;
+        this.objectMapper = objectMapper;
+        this.smileObjectMapper = smileObjectMapper;
+        this.cborObjectMapper = cborObjectMapper;
+        this.sqlStatementsInterceptor = new SqlStatementsInterceptor(meterRegistry, sqlRepeatedThreshold);
+        this.readYourWritesInterceptor = new ReadYourWritesInterceptor(Duration.ofMillis(replicaStickinessMillis));
+    }
     
+    // JSON par défaut ; Smile et CBOR (binaires, plus compacts) sur demande via Accept
     @Override
     public void configureMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter();
-        jsonConverter.setSupportedMediaTypes(List.of(
-            MediaType.APPLICATION_JSON,
-            MediaType.APPLICATION_OCTET_STREAM
-        ));
-        converters.add(jsonConverter);
+        converters.add(new PreResolvedJacksonHttpMessageConverter(objectMapper, PRE_RESOLVED_TYPES,
+                MediaType.APPLICATION_JSON, new MediaType("application", "*+json")));
+        converters.add(new PreResolvedJacksonHttpMessageConverter(smileObjectMapper, PRE_RESOLVED_TYPES,
+                ResponseFormat.SMILE.getMediaType()));
+        converters.add(new PreResolvedJacksonHttpMessageConverter(cborObjectMapper, PRE_RESOLVED_TYPES,
+                ResponseFormat.CBOR.getMediaType()));
     }
     
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry));
+        registry.addInterceptor(sqlStatementsInterceptor);
+        registry.addInterceptor(readYourWritesInterceptor);
+    }
+
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(requestExecutor);
+        configurer.registerCallableInterceptors(sqlStatementsInterceptor, readYourWritesInterceptor);
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         registry.addMapping("/**")
@@ -1,22 +1,30 @@
 package com.example.springapi.config;
 
+import jakarta.servlet.Filter;
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
 public class WebInitializer extends AbstractAnnotationConfigDispatcherServletInitializer {
     
     @Override
     protected Class<?>[] getRootConfigClasses() {
-        return new Class[]{AppConfig.class};
+        return new Class[]{AppConfig.class, CacheConfig.class, MetricsConfig.class, ExecutionConfig.class, FilterConfig.class, JacksonConfig.class,
+                WarmupConfig.class};
     }
     
     @Override
     protected Class<?>[] getServletConfigClasses() {
-        return new Class[]{WebConfig.class};
+        return new Class[]{MvcConfig.class, WebConfig.class};
     }
     
     @Override
     protected String[] getServletMappings() {
         return new String[]{"/"};
     }
+
+    @Override
+    protected Filter[] getServletFilters() {
+        return new Filter[]{new DelegatingFilterProxy("rateLimitFilter"), new DelegatingFilterProxy("compressionFilter")};
+    }
 }
 
@@ -0,0 +1,44 @@
+package com.example.springapi.controller;
+
+import com.example.springapi.cache.CacheStatistics;
+import com.example.springapi.cache.EmailIndexStatistics;
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.repository.impl.CachingUserRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin
+public class CacheController {
+
+    private final CachingUserRepository repository;
+
+    public CacheController(CachingUserRepository repository) {
+        this.repository = repository;
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<ApiResponse<Map<String, CacheStatistics>>> getUserCacheStats() {
+        Map<String, CacheStatistics> stats = new LinkedHashMap<>();
+        stats.put("byId", repository.getByIdCache().stats());
+        stats.put("byEmail", repository.getIdByEmailCache().stats());
+        return ResponseEntity.ok(ApiResponse.success("Statistiques du cache récupérées avec succès", stats));
+    }
+
+    @GetMapping("/users/emails")
+    public ResponseEntity<ApiResponse<EmailIndexStatistics>> getEmailIndexStats() {
+        return ResponseEntity.ok(ApiResponse.success("Statistiques de l'index des emails récupérées avec succès",
+                repository.getEmailIndex().stats()));
+    }
+
+    @DeleteMapping("/users")
+    public ResponseEntity<ApiResponse<String>> clearUserCache() {
+        repository.getByIdCache().invalidateAll();
+        repository.getIdByEmailCache().invalidateAll();
+        return ResponseEntity.ok(ApiResponse.success("Cache des utilisateurs vidé avec succès"));
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.springapi.controller;
 
+import com.example.springapi.exception.DuplicateEmailException;
+import com.example.springapi.exception.IdempotencyKeyInProgressException;
+import com.example.springapi.exception.IdempotencyKeyReusedException;
+import com.example.springapi.exception.IngestQueueFullException;
+import com.example.springapi.exception.VersionMismatchException;
 import com.example.springapi.model.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -18,6 +24,40 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<ApiResponse<Object>> handleConflict(DuplicateEmailException ex) {
+        ApiResponse<Object> response = ApiResponse.error("Conflit", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<ApiResponse<Object>> handlePreconditionFailed(VersionMismatchException ex) {
+        ApiResponse<Object> response = ApiResponse.error("Conflit de version", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<ApiResponse<Object>> handleTooManyRequests(IngestQueueFullException ex) {
+        ApiResponse<Object> response = ApiResponse.error("Trop de requêtes", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIdempotencyInProgress(IdempotencyKeyInProgressException ex) {
+        ApiResponse<Object> response = ApiResponse.error("Conflit", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        ApiResponse<Object> response = ApiResponse.error("Clé d'idempotence réutilisée", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Object>> handleBadRequest(IllegalArgumentException ex) {
         ApiResponse<Object> response = ApiResponse.error("Données invalides", ex.getMessage());
@@ -0,0 +1,35 @@
+package com.example.springapi.controller;
+
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.WarmupStatus;
+import com.example.springapi.web.ApplicationWarmup;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ReadinessController {
+
+    private final ApplicationWarmup warmup;
+
+    public ReadinessController(ApplicationWarmup warmup) {
+        this.warmup = warmup;
+    }
+
+    // Sonde de disponibilité : 503 tant que le préchauffage n'est pas terminé, ou s'il a échoué
+    @GetMapping("/ready")
+    public ResponseEntity<ApiResponse<WarmupStatus>> ready() {
+        WarmupStatus status = warmup.getStatus();
+        if (!status.isReady()) {
+            String message = status.getPhase().isFinished() ? "Préchauffage en échec" : "Préchauffage en cours";
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .cacheControl(CacheControl.noStore())
+                    .body(new ApiResponse<>(false, message, status));
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(ApiResponse.success("Application prête", status));
+    }
+}
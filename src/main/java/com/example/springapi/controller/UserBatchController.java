@@ -0,0 +1,62 @@
+package com.example.springapi.controller;
+
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.BatchResult;
+import com.example.springapi.model.User;
+import com.example.springapi.service.IUserBatchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/users/batch")
+@CrossOrigin
+public class UserBatchController {
+
+    private final IUserBatchService service;
+
+    public UserBatchController(IUserBatchService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<BatchResult>> createUsers(@RequestBody List<User> users) {
+        return respond(() -> service.createAll(users), HttpStatus.CREATED,
+            "Utilisateurs créés avec succès", "Erreur lors de la création des utilisateurs");
+    }
+
+    @PutMapping
+    public ResponseEntity<ApiResponse<BatchResult>> updateUsers(@RequestBody List<User> users) {
+        return respond(() -> service.updateAll(users), HttpStatus.OK,
+            "Utilisateurs mis à jour avec succès", "Erreur lors de la mise à jour des utilisateurs");
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<BatchResult>> deleteUsers(@RequestBody List<Long> ids) {
+        return respond(() -> service.deleteAll(ids), HttpStatus.OK,
+            "Utilisateurs supprimés avec succès", "Erreur lors de la suppression des utilisateurs");
+    }
+
+    // 207 Multi-Status dès qu'au moins un élément a échoué : le détail figure dans data.items
+    private ResponseEntity<ApiResponse<BatchResult>> respond(Supplier<BatchResult> operation, HttpStatus successStatus,
+                                                             String successMessage, String errorMessage) {
+        try {
+            BatchResult result = operation.get();
+            if (result.getFailed() == 0) {
+                return ResponseEntity.status(successStatus).body(ApiResponse.success(successMessage, result));
+            }
+            ApiResponse<BatchResult> response = new ApiResponse<>(false, "Traitement partiel du lot", result,
+                result.getFailed() + " élément(s) en erreur");
+            return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<BatchResult> response = ApiResponse.error("Données invalides", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<BatchResult> response = ApiResponse.error(errorMessage, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
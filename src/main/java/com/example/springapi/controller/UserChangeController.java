@@ -0,0 +1,81 @@
+package com.example.springapi.controller;
+
+import com.example.springapi.exception.ChangesExpiredException;
+import com.example.springapi.model.UserChange;
+import com.example.springapi.service.IUserChangeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Flux Server-Sent Events des modifications d'utilisateurs, alimenté par l'outbox : chaque événement porte
+ * son numéro de séquence en "id", un client EventSource reprend donc automatiquement via Last-Event-ID.
+ * Les réponses d'erreur n'ont pas de corps (le client attend text/event-stream) : 400 pour une position
+ * invalide, 410 si la position est antérieure à la rétention de l'outbox.
+ */
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin
+public class UserChangeController {
+
+    private final IUserChangeService service;
+    private final long timeoutMillis;
+
+    public UserChangeController(IUserChangeService service,
+                                @Value("${app.changes.sse-timeout-ms:300000}") long timeoutMillis) {
+        this.service = service;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(value = "since", required = false) String since,
+                                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long afterSeq;
+        try {
+            String position = lastEventId != null ? lastEventId : since;
+            afterSeq = position == null ? null : Long.valueOf(position.trim());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Runnable unsubscribe;
+        try {
+            unsubscribe = service.subscribe(afterSeq, new IUserChangeService.Listener() {
+                @Override
+                public void onChange(UserChange change) throws IOException {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSeq()))
+                            .name(change.getType().name().toLowerCase(Locale.ROOT))
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void onHeartbeat() throws IOException {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+
+                @Override
+                public void onClose() {
+                    emitter.complete();
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (ChangesExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -1,39 +1,141 @@
 package com.example.springapi.controller;
+import com.example.springapi.exception.DuplicateEmailException;
+import com.example.springapi.exception.IngestQueueFullException;
+import com.example.springapi.exception.VersionMismatchException;
+import com.example.springapi.model.CollectionVersion;
+import com.example.springapi.model.CursorPage;
+import com.example.springapi.model.IdempotentResponse;
+import com.example.springapi.model.IngestStatus;
 import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
+import com.example.springapi.model.Versioned;
 import com.example.springapi.model.ApiResponse;
+import com.example.springapi.service.IIdempotencyService;
+import com.example.springapi.service.IUserIngestService;
 import com.example.springapi.service.IUserService;
+import com.example.springapi.web.ResponseFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import java.net.URI;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin
 public class UserController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final IUserService service;
-    public UserController(IUserService s){this.service=s;}
+    private final IUserIngestService ingestService;
+    private final IIdempotencyService idempotencyService;
+    public UserController(IUserService s, IUserIngestService ingestService, IIdempotencyService idempotencyService){
+        this.service=s;this.ingestService=ingestService;this.idempotencyService=idempotencyService;
+    }
+
+    // Sans pagination : deux handlers distincts pour que chaque réponse ait un type statique (ObjectWriter pré-résolu)
+    @GetMapping(params = {"!after", "!limit", "!ids"})
+    public ResponseEntity<ApiResponse<List<User>>> getAllUsers(NativeWebRequest request){
+        ResponseFormat format = format(request);
+        try {
+            // Table inchangée depuis la version connue du client : 304 sans relire ni sérialiser les utilisateurs
+            if (isNotModified(request, format, service.getCollectionVersion())) {
+                return null;
+            }
+            Versioned<List<User>> users = service.getAllVersioned();
+            ApiResponse<List<User>> response = ApiResponse.success("Utilisateurs récupérés avec succès", users.getValue());
+            return format.apply(versioned(ResponseEntity.ok(), users.getVersion()).body(response));
+        } catch (Exception e) {
+            ApiResponse<List<User>> response = ApiResponse.error("Erreur lors de la récupération des utilisateurs", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<User>>> getAllUsers(){
+    public ResponseEntity<ApiResponse<CursorPage<User>>> getUsersPage(@RequestParam(value = "after", required = false) String after,
+                                                                              @RequestParam(value = "limit", required = false) Integer limit,
+                                                                              NativeWebRequest request){
+        ResponseFormat format = format(request);
+        try {
+            if (isNotModified(request, format, service.getCollectionVersion())) {
+                return null;
+            }
+            Versioned<CursorPage<User>> page = service.getPageVersioned(after, limit);
+            ApiResponse<CursorPage<User>> response = ApiResponse.success("Utilisateurs récupérés avec succès", page.getValue());
+            return format.apply(versioned(ResponseEntity.ok(), page.getVersion()).body(response));
+        } catch (IllegalArgumentException e) {
+            ApiResponse<CursorPage<User>> response = ApiResponse.error("Paramètres de pagination invalides", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<CursorPage<User>> response = ApiResponse.error("Erreur lors de la récupération des utilisateurs", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    // Multi-get : GET /api/users?ids=1,2,3 ou POST /api/users/lookup [1,2,3] (listes longues), une seule requête SQL
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<User>>> getUsersByIds(@RequestParam("ids") List<Long> ids){
+        return lookup(ids);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<ApiResponse<List<User>>> lookupUsers(@RequestBody List<Long> ids){
+        return lookup(ids);
+    }
+
+    private ResponseEntity<ApiResponse<List<User>>> lookup(List<Long> ids) {
         try {
-            List<User> users = service.getAll();
+            List<User> users = service.getByIds(ids);
             ApiResponse<List<User>> response = ApiResponse.success("Utilisateurs récupérés avec succès", users);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<List<User>> response = ApiResponse.error("Paramètres invalides", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             ApiResponse<List<User>> response = ApiResponse.error("Erreur lors de la récupération des utilisateurs", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
     
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CursorPage<User>>> searchUsers(@RequestParam(value = "q", required = false) String q,
+                                                                            @RequestParam(value = "match", required = false) String match,
+                                                                            @RequestParam(value = "domain", required = false) String domain,
+                                                                            @RequestParam(value = "sort", required = false) String sort,
+                                                                            @RequestParam(value = "order", required = false) String order,
+                                                                            @RequestParam(value = "after", required = false) String after,
+                                                                            @RequestParam(value = "limit", required = false) Integer limit){
+        try {
+            UserSearchCriteria criteria = UserSearchCriteria.parse(q, match, domain, sort, order);
+            CursorPage<User> page = service.search(criteria, after, limit);
+            ApiResponse<CursorPage<User>> response = ApiResponse.success("Utilisateurs récupérés avec succès", page);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<CursorPage<User>> response = ApiResponse.error("Paramètres de recherche invalides", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<CursorPage<User>> response = ApiResponse.error("Erreur lors de la recherche des utilisateurs", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable("id") Long id){
+    public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable("id") Long id, NativeWebRequest request){
+        ResponseFormat format = format(request);
         try {
             User user = service.getById(id);
+            if (user.getVersion() != null && isNotModified(request, format, String.valueOf(user.getVersion()))) {
+                return null;
+            }
             ApiResponse<User> response = ApiResponse.success("Utilisateur récupéré avec succès", user);
-            return ResponseEntity.ok(response);
+            return format.apply(withETag(ResponseEntity.ok(), userETag(user)).body(response));
         } catch (NoSuchElementException e) {
             ApiResponse<User> response = ApiResponse.error("Utilisateur non trouvé", "Aucun utilisateur trouvé avec l'ID: " + id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
@@ -43,39 +145,96 @@ public class UserController {
         }
     }
     
+    // En mode write-behind, la création est seulement validée et mise en file : 202 + identifiant de suivi
+    // Idempotency-Key : une création rejouée (nouvel essai après un délai dépassé) reçoit la réponse d'origine
     @PostMapping 
-    public ResponseEntity<ApiResponse<User>> createUser(@RequestBody User user){
+    public ResponseEntity<? extends ApiResponse<?>> createUser(@RequestBody User user,
+                                                                       @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        ResponseFormat format = ResponseFormat.negotiate(accept);
+        if (idempotencyKey == null || !idempotencyService.isEnabled()) {
+            return format.apply(create(user));
+        }
+        AtomicReference<ResponseEntity<? extends ApiResponse<?>>> original = new AtomicReference<>();
+        IdempotentResponse response = idempotencyService.execute(idempotencyKey, authorization, user, () -> {
+            original.set(create(user));
+            return IdempotentResponse.of(original.get().getStatusCode().value(),
+                    original.get().getHeaders().getFirst(HttpHeaders.LOCATION),
+                    original.get().getHeaders().getETag(), original.get().getBody());
+        });
+        // ETag enregistré sans suffixe de format : la réplique prend celui du format demandé par le nouvel essai
+        return format.apply(response.isReplayed() ? replay(response) : original.get());
+    }
+
+    private ResponseEntity<? extends ApiResponse<?>> create(User user) {
         try {
             if (user.getFullName() == null || user.getFullName().trim().isEmpty()) {
                 ApiResponse<User> response = ApiResponse.error("Données invalides", "Le nom est obligatoire");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
-            
+
+            if (ingestService.isEnabled()) {
+                IngestStatus status = ingestService.submit(user);
+                ApiResponse<IngestStatus> response = ApiResponse.success("Création de l'utilisateur acceptée", status);
+                return ResponseEntity.accepted().location(URI.create("/api/users/ingest/" + status.getTrackingId())).body(response);
+            }
+        
             User savedUser = service.save(user);
             ApiResponse<User> response = ApiResponse.success("Utilisateur créé avec succès", savedUser);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return withETag(ResponseEntity.status(HttpStatus.CREATED), userETag(savedUser)).body(response);
+        } catch (IngestQueueFullException e) {
+            ApiResponse<User> response = ApiResponse.error("Trop de requêtes", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(response);
+        } catch (DuplicateEmailException e) {
+            ApiResponse<User> response = ApiResponse.error("Conflit", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<User> response = ApiResponse.error("Données invalides", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             ApiResponse<User> response = ApiResponse.error("Erreur lors de la création de l'utilisateur", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<ApiResponse<IngestStatus>> getIngestStatus(@PathVariable("trackingId") String trackingId){
+        return ingestService.getStatus(trackingId)
+                .map(status -> ResponseEntity.ok(ApiResponse.success("Statut de la création", status)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Suivi non trouvé", "Aucune création en cours ou récente avec l'identifiant: " + trackingId)));
+    }
     
     @PutMapping("/{id}") 
-    public ResponseEntity<ApiResponse<User>> updateUser(@PathVariable("id") Long id, @RequestBody User user){
+    public ResponseEntity<ApiResponse<User>> updateUser(@PathVariable("id") Long id, @RequestBody User user,
+                                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
         try {
             if (user.getFullName() == null || user.getFullName().trim().isEmpty()) {
                 ApiResponse<User> response = ApiResponse.error("Données invalides", "Le nom est obligatoire");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
 
-            service.getById(id);
             user.setId(id);
-            User updatedUser = service.save(user);
+            Long expectedVersion = expectedVersion(ifMatch);
+            User updatedUser = expectedVersion == null ? service.save(user) : service.update(user, expectedVersion);
             ApiResponse<User> response = ApiResponse.success("Utilisateur mis à jour avec succès", updatedUser);
-            return ResponseEntity.ok(response);
+            return ResponseFormat.negotiate(accept).apply(withETag(ResponseEntity.ok(), userETag(updatedUser)).body(response));
+        } catch (VersionMismatchException e) {
+            ApiResponse<User> response = ApiResponse.error("Conflit de version", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
         } catch (NoSuchElementException e) {
             ApiResponse<User> response = ApiResponse.error("Utilisateur non trouvé", "Aucun utilisateur trouvé avec l'ID: " + id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (DuplicateEmailException e) {
+            ApiResponse<User> response = ApiResponse.error("Conflit", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<User> response = ApiResponse.error("Données invalides", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             ApiResponse<User> response = ApiResponse.error("Erreur lors de la mise à jour de l'utilisateur", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
@@ -85,7 +244,6 @@ public class UserController {
     @DeleteMapping("/{id}") 
     public ResponseEntity<ApiResponse<String>> deleteUser(@PathVariable("id") Long id){
         try {
-            service.getById(id);
             service.delete(id);
             ApiResponse<String> response = ApiResponse.success("Utilisateur supprimé avec succès");
             return ResponseEntity.ok(response);
@@ -97,4 +255,72 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<ApiResponse<?>> replay(IdempotentResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatus()).header(IDEMPOTENT_REPLAYED, "true");
+        if (response.getLocation() != null) {
+            builder.location(URI.create(response.getLocation()));
+        }
+        return withETag(builder, response.getEtag()).body(response.getBody());
+    }
+
+    // ETag fort d'un utilisateur : sa version, incrémentée à chaque modification (suffixée du format par ResponseFormat)
+    private static String userETag(User user) {
+        return user.getVersion() == null ? null : "\"" + user.getVersion() + "\"";
+    }
+
+    private static String collectionETag(CollectionVersion version) {
+        return "\"" + version.getChanges() + "\"";
+    }
+
+    private static ResponseFormat format(NativeWebRequest request) {
+        return ResponseFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    private static boolean isNotModified(NativeWebRequest request, ResponseFormat format, CollectionVersion version) {
+        return isNotModified(request, format, String.valueOf(version.getChanges()));
+    }
+
+    // 304 : même ETag (celui du format demandé) et même Vary que la réponse complète
+    private static boolean isNotModified(NativeWebRequest request, ResponseFormat format, String version) {
+        if (!request.checkNotModified(format.etag(version))) {
+            return false;
+        }
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return true;
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, String etag) {
+        return etag == null ? builder : builder.eTag(etag);
+    }
+
+    private static ResponseEntity.BodyBuilder versioned(ResponseEntity.BodyBuilder builder, CollectionVersion version) {
+        return builder.eTag(collectionETag(version));
+    }
+
+    // If-Match absent ou "*" : mise à jour inconditionnelle. Un ETag faible ou inconnu ne correspond à aucune version.
+    // Le suffixe de format ("3-cbor") est ignoré : la version suffit à détecter une modification concurrente.
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String[] tags = ifMatch.split(",");
+        if (tags.length > 1) {
+            throw new IllegalArgumentException("If-Match ne doit contenir qu'un seul ETag");
+        }
+        String tag = tags[0].trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        String opaque = tag.substring(1, tag.length() - 1);
+        int suffix = opaque.indexOf('-');
+        try {
+            return Long.valueOf(suffix < 0 ? opaque : opaque.substring(0, suffix));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
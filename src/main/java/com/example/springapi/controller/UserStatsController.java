@@ -0,0 +1,24 @@
+package com.example.springapi.controller;
+
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.UserStats;
+import com.example.springapi.service.IUserStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin
+public class UserStatsController {
+
+    private final IUserStatsService service;
+
+    public UserStatsController(IUserStatsService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<UserStats>> getStats(@RequestParam(value = "top", defaultValue = "100") int top) {
+        return ResponseEntity.ok(ApiResponse.success("Statistiques récupérées avec succès", service.getStats(top)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.springapi.controller;
+
+import com.example.springapi.model.User;
+import com.example.springapi.service.IUserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin
+public class UserStreamController {
+
+    private final IUserService service;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
+
+    public UserStreamController(IUserService service, ObjectMapper objectMapper) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Écrit l'enveloppe ApiResponse au fil de l'eau : la mémoire reste constante quelle que soit la taille de la table
+    @GetMapping("/stream")
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", "Utilisateurs récupérés avec succès");
+            generator.writeArrayFieldStart("data");
+            service.streamAll(user -> writeUser(generator, user));
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeUser(JsonGenerator generator, User user) {
+        try {
+            userWriter.writeValue(generator, user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.springapi.controller;
+
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.ImportReport;
+import com.example.springapi.model.TransferFormat;
+import com.example.springapi.service.IUserTransferService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Export et import de toute la table, en flux. Le format d'export vient du paramètre {@code format}, sinon de
+ * l'en-tête Accept (text/csv), NDJSON par défaut ; celui de l'import vient du Content-Type.
+ */
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin
+public class UserTransferController {
+
+    private final IUserTransferService service;
+
+    public UserTransferController(IUserTransferService service) {
+        this.service = service;
+    }
+
+    // Une fois les premières lignes envoyées, une erreur ne peut plus changer le statut : la réponse est tronquée
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(value = "format", required = false) String format,
+                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            HttpServletResponse response) throws IOException {
+        TransferFormat transferFormat = format != null ? TransferFormat.parse(format) : negotiate(accept);
+        response.setContentType(transferFormat.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + transferFormat.getExtension() + "\"");
+        service.exportAll(transferFormat, response.getOutputStream());
+    }
+
+    // 207 Multi-Status dès qu'une ligne a été rejetée : le détail figure dans data.errors
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<ImportReport>> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                 InputStream body) {
+        try {
+            ImportReport report = service.importAll(TransferFormat.of(MediaType.parseMediaType(contentType)), body);
+            if (report.getRejected() == 0) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Utilisateurs importés avec succès", report));
+            }
+            ApiResponse<ImportReport> response = new ApiResponse<>(false, "Import partiel", report,
+                report.getRejected() + " ligne(s) rejetée(s)");
+            return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<ImportReport> response = ApiResponse.error("Données invalides", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<ImportReport> response = ApiResponse.error("Erreur lors de l'import des utilisateurs", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Premier type explicitement demandé parmi text/csv et application/x-ndjson ; */* ou absent : NDJSON
+    private static TransferFormat negotiate(String accept) {
+        if (accept != null) {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (!mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+                    try {
+                        return TransferFormat.of(mediaType);
+                    } catch (IllegalArgumentException e) {
+                        // type suivant
+                    }
+                }
+            }
+        }
+        return TransferFormat.NDJSON;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.springapi.datasource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Crée le pool de connexions JDBC de l'application (HikariCP par défaut, DBCP2 en alternative).
+ * Les connexions sont validées par JDBC4 {@code Connection.isValid}, sans requête de test.
+ */
+public interface ConnectionPoolFactory {
+
+    DataSource create(String driverClassName, String url, String username, String password, PoolSettings settings);
+
+    /**
+     * Ouvre {@code minimumIdle} connexions simultanément puis les rend au pool, afin que les
+     * premières requêtes ne paient pas l'établissement des connexions. Échoue si la base est injoignable.
+     */
+    default void prewarm(DataSource dataSource, PoolSettings settings) {
+        List<Connection> connections = new ArrayList<>(settings.getMinimumIdle());
+        try {
+            for (int i = 0; i < settings.getMinimumIdle(); i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Préchauffage du pool de connexions impossible", e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // connexion invalide : le pool la remplacera
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.springapi.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class ConnectionProxies {
+
+    private ConnectionProxies() {
+    }
+
+    /**
+     * Enveloppe une connexion pour exécuter {@code onClose} une seule fois, à sa première fermeture.
+     */
+    static Connection onFirstClose(Connection connection, Runnable onClose) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionProxies.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                } finally {
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        onClose.run();
+                    }
+                }
+            });
+    }
+}
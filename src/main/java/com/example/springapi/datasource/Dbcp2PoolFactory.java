@@ -0,0 +1,40 @@
+package com.example.springapi.datasource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Pool Apache DBCP2. Les connexions inactives sont validées en arrière-plan ; au-delà du seuil
+ * de fuite, une connexion empruntée est considérée abandonnée, journalisée puis fermée.
+ */
+public class Dbcp2PoolFactory implements ConnectionPoolFactory {
+
+    @Override
+    public DataSource create(String driverClassName, String url, String username, String password, PoolSettings settings) {
+        BasicDataSource ds = new BasicDataSource();
+        ds.setDriverClassName(driverClassName);
+        ds.setUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+
+        ds.setMaxTotal(settings.getMaximumPoolSize());
+        ds.setMaxIdle(settings.getMaximumPoolSize());
+        ds.setMinIdle(settings.getMinimumIdle());
+        ds.setMaxWait(settings.getConnectionTimeout());
+        ds.setMinEvictableIdle(settings.getIdleTimeout());
+        ds.setMaxConn(settings.getMaxLifetime());
+        ds.setTestOnBorrow(false);
+        ds.setTestWhileIdle(true);
+        ds.setDurationBetweenEvictionRuns(Duration.ofSeconds(30));
+
+        if (!settings.getLeakDetectionThreshold().isZero()) {
+            ds.setRemoveAbandonedOnBorrow(true);
+            ds.setRemoveAbandonedOnMaintenance(true);
+            ds.setRemoveAbandonedTimeout(settings.getLeakDetectionThreshold());
+            ds.setLogAbandoned(true);
+        }
+        return ds;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.springapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Pool HikariCP. Le pool démarre à la première connexion (ou au préchauffage) ;
+ * la détection de fuites journalise la pile d'appel de l'emprunteur.
+ */
+public class HikariPoolFactory implements ConnectionPoolFactory {
+
+    private static final String POOL_NAME = "spring-api";
+
+    @Override
+    public DataSource create(String driverClassName, String url, String username, String password, PoolSettings settings) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName(POOL_NAME);
+        ds.setDriverClassName(driverClassName);
+        ds.setJdbcUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+
+        ds.setMaximumPoolSize(settings.getMaximumPoolSize());
+        ds.setMinimumIdle(settings.getMinimumIdle());
+        ds.setConnectionTimeout(settings.getConnectionTimeout().toMillis());
+        ds.setIdleTimeout(settings.getIdleTimeout().toMillis());
+        ds.setMaxLifetime(settings.getMaxLifetime().toMillis());
+        ds.setLeakDetectionThreshold(settings.getLeakDetectionThreshold().toMillis());
+        return ds;
+    }
+}
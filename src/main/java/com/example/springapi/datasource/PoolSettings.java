@@ -0,0 +1,54 @@
+package com.example.springapi.datasource;
+
+import java.time.Duration;
+
+/**
+ * Paramètres communs aux pools de connexions (clés spring.datasource.hikari.*).
+ */
+public class PoolSettings {
+
+    private final int maximumPoolSize;
+    private final int minimumIdle;
+    private final Duration connectionTimeout;
+    private final Duration idleTimeout;
+    private final Duration maxLifetime;
+    private final Duration leakDetectionThreshold;
+
+    public PoolSettings(int maximumPoolSize, int minimumIdle, Duration connectionTimeout,
+                        Duration idleTimeout, Duration maxLifetime, Duration leakDetectionThreshold) {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("La taille maximale du pool doit être positive");
+        }
+        this.maximumPoolSize = maximumPoolSize;
+        this.minimumIdle = Math.min(Math.max(minimumIdle, 0), maximumPoolSize);
+        this.connectionTimeout = connectionTimeout;
+        this.idleTimeout = idleTimeout;
+        this.maxLifetime = maxLifetime;
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public Duration getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    // Durée d'emprunt au-delà de laquelle une connexion est signalée comme fuite (0 = désactivé)
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+}
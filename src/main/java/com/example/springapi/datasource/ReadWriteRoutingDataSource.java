@@ -0,0 +1,143 @@
+package com.example.springapi.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Envoie les transactions en lecture seule vers un réplica, tout le reste vers le primaire.
+ * Après la validation d'une transaction d'écriture, les lectures du même client ({@link ReadYourWrites}
+ * rattaché à la requête) restent sur le primaire pendant la fenêtre de stickiness : il lit ses propres
+ * écritures malgré le retard de réplication, sans priver les autres clients des réplicas. Les accès hors
+ * requête HTTP (threads de fond) n'ont pas de client et lisent sur les réplicas.
+ * Doit être enveloppée dans un LazyConnectionDataSourceProxy : le caractère lecture seule
+ * n'est connu qu'au premier ordre SQL, pas à l'ouverture de la transaction.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_CONNECTIONS;
+
+        public static Strategy of(String name) {
+            return switch (name) {
+                case "round-robin" -> ROUND_ROBIN;
+                case "least-connections" -> LEAST_CONNECTIONS;
+                default -> throw new IllegalArgumentException("Stratégie de répartition inconnue : " + name);
+            };
+        }
+    }
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Strategy strategy;
+    private final long stickinessMillis;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicIntegerArray inFlight;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Strategy strategy, Duration stickiness) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un réplica est requis");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.stickinessMillis = stickiness.toMillis();
+        this.inFlight = new AtomicIntegerArray(replicas.size());
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        int index = selectReplica();
+        inFlight.incrementAndGet(index);
+        try {
+            return ConnectionProxies.onFirstClose(replicas.get(index).getConnection(), () -> inFlight.decrementAndGet(index));
+        } catch (SQLException | RuntimeException e) {
+            inFlight.decrementAndGet(index);
+            throw e;
+        }
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public int getInFlight(int replica) {
+        return inFlight.get(replica);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private boolean routeToReplica() {
+        ReadYourWrites client = ReadYourWrites.current();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return client == null || System.currentTimeMillis() - client.getLastWriteMillis() >= stickinessMillis;
+        }
+        // Transaction d'écriture : la fenêtre du client démarre à sa validation
+        if (client != null && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        client.written(System.currentTimeMillis());
+                    }
+                }
+            });
+        }
+        return false;
+    }
+
+    private int selectReplica() {
+        if (strategy == Strategy.ROUND_ROBIN) {
+            return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        }
+        int best = 0;
+        for (int i = 1; i < replicas.size(); i++) {
+            if (inFlight.get(i) < inFlight.get(best)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.springapi.datasource;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Lecture de ses propres écritures pour un client HTTP : date (epoch, ms) de sa dernière écriture validée, reçue
+ * dans un cookie et donc valable d'une instance à l'autre. Rattachée au thread qui traite la requête par
+ * {@link #bind}, y compris le thread d'un Callable ; ReadWriteRoutingDataSource garde sur le primaire les lectures
+ * d'un client qui vient d'écrire et y enregistre ses écritures validées, transmises à {@code onWrite}.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    private final LongConsumer onWrite;
+    private volatile long lastWriteMillis;
+
+    public ReadYourWrites(long lastWriteMillis, LongConsumer onWrite) {
+        this.lastWriteMillis = lastWriteMillis;
+        this.onWrite = onWrite;
+    }
+
+    /** Rattache {@code client} (ou rien si null) au thread courant ; renvoie le rattachement précédent à restaurer. */
+    public static ReadYourWrites bind(ReadYourWrites client) {
+        ReadYourWrites previous = CURRENT.get();
+        if (client == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(client);
+        }
+        return previous;
+    }
+
+    static ReadYourWrites current() {
+        return CURRENT.get();
+    }
+
+    public long getLastWriteMillis() {
+        return lastWriteMillis;
+    }
+
+    void written(long nowMillis) {
+        lastWriteMillis = nowMillis;
+        onWrite.accept(nowMillis);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.springapi.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Migrations versionnées à la manière de Flyway : les scripts classpath:db/migration/V{n}__{description}.sql
+ * sont appliqués une fois chacun, dans l'ordre, chacun dans sa transaction, et enregistrés dans schema_migrations.
+ * Un verrou consultatif sérialise les instances qui démarrent ensemble. Au démarrage courant (schéma à jour),
+ * le coût se limite à la lecture de schema_migrations, là où hbm2ddl=update introspectait tout le schéma.
+ * Un script déjà appliqué puis modifié fait échouer le démarrage (somme de contrôle).
+ */
+public class SchemaMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final long LOCK_KEY = 0x5350_5249_4e47_4150L;
+
+    record Migration(int version, String description, String script, long checksum) {}
+
+    private final DataSource dataSource;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** Applique les migrations en attente ; renvoie la version du schéma. */
+    public int migrate() throws IOException, SQLException {
+        List<Migration> migrations = load();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+                try {
+                    return apply(connection, statement, migrations);
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private int apply(Connection connection, Statement statement, List<Migration> migrations) throws SQLException {
+        statement.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "version INT PRIMARY KEY, description VARCHAR(255) NOT NULL, checksum BIGINT NOT NULL, " +
+                "applied_at TIMESTAMPTZ NOT NULL DEFAULT now(), execution_ms BIGINT NOT NULL)");
+        Map<Integer, Long> applied = new HashMap<>();
+        try (ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+
+        int current = 0;
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.version());
+            if (checksum != null) {
+                if (checksum != migration.checksum()) {
+                    throw new IllegalStateException("La migration V" + migration.version() + " (" + migration.description() +
+                            ") a été modifiée après son application : créer une nouvelle migration");
+                }
+            } else {
+                run(connection, migration);
+            }
+            current = migration.version();
+        }
+        log.info("Schéma de la base à jour (version {})", current);
+        return current;
+    }
+
+    private void run(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement();
+             PreparedStatement record = connection.prepareStatement(
+                     "INSERT INTO schema_migrations (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            statement.execute(migration.script());
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            record.setInt(1, migration.version());
+            record.setString(2, migration.description());
+            record.setLong(3, migration.checksum());
+            record.setLong(4, elapsedMillis);
+            record.executeUpdate();
+            connection.commit();
+            log.info("Migration V{} ({}) appliquée en {} ms", migration.version(), migration.description(), elapsedMillis);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    static List<Migration> load() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            String script = resource.getContentAsString(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            // Indépendant des fins de ligne de la plateforme où le script a été extrait
+            crc.update(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    script, crc.getValue()));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Deux migrations portent la version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.springapi.datasource;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Instructions SQL exécutées pour le compte d'une requête HTTP : nombre, temps passé en base et exécutions
+ * par texte SQL (pour repérer les N+1). Rattachée au thread qui traite la requête par {@link #bind}, y compris
+ * le thread d'un Callable ; SqlTracingDataSource y enregistre chaque exécution.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int count;
+    private long nanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    /** Rattache {@code stats} (ou rien si null) au thread courant ; renvoie le rattachement précédent à restaurer. */
+    public static SqlStatementStats bind(SqlStatementStats stats) {
+        SqlStatementStats previous = CURRENT.get();
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+        return previous;
+    }
+
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    synchronized void record(String sql, long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getNanos() {
+        return nanos;
+    }
+
+    /** Textes SQL exécutés au moins {@code threshold} fois, les plus répétés d'abord. */
+    public synchronized Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+}
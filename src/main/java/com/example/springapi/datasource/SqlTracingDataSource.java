@@ -0,0 +1,221 @@
+package com.example.springapi.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Observe les instructions SQL au niveau JDBC, sous Hibernate comme sous les accès JDBC directs :
+ * <ul>
+ *   <li>chaque exécution est comptée, avec sa durée, dans le SqlStatementStats de la requête HTTP en cours ;</li>
+ *   <li>une exécution plus longue que {@code slowThreshold} est journalisée (WARN) avec son texte SQL, sans les
+ *   valeurs : les paramètres liés ne sont jamais lus, les littéraux d'un SQL non préparé sont masqués.</li>
+ * </ul>
+ * Un lot JDBC (executeBatch) compte pour une exécution. Les connexions et instructions sont enveloppées par des
+ * proxys dynamiques ; {@code unwrap} atteint toujours l'objet du pilote (COPY PostgreSQL par exemple).
+ */
+public class SqlTracingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTracingDataSource.class);
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 2000;
+
+    private final long slowThresholdNanos;
+
+    public SqlTracingDataSource(DataSource target, Duration slowThreshold) {
+        super(target);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        return connection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+        return connection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * SQL journalisable, sur une ligne et de longueur bornée. Pour un Statement non préparé, littéraux (chaînes,
+     * corps $$…$$, nombres) remplacés par {@code ?} et commentaires retirés : lecture linéaire, sans expression
+     * régulière, un script de migration pouvant contenir de très longs littéraux.
+     */
+    public static String redact(String sql, boolean prepared) {
+        StringBuilder out = new StringBuilder(Math.min(sql.length(), MAX_LOGGED_SQL_LENGTH + 1));
+        int length = sql.length();
+        int i = 0;
+        while (i < length && out.length() <= MAX_LOGGED_SQL_LENGTH) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i = skipWhitespace(sql, i);
+                if (out.length() > 0 && out.charAt(out.length() - 1) != ' ' && i < length) {
+                    out.append(' ');
+                }
+            } else if (prepared) {
+                out.append(c);
+                i++;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'') {
+                i = skipQuoted(sql, i);
+                out.append('?');
+            } else if (c == '$' && dollarTagEnd(sql, i) > 0) {
+                String tag = sql.substring(i, dollarTagEnd(sql, i));
+                int end = sql.indexOf(tag, i + tag.length());
+                i = end < 0 ? length : end + tag.length();
+                out.append('?');
+            } else if (Character.isDigit(c) && (i == 0 || sql.charAt(i - 1) != '$')) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else if (isIdentifierPart(c)) {
+                // Identifiant entier d'un coup : ses chiffres (users_seq2, v1), comme ceux de $1, ne sont pas des littéraux
+                while (i < length && isIdentifierPart(sql.charAt(i))) {
+                    out.append(sql.charAt(i++));
+                }
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        String redacted = out.toString().trim();
+        return redacted.length() <= MAX_LOGGED_SQL_LENGTH ? redacted : redacted.substring(0, MAX_LOGGED_SQL_LENGTH) + "…";
+    }
+
+    private static int skipWhitespace(String sql, int i) {
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // Chaîne '…' dont l'apostrophe est doublée à l'intérieur ('l''API')
+    private static int skipQuoted(String sql, int i) {
+        i++;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    // Fin (exclue) d'une étiquette $…$ commençant en i, ou -1 ($1 d'un paramètre positionnel par exemple)
+    private static int dollarTagEnd(String sql, int i) {
+        int j = i + 1;
+        while (j < sql.length() && (Character.isLetter(sql.charAt(j)) || sql.charAt(j) == '_')) {
+            j++;
+        }
+        return j < sql.length() && sql.charAt(j) == '$' ? j + 1 : -1;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private Connection connection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            SqlTracingDataSource.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                Object result = invoke(connection, method, args);
+                if (result instanceof CallableStatement statement) {
+                    return statement(statement, CallableStatement.class, (String) args[0]);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return statement(statement, PreparedStatement.class, (String) args[0]);
+                }
+                if (result instanceof Statement statement) {
+                    return statement(statement, Statement.class, null);
+                }
+                return result;
+            });
+    }
+
+    // preparedSql : texte fourni à la préparation ; null pour un Statement, dont le SQL arrive à l'exécution
+    private Statement statement(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(
+            SqlTracingDataSource.class.getClassLoader(),
+            new Class<?>[]{type},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if (!method.getName().startsWith("execute")) {
+                    return invoke(statement, method, args);
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                long start = System.nanoTime();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    record(sql == null ? "(lot)" : sql, preparedSql != null, System.nanoTime() - start);
+                }
+            });
+    }
+
+    private void record(String sql, boolean prepared, long elapsedNanos) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            // Clé du décompte par texte SQL : jamais de valeurs, y compris pour un SQL non préparé
+            stats.record(prepared ? sql : redact(sql, false), elapsedNanos);
+        }
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("Requête SQL lente ({} ms) : {}", elapsedNanos / 1_000_000, redact(sql, prepared));
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
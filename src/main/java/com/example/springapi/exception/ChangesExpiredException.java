@@ -0,0 +1,9 @@
+package com.example.springapi.exception;
+
+// Position de reprise antérieure aux événements encore conservés dans l'outbox : renvoyée en 410
+public class ChangesExpiredException extends RuntimeException {
+
+    public ChangesExpiredException(long since) {
+        super("Les modifications postérieures à " + since + " ne sont plus disponibles, resynchronisation complète nécessaire");
+    }
+}
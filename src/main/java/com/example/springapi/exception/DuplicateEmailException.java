@@ -0,0 +1,9 @@
+package com.example.springapi.exception;
+
+// Reste une IllegalArgumentException pour les appelants existants, mais est renvoyée en 409 par l'API
+public class DuplicateEmailException extends IllegalArgumentException {
+
+    public DuplicateEmailException() {
+        super("Un utilisateur avec cet email existe déjà");
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springapi.exception;
+
+// Requête de même Idempotency-Key encore en cours (sur une autre instance, ou au-delà de l'attente) : 409 avec Retry-After
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IdempotencyKeyInProgressException(long retryAfterSeconds) {
+        super("Une requête avec cette clé d'idempotence est en cours de traitement");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
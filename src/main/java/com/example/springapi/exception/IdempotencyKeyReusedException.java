@@ -0,0 +1,9 @@
+package com.example.springapi.exception;
+
+// Idempotency-Key déjà utilisée pour une requête différente : renvoyée en 422
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("Cette clé d'idempotence a déjà été utilisée pour une autre requête");
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springapi.exception;
+
+// File d'écriture différée pleine : renvoyée en 429 avec Retry-After
+public class IngestQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestQueueFullException(long retryAfterSeconds) {
+        super("Trop de créations en attente, réessayez plus tard");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.springapi.exception;
+
+// Mise à jour conditionnelle (If-Match) sur une version qui n'est plus la version courante : renvoyée en 412
+public class VersionMismatchException extends RuntimeException {
+
+    public VersionMismatchException(Long id) {
+        super("L'utilisateur " + id + " a été modifié depuis la version indiquée");
+    }
+}
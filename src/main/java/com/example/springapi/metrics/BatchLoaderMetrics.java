@@ -0,0 +1,29 @@
+package com.example.springapi.metrics;
+
+import com.example.springapi.cache.BatchLoader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+public class BatchLoaderMetrics implements MeterBinder {
+
+    private final String name;
+    private final BatchLoader<?, ?> batchLoader;
+
+    public BatchLoaderMetrics(String name, BatchLoader<?, ?> batchLoader) {
+        this.name = name;
+        this.batchLoader = batchLoader;
+    }
+
+    // keys / batches : taille moyenne des lots, soit le nombre de requêtes unitaires évitées par requête exécutée
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("batch.loader.batches", batchLoader, BatchLoader::getBatchCount)
+                .description("Lots chargés")
+                .tag("name", name).register(registry);
+        FunctionCounter.builder("batch.loader.keys", batchLoader, BatchLoader::getKeyCount)
+                .description("Clés chargées par lot")
+                .tag("name", name).register(registry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.springapi.metrics;
+
+import com.example.springapi.datasource.ConcurrencyLimitedDataSource;
+import com.example.springapi.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Jauges du pool de connexions : connexions actives, inactives et threads en attente d'une connexion,
+ * ainsi que les threads en attente du limiteur de concurrence et les connexions ouvertes par réplica.
+ * Avec HikariCP, ajoute les métriques hikaricp.* (temps d'attente et durée d'emprunt en histogramme, timeouts).
+ */
+public class DataSourcePoolMetrics implements MeterBinder {
+
+    private final DataSource dataSource;
+
+    public DataSourcePoolMetrics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Histogrammes et percentiles pour l'attente d'une connexion et sa durée d'emprunt.
+     * À enregistrer avant la création des métriques du pool.
+     */
+    public static MeterFilter poolTimingHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(@NonNull Meter.Id id, @NonNull DistributionStatisticConfig config) {
+                String name = id.getName();
+                if (name.equals("hikaricp.connections.acquire") || name.equals("hikaricp.connections.usage")) {
+                    return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(0.5, 0.95, 0.99)
+                        .build()
+                        .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        // Limiteur du primaire ; chaque réplica a le sien, de même taille
+        ConcurrencyLimitedDataSource limiter = unwrap(dataSource, ConcurrencyLimitedDataSource.class);
+        if (limiter != null) {
+            Gauge.builder("db.limiter.waiters", limiter, ConcurrencyLimitedDataSource::getQueueLength)
+                .description("Threads en attente d'un accès à la base")
+                .register(registry);
+            Gauge.builder("db.limiter.available", limiter, ConcurrencyLimitedDataSource::getAvailablePermits)
+                .register(registry);
+        }
+
+        ReadWriteRoutingDataSource routing = unwrap(dataSource, ReadWriteRoutingDataSource.class);
+        if (routing != null) {
+            for (int i = 0; i < routing.getReplicaCount(); i++) {
+                int replica = i;
+                Gauge.builder("db.replica.connections", routing, ds -> ds.getInFlight(replica))
+                    .description("Connexions en cours sur le réplica de lecture")
+                    .tag("replica", String.valueOf(replica))
+                    .register(registry);
+            }
+        }
+
+        HikariDataSource hikari = unwrap(dataSource, HikariDataSource.class);
+        if (hikari != null) {
+            hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            // Le MXBean n'existe qu'une fois le pool démarré (première connexion)
+            gauge(registry, "db.pool.active", "hikari", hikari,
+                ds -> mxBean(ds, HikariPoolMXBean::getActiveConnections));
+            gauge(registry, "db.pool.idle", "hikari", hikari,
+                ds -> mxBean(ds, HikariPoolMXBean::getIdleConnections));
+            gauge(registry, "db.pool.waiters", "hikari", hikari,
+                ds -> mxBean(ds, HikariPoolMXBean::getThreadsAwaitingConnection));
+            gauge(registry, "db.pool.max", "hikari", hikari, HikariDataSource::getMaximumPoolSize);
+        }
+
+        BasicDataSource pool = unwrap(dataSource, BasicDataSource.class);
+        if (pool != null) {
+            gauge(registry, "db.pool.active", "dbcp2", pool, BasicDataSource::getNumActive);
+            gauge(registry, "db.pool.idle", "dbcp2", pool, BasicDataSource::getNumIdle);
+            gauge(registry, "db.pool.waiters", "dbcp2", pool,
+                ds -> ds.getConnectionPool() == null ? 0 : ds.getConnectionPool().getNumWaiters());
+            gauge(registry, "db.pool.max", "dbcp2", pool, BasicDataSource::getMaxTotal);
+        }
+    }
+
+    private static double mxBean(HikariDataSource ds, ToDoubleFunction<HikariPoolMXBean> value) {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return pool == null ? 0 : value.applyAsDouble(pool);
+    }
+
+    private static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, String poolName, T pool,
+                                  ToDoubleFunction<T> value) {
+        Gauge.builder(name, pool, value).tag("pool", poolName).register(registry);
+    }
+}
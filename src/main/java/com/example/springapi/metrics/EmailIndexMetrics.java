@@ -0,0 +1,36 @@
+package com.example.springapi.metrics;
+
+import com.example.springapi.cache.EmailIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+public class EmailIndexMetrics implements MeterBinder {
+
+    private final EmailIndex index;
+
+    public EmailIndexMetrics(EmailIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("email.index.lookups", index, i -> i.stats().getNegativeCount())
+                .description("Recherches par email résolues par l'index, sans requête")
+                .tag("result", "negative").register(registry);
+        FunctionCounter.builder("email.index.lookups", index, i -> i.stats().getProbableHitCount())
+                .description("Recherches par email résolues par l'index, sans requête")
+                .tag("result", "probable").register(registry);
+        FunctionCounter.builder("email.index.false.positives", index, i -> i.stats().getFalsePositiveCount())
+                .description("Emails probables démentis par la base")
+                .register(registry);
+        Gauge.builder("email.index.memory", index, i -> i.stats().getMemoryBytes())
+                .description("Taille du filtre de Bloom")
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("email.index.expected.false.positive.rate", index, i -> i.stats().getExpectedFalsePositiveRate())
+                .description("Taux de faux positifs estimé d'après le remplissage du filtre")
+                .register(registry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.springapi.metrics;
+
+import com.example.springapi.cache.EntityCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+public class EntityCacheMetrics implements MeterBinder {
+
+    private final String name;
+    private final EntityCache<?, ?> cache;
+
+    public EntityCacheMetrics(String name, EntityCache<?, ?> cache) {
+        this.name = name;
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().getHitCount())
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().getMissCount())
+                .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().getEvictionCount())
+                .tag("cache", name).register(registry);
+        Gauge.builder("cache.size", cache, c -> c.stats().getSize())
+                .tag("cache", name).register(registry);
+    }
+}
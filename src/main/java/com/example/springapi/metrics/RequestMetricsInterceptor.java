@@ -0,0 +1,85 @@
+package com.example.springapi.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Latence (histogramme + percentiles), requêtes en cours et erreurs par type d'exception, par endpoint.
+ * Les exceptions traitées par GlobalExceptionHandler sont récupérées via l'attribut posé par le DispatcherServlet.
+ * Pour une requête asynchrone, la mesure couvre le premier passage et le redispatch final.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String SAMPLE_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".sample";
+    private static final String ACTIVE_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".active";
+
+    private final MeterRegistry registry;
+
+    public RequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        // Redispatch d'une requête asynchrone (Callable) : la mesure démarrée au premier passage continue
+        if (request.getAttribute(SAMPLE_ATTRIBUTE) != null) {
+            return true;
+        }
+        request.setAttribute(SAMPLE_ATTRIBUTE, Timer.start(registry));
+        request.setAttribute(ACTIVE_ATTRIBUTE, LongTaskTimer.builder("http.server.requests.active")
+                .description("Requêtes HTTP en cours de traitement")
+                .tag("method", request.getMethod())
+                .tag("uri", uriPattern(request))
+                .register(registry)
+                .start());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        Timer.Sample sample = (Timer.Sample) request.getAttribute(SAMPLE_ATTRIBUTE);
+        if (sample == null) {
+            return;
+        }
+        ((LongTaskTimer.Sample) request.getAttribute(ACTIVE_ATTRIBUTE)).stop();
+
+        Throwable error = ex != null ? ex : (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        String exception = error == null ? "none" : error.getClass().getSimpleName();
+        String uri = uriPattern(request);
+        String status = String.valueOf(response.getStatus());
+
+        sample.stop(Timer.builder("http.server.requests")
+                .description("Durée de traitement des requêtes HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("status", status)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+
+        if (error != null || response.getStatus() >= 500) {
+            Counter.builder("http.server.errors")
+                    .description("Requêtes en erreur par type d'exception")
+                    .tag("uri", uri)
+                    .tag("status", status)
+                    .tag("exception", exception)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
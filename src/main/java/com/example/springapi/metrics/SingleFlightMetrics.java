@@ -0,0 +1,33 @@
+package com.example.springapi.metrics;
+
+import com.example.springapi.cache.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+
+public class SingleFlightMetrics implements MeterBinder {
+
+    private final String name;
+    private final SingleFlight<?, ?> singleFlight;
+
+    public SingleFlightMetrics(String name, SingleFlight<?, ?> singleFlight) {
+        this.name = name;
+        this.singleFlight = singleFlight;
+    }
+
+    // collapsed / (loads + collapsed) : part des lectures servies par un chargement déjà en cours
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("single.flight.loads", singleFlight, SingleFlight::getLoadCount)
+                .description("Chargements exécutés")
+                .tag("name", name).register(registry);
+        FunctionCounter.builder("single.flight.collapsed", singleFlight, SingleFlight::getCollapsedCount)
+                .description("Lectures regroupées sur un chargement en cours")
+                .tag("name", name).register(registry);
+        Gauge.builder("single.flight.in.flight", singleFlight, SingleFlight::getInFlightCount)
+                .description("Chargements en cours")
+                .tag("name", name).register(registry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.springapi.metrics;
+
+import com.example.springapi.datasource.SqlStatementStats;
+import com.example.springapi.datasource.SqlTracingDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Instructions SQL par requête HTTP (voir SqlTracingDataSource) : ouvre un SqlStatementStats par requête,
+ * le rattache au thread du contrôleur puis à celui du Callable, et à la fin de la requête :
+ * <ul>
+ *   <li>journalise en DEBUG le nombre d'instructions et le temps passé en base ;</li>
+ *   <li>signale en WARN un N+1 probable : une même instruction exécutée au moins {@code repeatedThreshold} fois ;</li>
+ *   <li>alimente l'histogramme http.server.requests.sql (instructions par requête, par endpoint).</li>
+ * </ul>
+ */
+public class SqlStatementsInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementsInterceptor.class);
+
+    private static final String STATS_ATTRIBUTE = SqlStatementsInterceptor.class.getName() + ".stats";
+    private static final String PREVIOUS_ATTRIBUTE = SqlStatementsInterceptor.class.getName() + ".previous";
+
+    private final MeterRegistry registry;
+    private final int repeatedThreshold;
+
+    public SqlStatementsInterceptor(MeterRegistry registry, int repeatedThreshold) {
+        this.registry = registry;
+        this.repeatedThreshold = repeatedThreshold;
+    }
+
+    // Premier passage comme redispatch asynchrone : les instructions s'ajoutent au même décompte
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        SqlStatementStats stats = (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = new SqlStatementStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        request.setAttribute(PREVIOUS_ATTRIBUTE, SqlStatementStats.bind(stats));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        SqlStatementStats.bind((SqlStatementStats) request.getAttribute(PREVIOUS_ATTRIBUTE));
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        SqlStatementStats.bind((SqlStatementStats) request.getAttribute(PREVIOUS_ATTRIBUTE));
+        SqlStatementStats stats = (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            return;
+        }
+        String uri = uriPattern(request);
+        int count = stats.getCount();
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("Instructions SQL exécutées par requête HTTP")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(count);
+        if (count > 0 && log.isDebugEnabled()) {
+            log.debug("{} {} : {} instruction(s) SQL, {} ms en base", request.getMethod(), uri, count,
+                    String.format("%.1f", stats.getNanos() / 1_000_000.0));
+        }
+        for (Map.Entry<String, Integer> repeated : stats.repeated(repeatedThreshold).entrySet()) {
+            log.warn("N+1 probable sur {} {} : {} exécutions de {}", request.getMethod(), uri, repeated.getValue(),
+                    SqlTracingDataSource.redact(repeated.getKey(), true));
+        }
+    }
+
+    // Thread du Callable : le décompte de la requête y est rattaché le temps de son exécution
+    @Override
+    public <T> void preProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+        SqlStatementStats.bind((SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    public <T> void postProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task, Object concurrentResult) {
+        SqlStatementStats.bind(null);
+    }
+
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.springapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private int index;
+    private boolean success;
+    private Long id;
+    private String error;
+
+    public BatchItemResult() {}
+
+    public BatchItemResult(int index, boolean success, Long id, String error) {
+        this.index = index;
+        this.success = success;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BatchItemResult success(int index, Long id) {
+        return new BatchItemResult(index, true, id, null);
+    }
+
+    public static BatchItemResult failure(int index, Long id, String error) {
+        return new BatchItemResult(index, false, id, error);
+    }
+
+    public int getIndex() { return index; }
+    public boolean isSuccess() { return success; }
+    public Long getId() { return id; }
+    public String getError() { return error; }
+
+    public void setIndex(int index) { this.index = index; }
+    public void setSuccess(boolean success) { this.success = success; }
+    public void setId(Long id) { this.id = id; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,29 @@
+package com.example.springapi.model;
+
+import java.util.List;
+
+public class BatchResult {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResult> items;
+
+    public BatchResult() {}
+
+    public BatchResult(List<BatchItemResult> items) {
+        this.items = items;
+        this.total = items.size();
+        this.succeeded = (int) items.stream().filter(BatchItemResult::isSuccess).count();
+        this.failed = total - succeeded;
+    }
+
+    public int getTotal() { return total; }
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return failed; }
+    public List<BatchItemResult> getItems() { return items; }
+
+    public void setTotal(int total) { this.total = total; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public void setItems(List<BatchItemResult> items) { this.items = items; }
+}
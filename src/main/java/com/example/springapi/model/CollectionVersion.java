@@ -0,0 +1,18 @@
+package com.example.springapi.model;
+
+/**
+ * État de la table des utilisateurs : nombre de modifications validées.
+ * Sert d'ETag aux listes, sans relire les lignes. Pas de date : horodatée avant le commit,
+ * elle ne croîtrait pas dans l'ordre des commits et ne peut servir de Last-Modified.
+ */
+public class CollectionVersion {
+    private final long changes;
+
+    public CollectionVersion(long changes) {
+        this.changes = changes;
+    }
+
+    public long getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springapi.model;
+
+/**
+ * Réponse d'une création rejouable par Idempotency-Key : statut, en-têtes utiles (Location, ETag) et corps,
+ * avec l'empreinte de la requête qui l'a produite. {@code replayed} distingue un rejeu de l'exécution d'origine.
+ */
+public class IdempotentResponse {
+    private final String fingerprint;
+    private final int status;
+    private final String location;
+    private final String etag;
+    private final ApiResponse<?> body;
+    private final boolean replayed;
+
+    public IdempotentResponse(String fingerprint, int status, String location, String etag, ApiResponse<?> body,
+                              boolean replayed) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.location = location;
+        this.etag = etag;
+        this.body = body;
+        this.replayed = replayed;
+    }
+
+    // Réponse fraîchement produite, avant que le service n'y associe l'empreinte de la requête
+    public static IdempotentResponse of(int status, String location, String etag, ApiResponse<?> body) {
+        return new IdempotentResponse(null, status, location, etag, body, false);
+    }
+
+    public IdempotentResponse withFingerprint(String fingerprint) {
+        return new IdempotentResponse(fingerprint, status, location, etag, body, replayed);
+    }
+
+    public IdempotentResponse asReplay() {
+        return new IdempotentResponse(fingerprint, status, location, etag, body, true);
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public ApiResponse<?> getBody() {
+        return body;
+    }
+
+    public boolean isReplayed() {
+        return replayed;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.springapi.model;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse : lignes lues, insérées et rejetées. Seules les {@code maxErrors} premières lignes
+ * rejetées sont détaillées ({@code errorsTruncated} indique qu'il y en a d'autres).
+ */
+public class ImportReport {
+
+    public static class Rejection {
+        private final long line;
+        private final String error;
+
+        public Rejection(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final long total;
+    private final long imported;
+    private final long rejected;
+    private final List<Rejection> errors;
+    private final boolean errorsTruncated;
+
+    public ImportReport(long total, long imported, long rejected, List<Rejection> errors, boolean errorsTruncated) {
+        this.total = total;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<Rejection> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+}
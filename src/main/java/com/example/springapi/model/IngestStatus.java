@@ -0,0 +1,46 @@
+package com.example.springapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Suivi d'une création différée (POST /api/users en mode write-behind)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestStatus {
+
+    public enum State { PENDING, CREATED, FAILED }
+
+    private String trackingId;
+    private State state;
+    private Long userId;
+    private String error;
+
+    public IngestStatus() {}
+
+    public IngestStatus(String trackingId, State state, Long userId, String error) {
+        this.trackingId = trackingId;
+        this.state = state;
+        this.userId = userId;
+        this.error = error;
+    }
+
+    public static IngestStatus pending(String trackingId) {
+        return new IngestStatus(trackingId, State.PENDING, null, null);
+    }
+
+    public static IngestStatus created(String trackingId, Long userId) {
+        return new IngestStatus(trackingId, State.CREATED, userId, null);
+    }
+
+    public static IngestStatus failed(String trackingId, String error) {
+        return new IngestStatus(trackingId, State.FAILED, null, error);
+    }
+
+    public String getTrackingId() { return trackingId; }
+    public State getState() { return state; }
+    public Long getUserId() { return userId; }
+    public String getError() { return error; }
+
+    public void setTrackingId(String trackingId) { this.trackingId = trackingId; }
+    public void setState(State state) { this.state = state; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public void setError(String error) { this.error = error; }
+}
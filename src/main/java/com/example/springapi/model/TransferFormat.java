@@ -0,0 +1,45 @@
+package com.example.springapi.model;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/** Formats d'export et d'import en masse : un utilisateur par ligne. */
+public enum TransferFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    TransferFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static TransferFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Format inconnu : " + value + " (ndjson ou csv)");
+        }
+    }
+
+    public static TransferFormat of(MediaType mediaType) {
+        for (TransferFormat format : values()) {
+            if (MediaType.parseMediaType(format.mediaType).isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Type de contenu non pris en charge : " + mediaType + " (" + NDJSON.mediaType
+            + " ou " + CSV.mediaType + ")");
+    }
+}
@@ -1,13 +1,39 @@
 package com.example.springapi.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// Requêtes nommées : analysées et validées par Hibernate à la création de l'EntityManagerFactory, pas à la première requête
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NamedQuery(name = User.FIND_ALL, query = "SELECT u FROM User u ORDER BY u.id")
+@NamedQuery(name = User.FIND_PAGE, query = "SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+@NamedQuery(name = User.FIND_BY_IDS, query = "SELECT u FROM User u WHERE u.id IN :ids")
+@NamedQuery(name = User.FIND_EXISTING_IDS, query = "SELECT u.id FROM User u WHERE u.id IN :ids")
+@NamedQuery(name = User.DELETE_BY_IDS, query = "DELETE FROM User u WHERE u.id IN :ids")
+@NamedQuery(name = User.FIND_BY_EMAIL, query = "SELECT u FROM User u WHERE u.email = :email")
+@NamedQuery(name = User.COUNT_BY_EMAIL, query = "SELECT COUNT(u) FROM User u WHERE u.email = :email")
+@NamedQuery(name = User.FIND_IDS_BY_EMAILS, query = "SELECT u.email, u.id FROM User u WHERE u.email IN :emails")
+@NamedQuery(name = User.COUNT, query = "SELECT COUNT(u) FROM User u")
 public class User {
 
+    public static final String FIND_ALL = "User.findAll";
+    public static final String FIND_PAGE = "User.findPage";
+    public static final String FIND_BY_IDS = "User.findByIds";
+    public static final String FIND_EXISTING_IDS = "User.findExistingIds";
+    public static final String DELETE_BY_IDS = "User.deleteByIds";
+    public static final String FIND_BY_EMAIL = "User.findByEmail";
+    public static final String COUNT_BY_EMAIL = "User.countByEmail";
+    public static final String FIND_IDS_BY_EMAILS = "User.findIdsByEmails";
+    public static final String COUNT = "User.count";
+
+    // Optimiseur "pooled" : un appel à la séquence réserve 50 IDs, ce qui permet le batch JDBC des INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, name = "fullname")
@@ -16,6 +42,11 @@ public class User {
     @Column(nullable = false, unique = true, name = "email")
     private String email;
 
+    // Incrémentée à chaque modification : verrouillage optimiste et ETag de GET /api/users/{id}
+    @Version
+    @Column(nullable = false, name = "version")
+    private Long version;
+
     public User() {}
 
     public User(String fullName, String email) {
@@ -26,8 +57,10 @@ public class User {
     public Long getId() { return id; }
     public String getFullName() { return fullName; }
     public String getEmail() { return email; }
+    public Long getVersion() { return version; }
 
     public void setId(Long id) { this.id = id; }
     public void setFullName(String fullName) { this.fullName = fullName; }
     public void setEmail(String email) { this.email = email; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.springapi.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.Instant;
+
+// Événement de l'outbox users_outbox, publié sur GET /api/users/changes
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChange {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private long seq;
+    private Type type;
+    private Long userId;
+    private User user;
+    // ISO-8601 sans dépendre du module jackson-datatype-jsr310
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Instant occurredAt;
+    // Transaction d'écriture : clé d'ordre de publication avec seq, interne au relais
+    @JsonIgnore
+    private long txId;
+
+    public UserChange() {}
+
+    public UserChange(long seq, long txId, Type type, Long userId, User user, Instant occurredAt) {
+        this.seq = seq;
+        this.txId = txId;
+        this.type = type;
+        this.userId = userId;
+        this.user = user;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getSeq() { return seq; }
+    public Type getType() { return type; }
+    public Long getUserId() { return userId; }
+    public User getUser() { return user; }
+    public Instant getOccurredAt() { return occurredAt; }
+    public long getTxId() { return txId; }
+
+    public void setSeq(long seq) { this.seq = seq; }
+    public void setType(Type type) { this.type = type; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public void setUser(User user) { this.user = user; }
+    public void setOccurredAt(Instant occurredAt) { this.occurredAt = occurredAt; }
+    public void setTxId(long txId) { this.txId = txId; }
+}
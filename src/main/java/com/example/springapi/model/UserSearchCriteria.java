@@ -0,0 +1,91 @@
+package com.example.springapi.model;
+
+import java.util.Locale;
+
+/**
+ * Critères de GET /api/users/search : filtre sur le nom (préfixe ou sous-chaîne),
+ * filtre sur le domaine de l'email et tri.
+ */
+public class UserSearchCriteria {
+
+    public static final int MIN_CONTAINS_LENGTH = 3;
+
+    public enum NameMatch { PREFIX, CONTAINS }
+
+    public enum SortField { ID, NAME, EMAIL }
+
+    private final String name;
+    private final NameMatch nameMatch;
+    private final String emailDomain;
+    private final SortField sort;
+    private final boolean descending;
+
+    public UserSearchCriteria(String name, NameMatch nameMatch, String emailDomain, SortField sort, boolean descending) {
+        this.name = name;
+        this.nameMatch = nameMatch;
+        this.emailDomain = emailDomain;
+        this.sort = sort;
+        this.descending = descending;
+    }
+
+    /**
+     * Construit les critères à partir des paramètres de requête ; les valeurs absentes prennent
+     * leur défaut (préfixe, tri par ID croissant).
+     */
+    public static UserSearchCriteria parse(String q, String match, String domain, String sort, String order) {
+        String name = blankToNull(q);
+        String emailDomain = blankToNull(domain);
+        if (emailDomain != null && emailDomain.startsWith("@")) {
+            emailDomain = emailDomain.substring(1);
+        }
+
+        NameMatch nameMatch = parseEnum(NameMatch.class, match, NameMatch.PREFIX, "match");
+        if (name != null && nameMatch == NameMatch.CONTAINS && name.length() < MIN_CONTAINS_LENGTH) {
+            throw new IllegalArgumentException(
+                "La recherche par sous-chaîne exige au moins " + MIN_CONTAINS_LENGTH + " caractères");
+        }
+
+        SortField sortField = parseEnum(SortField.class, sort, SortField.ID, "sort");
+        String direction = blankToNull(order);
+        if (direction != null && !direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+            throw new IllegalArgumentException("Paramètre order invalide : " + order);
+        }
+        return new UserSearchCriteria(name, nameMatch, emailDomain, sortField, "desc".equalsIgnoreCase(direction));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public NameMatch getNameMatch() {
+        return nameMatch;
+    }
+
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    public SortField getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue, String parameter) {
+        String v = blankToNull(value);
+        if (v == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, v.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Paramètre " + parameter + " invalide : " + value);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springapi.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Nombre d'utilisateurs, au total et par domaine d'email (les plus représentés d'abord),
+ * tel que lu dans la table de synthèse à {@code refreshedAt}.
+ */
+public class UserStats {
+
+    public static class DomainCount {
+        private final String domain;
+        private final long users;
+
+        public DomainCount(String domain, long users) {
+            this.domain = domain;
+            this.users = users;
+        }
+
+        public String getDomain() {
+            return domain;
+        }
+
+        public long getUsers() {
+            return users;
+        }
+    }
+
+    private final long total;
+    private final int domainCount;
+    private final List<DomainCount> domains;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final Instant refreshedAt;
+
+    public UserStats(long total, int domainCount, List<DomainCount> domains, Instant refreshedAt) {
+        this.total = total;
+        this.domainCount = domainCount;
+        this.domains = domains;
+        this.refreshedAt = refreshedAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getDomainCount() {
+        return domainCount;
+    }
+
+    public List<DomainCount> getDomains() {
+        return domains;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.springapi.model;
+
+/**
+ * Résultat d'une lecture accompagné de la version de la table relevée juste avant, dans la même transaction.
+ */
+public class Versioned<T> {
+    private final T value;
+    private final CollectionVersion version;
+
+    public Versioned(T value, CollectionVersion version) {
+        this.value = value;
+        this.version = version;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public CollectionVersion getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.springapi.model;
+
+// État du préchauffage au démarrage, exposé par GET /ready
+public class WarmupStatus {
+
+    public enum Phase {
+        PENDING, POOL, SERIALIZERS, REQUESTS, READY, FAILED, TIMED_OUT;
+
+        public boolean isFinished() {
+            return this == READY || this == FAILED || this == TIMED_OUT;
+        }
+    }
+
+    private final Phase phase;
+    private final int requests;
+    private final int failedRequests;
+    private final long elapsedMillis;
+
+    public WarmupStatus(Phase phase, int requests, int failedRequests, long elapsedMillis) {
+        this.phase = phase;
+        this.requests = requests;
+        this.failedRequests = failedRequests;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isReady() { return phase == Phase.READY; }
+    public Phase getPhase() { return phase; }
+    public int getRequests() { return requests; }
+    public int getFailedRequests() { return failedRequests; }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -0,0 +1,13 @@
+package com.example.springapi.repository;
+
+import com.example.springapi.model.IdempotentResponse;
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IIdempotencyRepository {
+    boolean claim(String scope, String key, String fingerprint, Instant expiresAt);
+    Optional<IdempotentResponse> findCompleted(String scope, String key);
+    void complete(String scope, String key, IdempotentResponse response, Instant expiresAt);
+    void release(String scope, String key);
+    int deleteExpired(Instant now);
+}
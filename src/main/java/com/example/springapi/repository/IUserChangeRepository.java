@@ -0,0 +1,14 @@
+package com.example.springapi.repository;
+
+import com.example.springapi.model.UserChange;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+public interface IUserChangeRepository {
+    List<UserChange> findAfter(long txId, long seq, int limit);
+    OptionalLong findTxId(long seq);
+    Optional<UserChange> findLatest();
+    int deleteOlderThan(Instant instant);
+}
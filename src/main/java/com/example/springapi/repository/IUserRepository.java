@@ -1,16 +1,40 @@
 package com.example.springapi.repository;
 
+import com.example.springapi.model.CollectionVersion;
 import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 public interface IUserRepository {
     List<User> findAll();
+    List<User> findPage(Long afterId, int limit);
+    List<User> search(UserSearchCriteria criteria, String afterValue, Long afterId, int limit);
+    Stream<User> streamAll();
+    long exportAll(Consumer<User> consumer);
     Optional<User> findById(Long id);
+    List<User> findAllByIds(Collection<Long> ids);
     User save(User user);
+    Optional<User> insertIfEmailAbsent(User user);
+    Optional<User> updateIfExists(User user);
+    Optional<User> updateIfVersionMatches(User user, long expectedVersion);
+    List<User> saveAll(List<User> users);
+    int copyInsert(Iterator<Map.Entry<Long, User>> rows, LongConsumer rejectedLines);
     void deleteById(Long id);
+    Optional<User> deleteIfExists(Long id);
+    int deleteAllByIds(Collection<Long> ids);
     boolean existsById(Long id);
+    Set<Long> findExistingIds(Collection<Long> ids);
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    Map<String, Long> findIdsByEmails(Collection<String> emails);
     long count();
+    CollectionVersion findCollectionVersion();
 }
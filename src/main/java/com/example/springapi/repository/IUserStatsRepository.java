@@ -0,0 +1,8 @@
+package com.example.springapi.repository;
+
+import java.util.Map;
+
+public interface IUserStatsRepository {
+    Map<String, Long> findDomainCounts();
+    void compact();
+}
@@ -0,0 +1,443 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.cache.BatchLoader;
+import com.example.springapi.cache.EmailIndex;
+import com.example.springapi.cache.EntityCache;
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.model.CollectionVersion;
+import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
+import com.example.springapi.repository.IUserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Cache de lecture devant {@link UserRepositoryImpl} pour les recherches par ID et par email.
+ * Les écritures invalident les entrées immédiatement puis à nouveau après la fin de la transaction.
+ * Une lecture hors transaction peut malgré tout charger la ligne d'avant la validation et ne la mettre en cache
+ * qu'après la seconde invalidation : chaque invalidation incrémente une génération par case d'ID, relue après
+ * la mise en cache, et une valeur chargée avant un changement de génération est retirée aussitôt.
+ * Avec des réplicas, un utilisateur écrit n'est pas remis en cache pendant la fenêtre de stickiness : la lecture
+ * d'un autre client, servie par un réplica en retard, ne peut pas y réinsérer l'ancienne ligne.
+ * Les écritures détachent aussi, aux mêmes moments, les lectures regroupées en cours (SingleFlight) qu'elles
+ * peuvent modifier : celle de l'ID écrit et celles de la collection (listes, pages, version).
+ * Hors transaction, les recherches par ID manquées par le cache sont chargées par lots ({@link BatchLoader}).
+ * Les recherches par email consultent d'abord l'{@link EmailIndex} : un email absent de l'index
+ * n'existe pas et la base n'est pas interrogée.
+ */
+@Repository
+@Primary
+public class CachingUserRepository implements IUserRepository {
+
+    private static final int GENERATION_STRIPES = 1024;
+    private static final long RECENT_WRITES_MAX_SIZE = 100_000;
+
+    private final IUserRepository delegate;
+    private final EntityCache<Long, User> byId;
+    private final EntityCache<String, Long> idByEmail;
+    private final EmailIndex emailIndex;
+    private final SingleFlight<Object, Object> reads;
+    private final BatchLoader<Long, User> batches;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Cache<Long, Boolean> recentlyWritten;
+
+    public CachingUserRepository(@Qualifier("userRepositoryImpl") IUserRepository delegate,
+                                 @Qualifier("userByIdCache") EntityCache<Long, User> byId,
+                                 @Qualifier("userIdByEmailCache") EntityCache<String, Long> idByEmail,
+                                 EmailIndex emailIndex,
+                                 @Qualifier("userReads") SingleFlight<Object, Object> reads,
+                                 @Qualifier("userBatches") BatchLoader<Long, User> batches,
+                                 @Value("${app.datasource.replicas.urls:}") String[] replicaUrls,
+                                 @Value("${app.datasource.replicas.stickiness-ms:2000}") long replicaStickinessMillis) {
+        this.delegate = delegate;
+        this.byId = byId;
+        this.idByEmail = idByEmail;
+        this.emailIndex = emailIndex;
+        this.reads = reads;
+        this.batches = batches;
+        // Sans réplica, toutes les lectures voient les écritures validées : pas de délai de remise en cache
+        this.recentlyWritten = Arrays.stream(replicaUrls).allMatch(String::isBlank) || replicaStickinessMillis <= 0 ? null
+                : Caffeine.newBuilder()
+                        .maximumSize(RECENT_WRITES_MAX_SIZE)
+                        .expireAfterWrite(Duration.ofMillis(replicaStickinessMillis))
+                        .<Long, Boolean>build();
+    }
+
+    public EntityCache<Long, User> getByIdCache() {
+        return byId;
+    }
+
+    public EntityCache<String, Long> getIdByEmailCache() {
+        return idByEmail;
+    }
+
+    public EmailIndex getEmailIndex() {
+        return emailIndex;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<User> search(UserSearchCriteria criteria, String afterValue, Long afterId, int limit) {
+        return delegate.search(criteria, afterValue, afterId, limit);
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public long exportAll(Consumer<User> consumer) {
+        return delegate.exportAll(consumer);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        Optional<User> cached = byId.getIfPresent(id);
+        if (cached.isPresent()) {
+            return cached.map(CachingUserRepository::copyOf);
+        }
+
+        // Dans une transaction, la lecture doit voir ses propres écritures : pas de lot partagé
+        if (batches.isEnabled() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return batches.load(id, this::loadBatch).map(CachingUserRepository::copyOf);
+        }
+        long generation = generation(id);
+        Optional<User> loaded = delegate.findById(id);
+        if (loaded.isPresent() && canPopulate()) {
+            populate(loaded.get(), generation);
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<User> users = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Optional<User> cached = byId.getIfPresent(id);
+            if (cached.isPresent()) {
+                users.add(copyOf(cached.get()));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return users;
+        }
+        boolean populate = canPopulate();
+        Map<Long, Long> generations = generations(missing);
+        for (User user : delegate.findAllByIds(missing)) {
+            if (populate) {
+                populate(user, generations.get(user.getId()));
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private Map<Long, User> loadBatch(Collection<Long> ids) {
+        Map<Long, Long> generations = generations(ids);
+        Map<Long, User> found = new HashMap<>();
+        for (User user : delegate.findAllByIds(ids)) {
+            populate(user, generations.get(user.getId()));
+            found.put(user.getId(), user);
+        }
+        return found;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        String key = email.trim();
+        if (!emailIndex.mightContain(key)) {
+            return Optional.empty();
+        }
+
+        Optional<Long> cachedId = idByEmail.getIfPresent(key);
+        if (cachedId.isPresent()) {
+            // L'entrée email -> ID peut être périmée (email modifié, utilisateur supprimé) : on la vérifie
+            Optional<User> user = findById(cachedId.get());
+            if (user.isPresent() && key.equals(user.get().getEmail())) {
+                return user;
+            }
+            idByEmail.invalidate(key);
+        }
+
+        // Génération globale par défaut : l'ID n'est connu qu'après la lecture, toute invalidation pendant celle-ci compte
+        long before = invalidations.get();
+        Optional<User> loaded = delegate.findByEmail(key);
+        if (loaded.isEmpty() && emailIndex.isReady()) {
+            emailIndex.recordFalsePositive();
+        }
+        if (loaded.isPresent() && canPopulate()) {
+            idByEmail.put(key, loaded.get().getId());
+            if (invalidations.get() == before) {
+                populate(loaded.get(), generation(loaded.get().getId()));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        if (id != null && byId.getIfPresent(id).isPresent()) {
+            return true;
+        }
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (email != null && !email.trim().isEmpty() && !emailIndex.mightContain(email)) {
+            return false;
+        }
+        if (email != null && idByEmail.getIfPresent(email.trim()).isPresent()) {
+            return findByEmail(email).isPresent();
+        }
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return delegate.findExistingIds(ids);
+    }
+
+    @Override
+    public Map<String, Long> findIdsByEmails(Collection<String> emails) {
+        if (emails == null || emails.isEmpty() || !emailIndex.isReady()) {
+            return delegate.findIdsByEmails(emails);
+        }
+        Set<String> probable = new LinkedHashSet<>();
+        for (String email : emails) {
+            if (emailIndex.mightContain(email)) {
+                probable.add(email);
+            }
+        }
+        if (probable.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> found = delegate.findIdsByEmails(probable);
+        for (int i = found.size(); i < probable.size(); i++) {
+            emailIndex.recordFalsePositive();
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public CollectionVersion findCollectionVersion() {
+        return delegate.findCollectionVersion();
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        written(saved.getId(), saved.getEmail());
+        return saved;
+    }
+
+    @Override
+    public Optional<User> insertIfEmailAbsent(User user) {
+        Optional<User> inserted = delegate.insertIfEmailAbsent(user);
+        inserted.ifPresent(saved -> written(saved.getId(), saved.getEmail()));
+        return inserted;
+    }
+
+    @Override
+    public Optional<User> updateIfExists(User user) {
+        Optional<User> updated = delegate.updateIfExists(user);
+        written(user.getId(), user.getEmail());
+        return updated;
+    }
+
+    @Override
+    public Optional<User> updateIfVersionMatches(User user, long expectedVersion) {
+        Optional<User> updated = delegate.updateIfVersionMatches(user, expectedVersion);
+        written(user.getId(), user.getEmail());
+        return updated;
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        List<User> saved = delegate.saveAll(users);
+        saved.forEach(user -> written(user.getId(), user.getEmail()));
+        return saved;
+    }
+
+    // Les emails sont indexés au fil du flux (ceux des lignes écartées existent déjà : l'ajout est sans effet) ;
+    // une reconstruction de l'index concurrente à l'import peut en manquer certains jusqu'à la suivante
+    @Override
+    public int copyInsert(Iterator<Map.Entry<Long, User>> rows, LongConsumer rejectedLines) {
+        Iterator<Map.Entry<Long, User>> indexed = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Map.Entry<Long, User> next() {
+                Map.Entry<Long, User> row = rows.next();
+                emailIndex.add(row.getValue().getEmail());
+                return row;
+            }
+        };
+        int inserted = delegate.copyInsert(indexed, rejectedLines);
+        written(null, null);
+        return inserted;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        delegate.deleteById(id);
+        evict(id, null);
+    }
+
+    @Override
+    public Optional<User> deleteIfExists(Long id) {
+        Optional<User> deleted = delegate.deleteIfExists(id);
+        evict(id, deleted.map(User::getEmail).orElse(null));
+        return deleted;
+    }
+
+    @Override
+    public int deleteAllByIds(Collection<Long> ids) {
+        int deleted = delegate.deleteAllByIds(ids);
+        ids.forEach(id -> evict(id, null));
+        return deleted;
+    }
+
+    private void evict(Long id, String email) {
+        invalidate(id, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id, email);
+                }
+            });
+        }
+    }
+
+    // L'email est indexé dès l'écriture, puis à nouveau après la fin de la transaction englobante éventuelle :
+    // une reconstruction de l'index démarrée entre les deux ne voit pas la ligne mais reçoit le second ajout
+    private void written(Long id, String email) {
+        invalidate(id, email);
+        emailIndex.add(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id, email);
+                    emailIndex.add(email);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long id, String email) {
+        reads.forgetIf(CachingUserRepository::isCollectionRead);
+        if (id != null) {
+            reads.forget(id);
+            // Génération incrémentée avant l'invalidation : une mise en cache concurrente voit l'une ou l'autre
+            generations.incrementAndGet(stripe(id));
+            invalidations.incrementAndGet();
+            if (recentlyWritten != null) {
+                recentlyWritten.put(id, Boolean.TRUE);
+            }
+            byId.invalidate(id);
+        }
+        if (email != null) {
+            idByEmail.invalidate(email.trim());
+        }
+    }
+
+    // Clés des lectures regroupées : l'ID pour une lecture unitaire, toute autre clé désigne une lecture de collection
+    private static boolean isCollectionRead(Object key) {
+        return !(key instanceof Long);
+    }
+
+    private void populate(User user, long generation) {
+        if (recentlyWritten != null && recentlyWritten.getIfPresent(user.getId()) != null) {
+            return;
+        }
+        byId.put(user.getId(), copyOf(user));
+        if (generation(user.getId()) != generation) {
+            byId.invalidate(user.getId());
+        }
+    }
+
+    private long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    private Map<Long, Long> generations(Collection<Long> ids) {
+        Map<Long, Long> result = new HashMap<>();
+        ids.forEach(id -> result.put(id, generation(id)));
+        return result;
+    }
+
+    private static int stripe(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 54) & (GENERATION_STRIPES - 1);
+    }
+
+    // Une transaction en écriture peut lire des données non validées : on ne les met pas en cache
+    private static boolean canPopulate() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User(user.getFullName(), user.getEmail());
+        copy.setId(user.getId());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.cache.EmailIndex;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construit l'{@link EmailIndex} au démarrage à partir de la table users, puis le reconstruit
+ * périodiquement : purge des emails supprimés, redimensionnement, prise en compte des écritures
+ * faites hors de cette instance.
+ */
+@Component
+public class EmailIndexLoader implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailIndexLoader.class);
+
+    private static final int PAGE_SIZE = 5_000;
+
+    private final IUserRepository repository;
+    private final EmailIndex emailIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final long rebuildIntervalSeconds;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public EmailIndexLoader(@Qualifier("userRepositoryImpl") IUserRepository repository,
+                            EmailIndex emailIndex,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.email-index.rebuild-interval-seconds:3600}") long rebuildIntervalSeconds) {
+        this.repository = repository;
+        this.emailIndex = emailIndex;
+        // Transaction en écriture : lecture sur le primaire, un réplica en retard rendrait des faux négatifs
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildIntervalSeconds = rebuildIntervalSeconds;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!emailIndex.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Construction en arrière-plan : l'index répond "probablement présent" tant qu'il n'est pas prêt
+        scheduler.execute(this::rebuild);
+        if (rebuildIntervalSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::rebuild, rebuildIntervalSeconds, rebuildIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void rebuild() {
+        try {
+            long started = System.nanoTime();
+            emailIndex.rebuild(repository.count(), sink -> {
+                Long afterId = null;
+                List<User> page;
+                do {
+                    if (!running) {
+                        // Un filtre partiel donnerait des faux négatifs : on garde l'ancien
+                        throw new IllegalStateException("Arrêt en cours");
+                    }
+                    Long cursor = afterId;
+                    page = transactionTemplate.execute(status -> repository.findPage(cursor, PAGE_SIZE));
+                    for (User user : page) {
+                        sink.accept(user.getEmail());
+                        afterId = user.getId();
+                    }
+                } while (page.size() == PAGE_SIZE);
+            });
+            log.info("Index des emails construit en {} ms ({} octets)",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), emailIndex.stats().getMemoryBytes());
+        } catch (RuntimeException e) {
+            log.warn("Construction de l'index des emails impossible", e);
+        }
+    }
+}
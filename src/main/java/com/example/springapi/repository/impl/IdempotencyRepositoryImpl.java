@@ -0,0 +1,156 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.IdempotentResponse;
+import com.example.springapi.repository.IIdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Réponses idempotentes partagées entre instances (db/migration/V6, V8), par espace de clés (scope) et clé.
+ * La réservation valide sa propre transaction : elle doit être visible des autres instances avant l'exécution
+ * de la requête. {@code complete} rejoint la transaction de la création quand il y en a une.
+ * Le corps est conservé en JSON et relu en {@code ApiResponse<JsonNode>}, resérialisé à l'identique.
+ * <p>
+ * Transactions d'écriture, y compris pour la lecture : une réplica en retard ignorerait une clé tout juste réservée.
+ */
+@Repository
+@Transactional
+public class IdempotencyRepositoryImpl implements IIdempotencyRepository {
+
+    private static final TypeReference<ApiResponse<JsonNode>> BODY_TYPE = new TypeReference<>() {};
+
+    // Une clé expirée (réservation abandonnée ou réponse périmée) est reprise par la nouvelle requête
+    private static final String CLAIM_SQL =
+        "INSERT INTO idempotency_keys (scope, idempotency_key, fingerprint, expires_at) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (scope, idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = NULL, " +
+        "location = NULL, etag = NULL, body = NULL, expires_at = EXCLUDED.expires_at " +
+        "WHERE idempotency_keys.expires_at < now()";
+    private static final String FIND_COMPLETED_SQL =
+        "SELECT fingerprint, status, location, etag, body FROM idempotency_keys " +
+        "WHERE scope = ? AND idempotency_key = ? AND status IS NOT NULL AND expires_at >= now()";
+    private static final String COMPLETE_SQL =
+        "UPDATE idempotency_keys SET status = ?, location = ?, etag = ?, body = ?, expires_at = ? " +
+        "WHERE scope = ? AND idempotency_key = ? AND fingerprint = ?";
+    private static final String RELEASE_SQL =
+        "DELETE FROM idempotency_keys WHERE scope = ? AND idempotency_key = ? AND status IS NULL";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM idempotency_keys WHERE expires_at < ?";
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IdempotencyRepositoryImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean claim(String scope, String key, String fingerprint, Instant expiresAt) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(CLAIM_SQL)) {
+                statement.setString(1, scope);
+                statement.setString(2, key);
+                statement.setString(3, fingerprint);
+                statement.setTimestamp(4, Timestamp.from(expiresAt));
+                return statement.executeUpdate() == 1;
+            }
+        });
+    }
+
+    @Override
+    public Optional<IdempotentResponse> findCompleted(String scope, String key) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_COMPLETED_SQL)) {
+                statement.setString(1, scope);
+                statement.setString(2, key);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(new IdempotentResponse(resultSet.getString("fingerprint"), resultSet.getInt("status"),
+                            resultSet.getString("location"), resultSet.getString("etag"),
+                            readBody(resultSet.getString("body")), false));
+                }
+            }
+        });
+    }
+
+    @Override
+    public void complete(String scope, String key, IdempotentResponse response, Instant expiresAt) {
+        String body = writeBody(response.getBody());
+        session().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(COMPLETE_SQL)) {
+                statement.setInt(1, response.getStatus());
+                statement.setString(2, response.getLocation());
+                statement.setString(3, response.getEtag());
+                statement.setString(4, body);
+                statement.setTimestamp(5, Timestamp.from(expiresAt));
+                statement.setString(6, scope);
+                statement.setString(7, key);
+                statement.setString(8, response.getFingerprint());
+                if (statement.executeUpdate() != 1) {
+                    throw new IllegalStateException("Réservation de la clé d'idempotence " + key + " perdue");
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String scope, String key) {
+        session().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RELEASE_SQL)) {
+                statement.setString(1, scope);
+                statement.setString(2, key);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_EXPIRED_SQL)) {
+                statement.setTimestamp(1, Timestamp.from(now));
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    private String writeBody(ApiResponse<?> body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ApiResponse<JsonNode> readBody(String body) {
+        try {
+            return body == null ? null : objectMapper.readValue(body, BODY_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.model.User;
+import com.example.springapi.model.UserChange;
+import com.example.springapi.repository.IUserChangeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Lecture de l'outbox users_outbox (db/migration/V4). Les numéros de séquence sont attribués avant le commit :
+ * un événement validé plus tard peut porter un numéro inférieur. Les événements sont donc lus dans l'ordre
+ * (tx_id, seq), et seulement ceux dont la transaction est antérieure à la plus ancienne transaction en cours :
+ * toute ligne validée ensuite se place après eux, un consommateur qui reprend après le dernier reçu ne manque rien.
+ * <p>
+ * Lectures en transaction d'écriture : l'état des transactions n'a de sens que sur le primaire.
+ */
+@Repository
+@Transactional
+public class UserChangeRepositoryImpl implements IUserChangeRepository {
+
+    private static final String COLUMNS = "seq, tx_id, operation, user_id, fullname, email, version, created_at";
+    private static final String SETTLED = "tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private static final String FIND_AFTER_SQL =
+        "SELECT " + COLUMNS + " FROM users_outbox WHERE (tx_id, seq) > (?, ?) AND " + SETTLED +
+        " ORDER BY tx_id, seq LIMIT ?";
+    private static final String FIND_TX_ID_SQL = "SELECT tx_id FROM users_outbox WHERE seq = ?";
+    private static final String FIND_LATEST_SQL =
+        "SELECT " + COLUMNS + " FROM users_outbox WHERE " + SETTLED + " ORDER BY tx_id DESC, seq DESC LIMIT 1";
+    private static final String DELETE_OLDER_THAN_SQL = "DELETE FROM users_outbox WHERE created_at < ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserChange> findAfter(long txId, long seq, int limit) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_AFTER_SQL)) {
+                statement.setLong(1, txId);
+                statement.setLong(2, seq);
+                statement.setInt(3, limit);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<UserChange> changes = new ArrayList<>();
+                    while (resultSet.next()) {
+                        changes.add(readChange(resultSet));
+                    }
+                    return changes;
+                }
+            }
+        });
+    }
+
+    @Override
+    public OptionalLong findTxId(long seq) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_TX_ID_SQL)) {
+                statement.setLong(1, seq);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? OptionalLong.of(resultSet.getLong(1)) : OptionalLong.empty();
+                }
+            }
+        });
+    }
+
+    // Dernier événement publiable : point de départ d'un abonnement sans position
+    @Override
+    public Optional<UserChange> findLatest() {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_LATEST_SQL);
+                 ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.of(readChange(resultSet)) : Optional.empty();
+            }
+        });
+    }
+
+    @Override
+    public int deleteOlderThan(Instant instant) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_OLDER_THAN_SQL)) {
+                statement.setTimestamp(1, Timestamp.from(instant));
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    private static UserChange readChange(ResultSet resultSet) throws SQLException {
+        long userId = resultSet.getLong("user_id");
+        UserChange.Type type = switch (resultSet.getString("operation")) {
+            case "I" -> UserChange.Type.CREATED;
+            case "U" -> UserChange.Type.UPDATED;
+            default -> UserChange.Type.DELETED;
+        };
+        User user = null;
+        if (type != UserChange.Type.DELETED) {
+            user = new User(resultSet.getString("fullname"), resultSet.getString("email"));
+            user.setId(userId);
+            user.setVersion(resultSet.getLong("version"));
+        }
+        return new UserChange(resultSet.getLong("seq"), resultSet.getLong("tx_id"), type, userId, user,
+                resultSet.getTimestamp("created_at").toInstant());
+    }
+}
@@ -1,30 +1,176 @@
 package com.example.springapi.repository.impl;
 
+import com.example.springapi.exception.DuplicateEmailException;
+import com.example.springapi.model.CollectionVersion;
 import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
 import com.example.springapi.repository.IUserRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-@Repository
+@Repository("userRepositoryImpl")
 @Transactional
 public class UserRepositoryImpl implements IUserRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+    // ~100 octets par ligne : environ 200 Ko par aller-retour, sans matérialiser la table côté client
+    private static final int EXPORT_FETCH_SIZE = 2000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // Écritures en une seule instruction : l'existence et l'unicité de l'email sont garanties par la base
+    private static final String INSERT_IF_EMAIL_ABSENT_SQL =
+        "INSERT INTO users (id, fullname, email, version) VALUES (nextval('users_seq'), ?, ?, 0) " +
+        "ON CONFLICT (email) DO NOTHING RETURNING id, fullname, email, version";
+    private static final String UPDATE_RETURNING_SQL =
+        "UPDATE users SET fullname = ?, email = ?, version = version + 1 WHERE id = ? " +
+        "RETURNING id, fullname, email, version";
+    private static final String UPDATE_IF_VERSION_RETURNING_SQL =
+        "UPDATE users SET fullname = ?, email = ?, version = version + 1 WHERE id = ? AND version = ? " +
+        "RETURNING id, fullname, email, version";
+    private static final String DELETE_RETURNING_SQL =
+        "DELETE FROM users WHERE id = ? RETURNING id, fullname, email, version";
+
+    // Un seul paramètre tableau quel que soit le nombre d'IDs : une seule instruction préparée à mettre en cache
+    private static final String FIND_ALL_BY_IDS_SQL =
+        "SELECT id, fullname, email, version FROM users WHERE id = ANY(?)";
+
+    private static final String EXPORT_SQL =
+        "SELECT id, fullname, email, version FROM users ORDER BY id";
+
+    // Import : COPY dans une table temporaire, puis une seule insertion qui écarte les emails déjà présents
+    // (en base ou plus haut dans le fichier) et renvoie les lignes écartées. Les IDs suivent l'ordre du fichier.
+    private static final String CREATE_IMPORT_TABLE_SQL =
+        "CREATE TEMPORARY TABLE users_import (line BIGINT NOT NULL, fullname VARCHAR(255) NOT NULL, " +
+        "email VARCHAR(255) NOT NULL) ON COMMIT DROP";
+    private static final String COPY_IMPORT_SQL =
+        "COPY users_import (line, fullname, email) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_IMPORTED_SQL =
+        "WITH candidates AS (" +
+        "  SELECT line, fullname, email, row_number() OVER (PARTITION BY email ORDER BY line) AS rank FROM users_import), " +
+        "inserted AS (" +
+        "  INSERT INTO users (id, fullname, email, version) " +
+        "  SELECT nextval('users_seq'), fullname, email, 0 FROM candidates c " +
+        "  WHERE rank = 1 AND NOT EXISTS (SELECT 1 FROM users u WHERE u.email = c.email) ORDER BY line " +
+        "  ON CONFLICT (email) DO NOTHING RETURNING email) " +
+        "SELECT line FROM candidates c " +
+        "WHERE c.rank > 1 OR NOT EXISTS (SELECT 1 FROM inserted i WHERE i.email = c.email) ORDER BY line";
+
+    // Compteur réparti sur plusieurs lignes, tenu à jour par trigger (db/migration/V3, V7)
+    private static final String COLLECTION_VERSION_SQL =
+        "SELECT COALESCE(SUM(changes), 0) FROM users_changes";
+
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
     public List<User> findAll() {
-        TypedQuery<User> query = entityManager.createQuery("SELECT u FROM User u ORDER BY u.id", User.class);
+        TypedQuery<User> query = entityManager.createNamedQuery(User.FIND_ALL, User.class);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findPage(Long afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être positive");
+        }
+
+        TypedQuery<User> query = entityManager.createNamedQuery(User.FIND_PAGE, User.class);
+        query.setParameter("afterId", afterId == null ? 0L : afterId);
+        query.setMaxResults(limit);
         return query.getResultList();
     }
 
+    // SQL natif : les filtres et le tri reposent sur les index PostgreSQL de db/migration/V2
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> search(UserSearchCriteria criteria, String afterValue, Long afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être positive");
+        }
+
+        UserSearchSql search = UserSearchSql.of(criteria, afterValue, afterId, limit);
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(search.getSql())) {
+                List<Object> parameters = search.getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                return readAll(statement);
+            }
+        });
+    }
+
+    // Le flux reste adossé au curseur JDBC : il doit être consommé dans la transaction appelante.
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<User> streamAll() {
+        TypedQuery<User> query = entityManager.createNamedQuery(User.FIND_ALL, User.class);
+        query.setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        query.setHint(AvailableHints.HINT_READ_ONLY, true);
+        return query.getResultStream().map(user -> {
+            entityManager.detach(user);
+            return user;
+        });
+    }
+
+    // Curseur côté serveur : le pilote PostgreSQL ne lit par blocs de EXPORT_FETCH_SIZE qu'en ResultSet
+    // FORWARD_ONLY et hors autocommit, ce que garantit la transaction
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAll(Consumer<User> consumer) {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                long exported = 0;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(readUser(resultSet));
+                        exported++;
+                    }
+                }
+                return exported;
+            }
+        });
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
@@ -35,6 +181,20 @@ public class UserRepositoryImpl implements IUserRepository {
         return Optional.ofNullable(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_ALL_BY_IDS_SQL)) {
+                statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+                return readAll(statement);
+            }
+        });
+    }
+
     @Override
     @Transactional
     public User save(User user) {
@@ -50,6 +210,157 @@ public class UserRepositoryImpl implements IUserRepository {
         }
     }
 
+    @Override
+    @Transactional
+    public Optional<User> insertIfEmailAbsent(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("L'utilisateur ne peut pas être null");
+        }
+
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_IF_EMAIL_ABSENT_SQL)) {
+                statement.setString(1, user.getFullName());
+                statement.setString(2, user.getEmail());
+                return readSingle(statement);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> updateIfExists(User user) {
+        if (user == null || user.getId() == null) {
+            throw new IllegalArgumentException("L'utilisateur et son ID ne peuvent pas être null");
+        }
+        return update(UPDATE_RETURNING_SQL, user, null);
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> updateIfVersionMatches(User user, long expectedVersion) {
+        if (user == null || user.getId() == null) {
+            throw new IllegalArgumentException("L'utilisateur et son ID ne peuvent pas être null");
+        }
+        return update(UPDATE_IF_VERSION_RETURNING_SQL, user, expectedVersion);
+    }
+
+    private Optional<User> update(String sql, User user, Long expectedVersion) {
+        Optional<User> updated = session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, user.getFullName());
+                statement.setString(2, user.getEmail());
+                statement.setLong(3, user.getId());
+                if (expectedVersion != null) {
+                    statement.setLong(4, expectedVersion);
+                }
+                return readSingle(statement);
+            } catch (SQLException e) {
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw new DuplicateEmailException();
+                }
+                throw e;
+            }
+        });
+        evictFromSecondLevelCache(user.getId());
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> deleteIfExists(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("L'ID ne peut pas être null");
+        }
+
+        Optional<User> deleted = session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_RETURNING_SQL)) {
+                statement.setLong(1, id);
+                return readSingle(statement);
+            }
+        });
+        evictFromSecondLevelCache(id);
+        return deleted;
+    }
+
+    // Les utilisateurs existants sont chargés en une seule requête puis modifiés en place :
+    // Hibernate regroupe ensuite les INSERT / UPDATE en lots JDBC au flush.
+    @Override
+    @Transactional
+    public List<User> saveAll(List<User> users) {
+        if (users == null) {
+            throw new IllegalArgumentException("La liste des utilisateurs ne peut pas être null");
+        }
+
+        List<Long> ids = users.stream().map(User::getId).filter(id -> id != null).toList();
+        Map<Long, User> managed = ids.isEmpty() ? Map.of() : entityManager
+            .createNamedQuery(User.FIND_BY_IDS, User.class)
+            .setParameter("ids", ids)
+            .getResultList()
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<User> saved = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (user.getId() == null) {
+                entityManager.persist(user);
+                saved.add(user);
+            } else {
+                User target = managed.get(user.getId());
+                if (target == null) {
+                    throw new NoSuchElementException("Utilisateur non trouvé avec l'ID: " + user.getId());
+                }
+                target.setFullName(user.getFullName());
+                target.setEmail(user.getEmail());
+                saved.add(target);
+            }
+        }
+        entityManager.flush();
+        return saved;
+    }
+
+    // Les lignes sont lues au fil de l'écriture dans le flux COPY : la mémoire ne dépend pas de leur nombre
+    @Override
+    @Transactional
+    public int copyInsert(Iterator<Map.Entry<Long, User>> rows, LongConsumer rejectedLines) {
+        return session().doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_IMPORT_TABLE_SQL);
+            }
+
+            long copied = 0;
+            PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_IMPORT_SQL, COPY_BUFFER_SIZE);
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+                while (rows.hasNext()) {
+                    Map.Entry<Long, User> row = rows.next();
+                    writer.write(row.getKey() + "," + csvField(row.getValue().getFullName()) + "," + csvField(row.getValue().getEmail()) + "\n");
+                    copied++;
+                }
+                writer.close();
+            } catch (IOException | RuntimeException e) {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                if (e instanceof IOException io) {
+                    throw new UncheckedIOException(io);
+                }
+                throw (RuntimeException) e;
+            }
+
+            long rejected = 0;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_IMPORTED_SQL)) {
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rejectedLines.accept(resultSet.getLong(1));
+                        rejected++;
+                    }
+                }
+            }
+            return Math.toIntExact(copied - rejected);
+        });
+    }
+
     @Override
     @Transactional
     public void deleteById(Long id) {
@@ -63,6 +374,17 @@ public class UserRepositoryImpl implements IUserRepository {
         }
     }
 
+    @Override
+    @Transactional
+    public int deleteAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createNamedQuery(User.DELETE_BY_IDS)
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean existsById(Long id) {
@@ -72,6 +394,17 @@ public class UserRepositoryImpl implements IUserRepository {
         return entityManager.find(User.class, id) != null;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Set.of();
+        }
+        TypedQuery<Long> query = entityManager.createNamedQuery(User.FIND_EXISTING_IDS, Long.class);
+        query.setParameter("ids", ids);
+        return new HashSet<>(query.getResultList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
@@ -79,8 +412,7 @@ public class UserRepositoryImpl implements IUserRepository {
             return Optional.empty();
         }
         
-        TypedQuery<User> query = entityManager.createQuery(
-            "SELECT u FROM User u WHERE u.email = :email", User.class);
+        TypedQuery<User> query = entityManager.createNamedQuery(User.FIND_BY_EMAIL, User.class);
         query.setParameter("email", email.trim());
         
         List<User> users = query.getResultList();
@@ -94,17 +426,84 @@ public class UserRepositoryImpl implements IUserRepository {
             return false;
         }
         
-        TypedQuery<Long> query = entityManager.createQuery(
-            "SELECT COUNT(u) FROM User u WHERE u.email = :email", Long.class);
+        TypedQuery<Long> query = entityManager.createNamedQuery(User.COUNT_BY_EMAIL, Long.class);
         query.setParameter("email", email.trim());
         
         return query.getSingleResult() > 0;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> findIdsByEmails(Collection<String> emails) {
+        if (emails == null || emails.isEmpty()) {
+            return Map.of();
+        }
+        List<Object[]> rows = entityManager.createNamedQuery(User.FIND_IDS_BY_EMAILS, Object[].class)
+            .setParameter("emails", emails)
+            .getResultList();
+
+        Map<String, Long> idsByEmail = new HashMap<>();
+        for (Object[] row : rows) {
+            idsByEmail.put((String) row[0], (Long) row[1]);
+        }
+        return idsByEmail;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionVersion findCollectionVersion() {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(COLLECTION_VERSION_SQL);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return new CollectionVersion(resultSet.getLong(1));
+            }
+        });
+    }
+
     @Override
     @Transactional(readOnly = true)
     public long count() {
-        TypedQuery<Long> query = entityManager.createQuery("SELECT COUNT(u) FROM User u", Long.class);
+        TypedQuery<Long> query = entityManager.createNamedQuery(User.COUNT, Long.class);
         return query.getSingleResult();
     }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    // Les écritures JDBC contournent Hibernate : la région de second niveau éventuelle doit être purgée
+    private void evictFromSecondLevelCache(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(User.class, id);
+    }
+
+    private static String csvField(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static Optional<User> readSingle(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                return Optional.empty();
+            }
+            return Optional.of(readUser(resultSet));
+        }
+    }
+
+    private static List<User> readAll(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            List<User> users = new ArrayList<>();
+            while (resultSet.next()) {
+                users.add(readUser(resultSet));
+            }
+            return users;
+        }
+    }
+
+    private static User readUser(ResultSet resultSet) throws SQLException {
+        User user = new User(resultSet.getString("fullname"), resultSet.getString("email"));
+        user.setId(resultSet.getLong("id"));
+        user.setVersion(resultSet.getLong("version"));
+        return user;
+    }
 }
@@ -0,0 +1,101 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.model.UserSearchCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL PostgreSQL de la recherche d'utilisateurs, écrit pour correspondre aux index de db/migration/V2 :
+ * <ul>
+ *   <li>nom (préfixe ou sous-chaîne) : GIN trigramme sur {@code lower(fullname)}, utilisable aussi en plan générique</li>
+ *   <li>domaine de l'email : btree sur {@code lower(split_part(email, '@', 2)), id}</li>
+ *   <li>tri par nom : btree sur {@code (lower(fullname) COLLATE "C"), id} ; par email : contrainte unique</li>
+ * </ul>
+ * Les minuscules sont calculées par PostgreSQL des deux côtés, pour rester cohérentes avec sa locale.
+ */
+final class UserSearchSql {
+
+    static final String NAME_FILTER_KEY = "lower(fullname)";
+    static final String NAME_SORT_KEY = "(lower(fullname) COLLATE \"C\")";
+    static final String DOMAIN_KEY = "lower(split_part(email, '@', 2))";
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    private UserSearchSql(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    /**
+     * @param afterValue nom complet ou email de la dernière ligne de la page précédente (tri par nom ou email)
+     * @param afterId    ID de la dernière ligne de la page précédente
+     */
+    static UserSearchSql of(UserSearchCriteria criteria, String afterValue, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+
+        if (criteria.getName() != null) {
+            String escaped = escapeLike(criteria.getName());
+            conditions.add(NAME_FILTER_KEY + " LIKE lower(?)");
+            parameters.add(criteria.getNameMatch() == UserSearchCriteria.NameMatch.CONTAINS
+                ? "%" + escaped + "%"
+                : escaped + "%");
+        }
+        if (criteria.getEmailDomain() != null) {
+            conditions.add(DOMAIN_KEY + " = lower(?)");
+            parameters.add(criteria.getEmailDomain());
+        }
+
+        String comparison = criteria.isDescending() ? "<" : ">";
+        String direction = criteria.isDescending() ? "DESC" : "ASC";
+        String orderBy;
+        switch (criteria.getSort()) {
+            case NAME -> {
+                if (afterId != null) {
+                    conditions.add("(" + NAME_SORT_KEY + ", id) " + comparison + " ((lower(?) COLLATE \"C\"), ?)");
+                    parameters.add(afterValue);
+                    parameters.add(afterId);
+                }
+                orderBy = NAME_SORT_KEY + " " + direction + ", id " + direction;
+            }
+            case EMAIL -> {
+                // L'email est unique : il suffit comme clé de pagination
+                if (afterValue != null) {
+                    conditions.add("email " + comparison + " ?");
+                    parameters.add(afterValue);
+                }
+                orderBy = "email " + direction;
+            }
+            default -> {
+                if (afterId != null) {
+                    conditions.add("id " + comparison + " ?");
+                    parameters.add(afterId);
+                }
+                orderBy = "id " + direction;
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT id, fullname, email, version FROM users");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(orderBy).append(" LIMIT ?");
+        parameters.add(limit);
+        return new UserSearchSql(sql.toString(), parameters);
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    List<Object> getParameters() {
+        return parameters;
+    }
+
+    // Le caractère d'échappement par défaut de LIKE en PostgreSQL est '\'
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
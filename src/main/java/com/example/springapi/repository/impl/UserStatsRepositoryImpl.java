@@ -0,0 +1,66 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.repository.IUserStatsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lecture de la table de synthèse users_domain_stats (db/migration/V5), tenue à jour par trigger.
+ * Elle compte au plus 16 lignes par domaine : la lire coûte le même prix quelle que soit la taille de users.
+ */
+@Repository
+@Transactional
+public class UserStatsRepositoryImpl implements IUserStatsRepository {
+
+    private static final String FIND_DOMAIN_COUNTS_SQL =
+        "SELECT domain, SUM(users) FROM users_domain_stats GROUP BY domain HAVING SUM(users) <> 0";
+
+    // Regroupe les compteurs répartis sur le slot 0 puis supprime les domaines vides
+    private static final String MERGE_SLOTS_SQL =
+        "WITH moved AS (DELETE FROM users_domain_stats WHERE slot <> 0 RETURNING domain, users) " +
+        "INSERT INTO users_domain_stats AS s (domain, slot, users) " +
+        "SELECT domain, 0, SUM(users) FROM moved GROUP BY domain ORDER BY domain " +
+        "ON CONFLICT (domain, slot) DO UPDATE SET users = s.users + EXCLUDED.users";
+    private static final String DELETE_EMPTY_SQL = "DELETE FROM users_domain_stats WHERE users = 0";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> findDomainCounts() {
+        return session().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_DOMAIN_COUNTS_SQL);
+                 ResultSet resultSet = statement.executeQuery()) {
+                Map<String, Long> counts = new HashMap<>();
+                while (resultSet.next()) {
+                    counts.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+                return counts;
+            }
+        });
+    }
+
+    @Override
+    public void compact() {
+        session().doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(MERGE_SLOTS_SQL);
+                statement.executeUpdate(DELETE_EMPTY_SQL);
+            }
+        });
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
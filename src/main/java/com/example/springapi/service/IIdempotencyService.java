@@ -0,0 +1,7 @@
+package com.example.springapi.service;
+import com.example.springapi.model.IdempotentResponse;
+import java.util.function.Supplier;
+public interface IIdempotencyService {
+    boolean isEnabled();
+    IdempotentResponse execute(String key, String credential, Object request, Supplier<IdempotentResponse> action);
+}
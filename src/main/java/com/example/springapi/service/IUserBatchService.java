@@ -0,0 +1,9 @@
+package com.example.springapi.service;
+import com.example.springapi.model.BatchResult;
+import com.example.springapi.model.User;
+import java.util.List;
+public interface IUserBatchService {
+    BatchResult createAll(List<User> users);
+    BatchResult updateAll(List<User> users);
+    BatchResult deleteAll(List<Long> ids);
+}
@@ -0,0 +1,13 @@
+package com.example.springapi.service;
+import com.example.springapi.model.UserChange;
+import java.io.IOException;
+public interface IUserChangeService {
+    /** Abonne {@code listener} aux modifications postérieures à {@code afterSeq} (null : à partir de maintenant, 0 : depuis le début de l'outbox). Renvoie la désinscription. */
+    Runnable subscribe(Long afterSeq, Listener listener);
+
+    interface Listener {
+        void onChange(UserChange change) throws IOException;
+        void onHeartbeat() throws IOException;
+        void onClose();
+    }
+}
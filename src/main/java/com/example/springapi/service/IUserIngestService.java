@@ -0,0 +1,9 @@
+package com.example.springapi.service;
+import com.example.springapi.model.IngestStatus;
+import com.example.springapi.model.User;
+import java.util.Optional;
+public interface IUserIngestService {
+    boolean isEnabled();
+    IngestStatus submit(User user);
+    Optional<IngestStatus> getStatus(String trackingId);
+}
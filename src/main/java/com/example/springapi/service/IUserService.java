@@ -1,9 +1,23 @@
 package com.example.springapi.service;
+import com.example.springapi.model.CollectionVersion;
+import com.example.springapi.model.CursorPage;
 import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
+import com.example.springapi.model.Versioned;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 public interface IUserService {
     List<User> getAll();
+    CursorPage<User> getPage(String cursor, Integer limit);
+    CursorPage<User> search(UserSearchCriteria criteria, String cursor, Integer limit);
+    CollectionVersion getCollectionVersion();
+    Versioned<List<User>> getAllVersioned();
+    Versioned<CursorPage<User>> getPageVersioned(String cursor, Integer limit);
+    void streamAll(Consumer<User> consumer);
     User getById(Long id);
+    List<User> getByIds(Collection<Long> ids);
     User save(User u);
+    User update(User u, long expectedVersion);
     void delete(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.springapi.service;
+import com.example.springapi.model.UserStats;
+public interface IUserStatsService {
+    /** Statistiques courantes, limitées aux {@code top} domaines les plus représentés. */
+    UserStats getStats(int top);
+}
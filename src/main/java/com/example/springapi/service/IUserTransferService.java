@@ -0,0 +1,9 @@
+package com.example.springapi.service;
+import com.example.springapi.model.ImportReport;
+import com.example.springapi.model.TransferFormat;
+import java.io.InputStream;
+import java.io.OutputStream;
+public interface IUserTransferService {
+    long exportAll(TransferFormat format, OutputStream output);
+    ImportReport importAll(TransferFormat format, InputStream input);
+}
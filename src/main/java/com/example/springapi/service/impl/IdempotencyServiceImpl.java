@@ -0,0 +1,312 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.exception.IdempotencyKeyInProgressException;
+import com.example.springapi.exception.IdempotencyKeyReusedException;
+import com.example.springapi.model.IdempotentResponse;
+import com.example.springapi.repository.IIdempotencyRepository;
+import com.example.springapi.service.IIdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Créations rejouables par en-tête Idempotency-Key :
+ * <ul>
+ *   <li>une réponse définitive (ni 5xx ni 429) est gardée dans un cache borné, expiré après {@code ttl} : le rejeu
+ *   d'une même clé y est servi sans accès à la base ;</li>
+ *   <li>les requêtes simultanées de même clé attendent la réponse de la première au lieu de s'exécuter ;</li>
+ *   <li>store "jdbc" : les clés sont aussi réservées et les réponses conservées dans idempotency_keys, pour les
+ *   rejeux qui arrivent sur une autre instance. Une clé réservée ailleurs et pas encore terminée donne 409.
+ *   La réservation tient jusqu'à la fin de la requête ; son bail ({@code lease}) ne sert qu'à reprendre la clé
+ *   d'une instance arrêtée en cours de route. La réponse est enregistrée dans la transaction de la création :
+ *   si elle ne peut l'être, la création est annulée et la requête échoue.</li>
+ * </ul>
+ * Les clés sont propres à chaque identifiant (en-tête Authorization, conservé sous forme d'empreinte) : deux clients
+ * authentifiés différemment ne partagent ni clé ni réponse. Les requêtes anonymes partagent un même espace.
+ * Une clé déjà utilisée avec un autre corps de requête (empreinte SHA-256 différente) est refusée en 422.
+ */
+@Service
+public class IdempotencyServiceImpl implements IIdempotencyService, SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final IIdempotencyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lease;
+    private final TransactionTemplate transaction;
+
+    private final Cache<ScopedKey, IdempotentResponse> completed;
+    private final Map<ScopedKey, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private ScheduledExecutorService purger;
+    private volatile boolean running;
+
+    public IdempotencyServiceImpl(IIdempotencyRepository repository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.idempotency.enabled:true}") boolean enabled,
+                                  @Value("${app.idempotency.store:memory}") String store,
+                                  @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                  @Value("${app.idempotency.max-entries:100000}") long maxEntries,
+                                  @Value("${app.idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis,
+                                  @Value("${app.idempotency.lease-seconds:900}") long leaseSeconds) {
+        if (!"memory".equals(store) && !"jdbc".equals(store)) {
+            throw new IllegalArgumentException("app.idempotency.store inconnu : " + store + " (memory ou jdbc)");
+        }
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.persistent = "jdbc".equals(store);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMillis);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public IdempotentResponse execute(String key, String credential, Object request, Supplier<IdempotentResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("L'en-tête Idempotency-Key doit contenir de 1 à " + MAX_KEY_LENGTH + " caractères");
+        }
+        String fingerprint = fingerprint(request);
+        String scope = credential == null || credential.isEmpty() ? "" : sha256(credential.getBytes(StandardCharsets.UTF_8));
+        ScopedKey scoped = new ScopedKey(scope, key);
+        IdempotentResponse cached = completed.getIfPresent(scoped);
+        if (cached != null) {
+            return replay(cached, fingerprint, replayedCount);
+        }
+
+        CompletableFuture<IdempotentResponse> own = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> leader = inFlight.putIfAbsent(scoped, own);
+        if (leader != null) {
+            return replay(await(leader), fingerprint, coalescedCount);
+        }
+        try {
+            IdempotentResponse response = executeOnce(scoped, fingerprint, action);
+            own.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scoped, own);
+        }
+    }
+
+    private IdempotentResponse executeOnce(ScopedKey key, String fingerprint, Supplier<IdempotentResponse> action) {
+        // La requête précédente a pu se terminer entre la lecture du cache et la prise de la place dans inFlight
+        IdempotentResponse cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, fingerprint, replayedCount);
+        }
+        if (!persistent) {
+            IdempotentResponse response = action.get().withFingerprint(fingerprint);
+            if (!isRetryable(response)) {
+                completed.put(key, response);
+            }
+            return response;
+        }
+
+        if (!repository.claim(key.scope(), key.key(), fingerprint, Instant.now().plus(lease))) {
+            IdempotentResponse stored = repository.findCompleted(key.scope(), key.key())
+                    .orElseThrow(() -> new IdempotencyKeyInProgressException(RETRY_AFTER_SECONDS));
+            completed.put(key, stored);
+            return replay(stored, fingerprint, replayedCount);
+        }
+
+        IdempotentResponse response;
+        AtomicBoolean stored = new AtomicBoolean();
+        try {
+            response = transaction.execute(status -> {
+                IdempotentResponse result = action.get().withFingerprint(fingerprint);
+                // Rien à valider : échec (5xx, 429) ou création déjà annulée par une exception (ex. 409 email en double)
+                if (isRetryable(result) || status.isRollbackOnly()) {
+                    status.setRollbackOnly();
+                    return result;
+                }
+                repository.complete(key.scope(), key.key(), result, Instant.now().plus(ttl));
+                stored.set(true);
+                return result;
+            });
+        } catch (RuntimeException e) {
+            // Création annulée avec la réponse qui n'a pu être enregistrée : un nouvel essai peut s'exécuter
+            release(key);
+            throw e;
+        }
+        // 5xx et 429 ne sont pas définitifs : la clé est libérée pour que le client puisse réessayer
+        if (isRetryable(response)) {
+            release(key);
+            return response;
+        }
+        if (!stored.get()) {
+            try {
+                repository.complete(key.scope(), key.key(), response, Instant.now().plus(ttl));
+            } catch (RuntimeException e) {
+                // Aucune création validée : rejouer la requête est sans risque
+                log.warn("Enregistrement de la réponse idempotente {} impossible", key.key(), e);
+                release(key);
+                return response;
+            }
+        }
+        completed.put(key, response);
+        return response;
+    }
+
+    private static boolean isRetryable(IdempotentResponse response) {
+        return response.getStatus() >= 500 || response.getStatus() == 429;
+    }
+
+    private IdempotentResponse replay(IdempotentResponse stored, String fingerprint, AtomicLong counter) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        counter.incrementAndGet();
+        return stored.asReplay();
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> leader) {
+        try {
+            return leader.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void release(ScopedKey key) {
+        try {
+            repository.release(key.scope(), key.key());
+        } catch (RuntimeException e) {
+            // La réservation expirera d'elle-même au terme du bail
+            log.warn("Libération de la clé d'idempotence {} impossible", key.key(), e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return sha256(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // scope : empreinte de l'identifiant du client, vide pour les requêtes anonymes
+    private record ScopedKey(String scope, String key) {}
+
+    @Override
+    public void start() {
+        if (enabled && persistent) {
+            purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "idempotency-purge");
+                thread.setDaemon(true);
+                return thread;
+            });
+            purger.scheduleWithFixedDelay(this::purge, 0, 1, TimeUnit.HOURS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("idempotency.responses.cached", completed, Cache::estimatedSize)
+                .description("Réponses idempotentes gardées en mémoire")
+                .register(registry);
+        FunctionCounter.builder("idempotency.replays", replayedCount, AtomicLong::get)
+                .description("Requêtes idempotentes servies sans exécution")
+                .tag("source", "stored")
+                .register(registry);
+        FunctionCounter.builder("idempotency.replays", coalescedCount, AtomicLong::get)
+                .description("Requêtes idempotentes servies sans exécution")
+                .tag("source", "in-flight")
+                .register(registry);
+    }
+
+    private void purge() {
+        try {
+            int purged = repository.deleteExpired(Instant.now());
+            if (purged > 0) {
+                log.info("{} clé(s) d'idempotence expirée(s) purgée(s)", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Purge des clés d'idempotence impossible", e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.model.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal disque de la file d'écriture différée : une ligne JSON par création acceptée, puis une ligne
+ * "done" lorsqu'elle a été traitée. Au démarrage, les créations non traitées sont rejouées et le fichier
+ * est compacté. Les écritures sont vidées vers le système sans fsync : le journal survit à l'arrêt du
+ * processus, pas à une panne de la machine.
+ */
+final class IngestJournal implements Closeable {
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    record Entry(String id, String fullName, String email, boolean done) {
+
+        User toUser() {
+            return new User(fullName, email);
+        }
+    }
+
+    private final Path path;
+    private final ObjectMapper mapper;
+    private BufferedWriter writer;
+
+    IngestJournal(Path path, ObjectMapper mapper) {
+        this.path = path;
+        this.mapper = mapper;
+    }
+
+    /** Relit le journal, le réécrit avec les seules créations en attente et les renvoie dans l'ordre d'arrivée. */
+    synchronized List<Entry> open() throws IOException {
+        Map<String, Entry> pending = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Entry entry;
+                    try {
+                        entry = mapper.readValue(line, Entry.class);
+                    } catch (JsonProcessingException e) {
+                        // Dernière ligne tronquée par un arrêt brutal
+                        break;
+                    }
+                    if (entry.done()) {
+                        pending.remove(entry.id());
+                    } else {
+                        pending.put(entry.id(), entry);
+                    }
+                }
+            }
+        } else if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (Entry entry : pending.values()) {
+                out.write(mapper.writeValueAsString(entry));
+                out.newLine();
+            }
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        return new ArrayList<>(pending.values());
+    }
+
+    synchronized void accepted(String id, User user) throws IOException {
+        append(new Entry(id, user.getFullName(), user.getEmail(), false));
+        writer.flush();
+    }
+
+    synchronized void done(Collection<String> ids) throws IOException {
+        for (String id : ids) {
+            append(new Entry(id, null, null, true));
+        }
+        writer.flush();
+    }
+
+    /** Vide le journal : à n'appeler que lorsqu'aucune création n'est en attente. */
+    synchronized void truncate() throws IOException {
+        writer.close();
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private void append(Entry entry) throws IOException {
+        writer.write(mapper.writeValueAsString(entry));
+        writer.newLine();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.model.BatchItemResult;
+import com.example.springapi.model.BatchResult;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.example.springapi.service.IUserBatchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Traitements en masse : la charge utile est validée élément par élément puis découpée en lots,
+ * chaque lot étant enregistré dans sa propre transaction (voir {@link IUserRepository#saveAll}).
+ * Un lot rejeté par la base n'affecte pas les lots déjà validés.
+ */
+@Service
+public class UserBatchServiceImpl implements IUserBatchService {
+
+    private static final String DUPLICATE_EMAIL = "Un utilisateur avec cet email existe déjà";
+
+    private final IUserRepository repository;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public UserBatchServiceImpl(IUserRepository repository,
+                                @Value("${app.batch.chunk-size:500}") int chunkSize,
+                                @Value("${app.batch.max-items:10000}") int maxItems) {
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public BatchResult createAll(List<User> users) {
+        checkPayload(users);
+        BatchItemResult[] results = new BatchItemResult[users.size()];
+        List<Integer> valid = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String error = validate(user);
+            if (error == null && user.getId() != null) {
+                error = "L'ID ne doit pas être fourni pour une création";
+            }
+            if (error == null && !seenEmails.add(user.getEmail().trim())) {
+                error = "Email en double dans la requête";
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.failure(i, null, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            Map<String, Long> existing = repository.findIdsByEmails(emailsOf(users, chunk));
+            List<Integer> toSave = new ArrayList<>();
+            for (int index : chunk) {
+                if (existing.containsKey(users.get(index).getEmail().trim())) {
+                    results[index] = BatchItemResult.failure(index, null, DUPLICATE_EMAIL);
+                } else {
+                    toSave.add(index);
+                }
+            }
+            saveChunk(users, toSave, results);
+        }
+
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    @Override
+    public BatchResult updateAll(List<User> users) {
+        checkPayload(users);
+        BatchItemResult[] results = new BatchItemResult[users.size()];
+        List<Integer> valid = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String error = validate(user);
+            Long id = user == null ? null : user.getId();
+            if (error == null && id == null) {
+                error = "L'ID est obligatoire pour une mise à jour";
+            }
+            if (error == null && !seenIds.add(id)) {
+                error = "ID en double dans la requête";
+            }
+            if (error == null && !seenEmails.add(user.getEmail().trim())) {
+                error = "Email en double dans la requête";
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.failure(i, id, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            Set<Long> existingIds = repository.findExistingIds(chunk.stream().map(i -> users.get(i).getId()).toList());
+            Map<String, Long> idsByEmail = repository.findIdsByEmails(emailsOf(users, chunk));
+            List<Integer> toSave = new ArrayList<>();
+            for (int index : chunk) {
+                User user = users.get(index);
+                Long owner = idsByEmail.get(user.getEmail().trim());
+                if (!existingIds.contains(user.getId())) {
+                    results[index] = BatchItemResult.failure(index, user.getId(), "Utilisateur non trouvé avec l'ID: " + user.getId());
+                } else if (owner != null && !owner.equals(user.getId())) {
+                    results[index] = BatchItemResult.failure(index, user.getId(), DUPLICATE_EMAIL);
+                } else {
+                    toSave.add(index);
+                }
+            }
+            saveChunk(users, toSave, results);
+        }
+
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    @Override
+    public BatchResult deleteAll(List<Long> ids) {
+        checkPayload(ids);
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        List<Integer> valid = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = BatchItemResult.failure(i, null, "L'ID ne peut pas être null");
+            } else if (!seenIds.add(id)) {
+                results[i] = BatchItemResult.failure(i, id, "ID en double dans la requête");
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<Long> chunkIds = chunk.stream().map(ids::get).toList();
+            Set<Long> existingIds = repository.findExistingIds(chunkIds);
+            try {
+                repository.deleteAllByIds(existingIds);
+                for (int index : chunk) {
+                    Long id = ids.get(index);
+                    results[index] = existingIds.contains(id)
+                        ? BatchItemResult.success(index, id)
+                        : BatchItemResult.failure(index, id, "Utilisateur non trouvé avec l'ID: " + id);
+                }
+            } catch (RuntimeException e) {
+                for (int index : chunk) {
+                    results[index] = BatchItemResult.failure(index, ids.get(index), "Échec de la suppression du lot: " + e.getMessage());
+                }
+            }
+        }
+
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    private void saveChunk(List<User> users, List<Integer> indexes, BatchItemResult[] results) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        List<Long> requestedIds = indexes.stream().map(i -> users.get(i).getId()).toList();
+        try {
+            List<User> saved = repository.saveAll(indexes.stream().map(users::get).toList());
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = BatchItemResult.success(indexes.get(i), saved.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            // Conflit concurrent (email déjà pris entre la vérification et l'écriture) : tout le lot est annulé
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = BatchItemResult.failure(indexes.get(i), requestedIds.get(i), "Échec de l'enregistrement du lot: " + e.getMessage());
+            }
+        }
+    }
+
+    private void checkPayload(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("La requête doit contenir au moins un élément");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("La requête ne peut pas contenir plus de " + maxItems + " éléments");
+        }
+    }
+
+    private static String validate(User user) {
+        if (user == null) {
+            return "L'utilisateur ne peut pas être null";
+        }
+        if (user.getFullName() == null || user.getFullName().trim().isEmpty()) {
+            return "Le nom complet est obligatoire";
+        }
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            return "L'email est obligatoire";
+        }
+        return null;
+    }
+
+    private static List<String> emailsOf(List<User> users, List<Integer> indexes) {
+        return indexes.stream().map(i -> users.get(i).getEmail().trim()).toList();
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < indexes.size(); start += chunkSize) {
+            chunks.add(indexes.subList(start, Math.min(start + chunkSize, indexes.size())));
+        }
+        return chunks;
+    }
+}
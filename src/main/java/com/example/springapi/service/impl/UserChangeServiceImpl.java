@@ -0,0 +1,324 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.exception.ChangesExpiredException;
+import com.example.springapi.model.UserChange;
+import com.example.springapi.repository.IUserChangeRepository;
+import com.example.springapi.service.IUserChangeService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relais de l'outbox users_outbox vers les abonnés (SSE). Un thread unique interroge l'outbox à intervalle
+ * fixe ; les abonnés arrivés à la même position partagent la même requête, seuls ceux en rattrapage
+ * déclenchent une lecture propre. Les événements trop anciens sont purgés selon la durée de rétention.
+ * <p>
+ * Le relais ne fait que déposer les événements dans une file bornée par abonné ; l'écriture sur la connexion
+ * se fait sur un thread d'envoi, un seul à la fois par abonné. Un client lent ou bloqué ne retarde donc ni les
+ * autres ni les heartbeats ; s'il accumule plus de {@code maxQueuedEvents} événements, il est déconnecté et
+ * reprendra avec Last-Event-ID depuis le dernier événement reçu.
+ */
+@Service
+public class UserChangeServiceImpl implements IUserChangeService, SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeServiceImpl.class);
+
+    // Pages lues d'affilée pour un abonné en retard avant de passer au cycle suivant
+    private static final int MAX_PAGES_PER_POLL = 20;
+
+    // Position dans l'outbox : dernier événement remis, dans l'ordre de lecture (tx_id, seq)
+    private record Cursor(long txId, long seq) {
+        private static final Cursor ORIGIN = new Cursor(0, 0);
+
+        private static Cursor of(UserChange change) {
+            return new Cursor(change.getTxId(), change.getSeq());
+        }
+    }
+
+    // Élément de file signalant un heartbeat à envoyer
+    private static final Object HEARTBEAT = new Object();
+
+    /**
+     * Abonné : file d'envoi bornée remplie par le relais et vidée par au plus un thread d'envoi à la fois.
+     * {@code cursor} est la position du dernier événement mis en file, {@code lastQueuedNanos} n'est lu et
+     * écrit que par le relais.
+     */
+    private final class Subscriber {
+        private final Listener listener;
+        private final BlockingQueue<Object> outbox;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closeNotified = new AtomicBoolean();
+        private volatile Cursor cursor;
+        private volatile boolean closed;
+        private long lastQueuedNanos = System.nanoTime();
+
+        private Subscriber(Listener listener, Cursor cursor) {
+            this.listener = listener;
+            this.cursor = cursor;
+            this.outbox = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        // Page entière ou rien : seul le relais ajoute des éléments, la place vérifiée ne peut que grandir
+        private boolean offer(List<UserChange> changes) {
+            if (outbox.remainingCapacity() < changes.size()) {
+                return false;
+            }
+            outbox.addAll(changes);
+            cursor = Cursor.of(changes.get(changes.size() - 1));
+            lastQueuedNanos = System.nanoTime();
+            signal();
+            return true;
+        }
+
+        private void offerHeartbeat(long now) {
+            if (outbox.isEmpty() && outbox.offer(HEARTBEAT)) {
+                lastQueuedNanos = now;
+                signal();
+            }
+        }
+
+        private void signal() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Object item;
+                while (!closed && (item = outbox.poll()) != null) {
+                    send(item);
+                }
+                if (closed) {
+                    outbox.clear();
+                    if (closeNotified.compareAndSet(false, true)) {
+                        listener.onClose();
+                    }
+                    return;
+                }
+                draining.set(false);
+                // Élément ajouté (ou fermeture) entre la dernière lecture et la libération : on reprend la main
+                if ((outbox.isEmpty() && !closed) || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private void send(Object item) {
+            try {
+                if (item == HEARTBEAT) {
+                    listener.onHeartbeat();
+                } else {
+                    listener.onChange((UserChange) item);
+                }
+            } catch (IOException e) {
+                // Client déconnecté : il reprendra depuis le dernier événement reçu
+                detach();
+            } catch (RuntimeException e) {
+                log.warn("Envoi d'un événement impossible, abonné déconnecté", e);
+                detach();
+            }
+        }
+
+        // Désinscription sans notification : le client est déjà parti
+        private void detach() {
+            subscribers.remove(this);
+            closed = true;
+        }
+
+        // Déconnexion à l'initiative du serveur : onClose est appelé par le thread d'envoi, après l'écriture en cours
+        private void close() {
+            detach();
+            signal();
+        }
+    }
+
+    private final IUserChangeRepository repository;
+    private final long pollIntervalMillis;
+    private final int batchSize;
+    private final long heartbeatNanos;
+    private final Duration retention;
+    private final int queueCapacity;
+    private final Executor senders;
+    private final LongAdder slowDropped = new LongAdder();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService relay;
+    private volatile boolean running;
+
+    @Autowired
+    public UserChangeServiceImpl(IUserChangeRepository repository,
+                                 @Value("${app.changes.poll-interval-ms:200}") long pollIntervalMillis,
+                                 @Value("${app.changes.batch-size:500}") int batchSize,
+                                 @Value("${app.changes.heartbeat-seconds:15}") long heartbeatSeconds,
+                                 @Value("${app.changes.retention-hours:168}") long retentionHours,
+                                 @Value("${app.changes.max-queued-events:2000}") int maxQueuedEvents) {
+        this(repository, pollIntervalMillis, batchSize, heartbeatSeconds, retentionHours, maxQueuedEvents,
+                Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "user-changes-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    UserChangeServiceImpl(IUserChangeRepository repository, long pollIntervalMillis, int batchSize,
+                          long heartbeatSeconds, long retentionHours, int maxQueuedEvents, Executor senders) {
+        this.repository = repository;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.batchSize = batchSize;
+        this.heartbeatNanos = TimeUnit.SECONDS.toNanos(heartbeatSeconds);
+        this.retention = Duration.ofHours(retentionHours);
+        // Une page lue doit pouvoir entrer dans une file vide
+        this.queueCapacity = Math.max(maxQueuedEvents, batchSize);
+        this.senders = senders;
+    }
+
+    @Override
+    public Runnable subscribe(Long afterSeq, Listener listener) {
+        Cursor cursor;
+        if (afterSeq == null) {
+            cursor = repository.findLatest().map(Cursor::of).orElse(Cursor.ORIGIN);
+        } else if (afterSeq < 0) {
+            throw new IllegalArgumentException("La position de reprise doit être positive");
+        } else if (afterSeq == 0) {
+            cursor = Cursor.ORIGIN;
+        } else {
+            // La position doit désigner un événement encore conservé, sinon des événements ont été purgés
+            OptionalLong txId = repository.findTxId(afterSeq);
+            if (txId.isEmpty()) {
+                throw new ChangesExpiredException(afterSeq);
+            }
+            cursor = new Cursor(txId.getAsLong(), afterSeq);
+        }
+        Subscriber subscriber = new Subscriber(listener, cursor);
+        subscribers.add(subscriber);
+        return subscriber::detach;
+    }
+
+    @Override
+    public void start() {
+        relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-changes-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relay.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        relay.scheduleWithFixedDelay(this::purge, 0, 1, TimeUnit.HOURS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        relay.shutdownNow();
+        // Les clients EventSource se reconnectent avec Last-Event-ID sur une autre instance
+        subscribers.forEach(Subscriber::close);
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("users.changes.subscribers", subscribers, Set::size)
+                .description("Abonnés au flux des modifications")
+                .register(registry);
+        FunctionCounter.builder("users.changes.slow.dropped", slowDropped, LongAdder::sum)
+                .description("Abonnés déconnectés pour retard de lecture (file d'envoi pleine)")
+                .register(registry);
+    }
+
+    void poll() {
+        try {
+            Map<Cursor, List<Subscriber>> byCursor = new LinkedHashMap<>();
+            for (Subscriber subscriber : subscribers) {
+                byCursor.computeIfAbsent(subscriber.cursor, cursor -> new ArrayList<>()).add(subscriber);
+            }
+            byCursor.forEach(this::relay);
+            heartbeats();
+        } catch (RuntimeException e) {
+            log.warn("Lecture de l'outbox impossible", e);
+        }
+    }
+
+    private void relay(Cursor cursor, List<Subscriber> group) {
+        for (int page = 0; page < MAX_PAGES_PER_POLL && !group.isEmpty(); page++) {
+            List<UserChange> changes = repository.findAfter(cursor.txId(), cursor.seq(), batchSize);
+            if (changes.isEmpty()) {
+                return;
+            }
+            group.removeIf(subscriber -> !enqueue(subscriber, changes));
+            cursor = Cursor.of(changes.get(changes.size() - 1));
+            if (changes.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private boolean enqueue(Subscriber subscriber, List<UserChange> changes) {
+        if (subscriber.closed) {
+            return false;
+        }
+        if (!subscriber.offer(changes)) {
+            slowDropped.increment();
+            log.info("Abonné au flux des modifications trop lent, déconnecté ({} événements en attente)",
+                    subscriber.outbox.size());
+            subscriber.close();
+            return false;
+        }
+        return true;
+    }
+
+    private void heartbeats() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (now - subscriber.lastQueuedNanos >= heartbeatNanos) {
+                subscriber.offerHeartbeat(now);
+            }
+        }
+    }
+
+    private void purge() {
+        try {
+            int purged = repository.deleteOlderThan(Instant.now().minus(retention));
+            if (purged > 0) {
+                log.info("{} événement(s) purgé(s) de l'outbox", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Purge de l'outbox impossible", e);
+        }
+    }
+}
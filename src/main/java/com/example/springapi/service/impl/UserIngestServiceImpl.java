@@ -0,0 +1,348 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.exception.IngestQueueFullException;
+import com.example.springapi.model.IngestStatus;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.example.springapi.service.IUserIngestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Création différée (write-behind) des utilisateurs : POST /api/users valide la requête, la place dans une file
+ * bornée et répond 202 avec un identifiant de suivi. Un thread unique vide la file par lots, chaque lot étant
+ * enregistré dans une seule transaction via {@link IUserRepository#saveAll}, ce qui limite l'écriture à une
+ * connexion du pool quel que soit le débit entrant. File pleine : {@link IngestQueueFullException} (429).
+ * Chaque élément retiré de la file finit CREATED ou FAILED : une erreur passagère de la base fait retenter le lot,
+ * et le journal n'est effacé qu'au-delà d'éléments terminés.
+ */
+@Service
+public class UserIngestServiceImpl implements IUserIngestService, SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIngestServiceImpl.class);
+
+    private static final String DUPLICATE_EMAIL = "Un utilisateur avec cet email existe déjà";
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+
+    private record Pending(String trackingId, User user) {}
+
+    private final IUserRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final String journalPath;
+
+    private final BlockingQueue<Pending> queue;
+    private final Map<String, IngestStatus> pending = new ConcurrentHashMap<>();
+    private final Cache<String, IngestStatus> completed;
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private IngestJournal journal;
+    private Thread worker;
+    private volatile boolean running;
+
+    public UserIngestServiceImpl(IUserRepository repository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.ingest.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${app.ingest.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${app.ingest.batch-size:500}") int batchSize,
+                                 @Value("${app.ingest.status-ttl-seconds:3600}") long statusTtlSeconds,
+                                 @Value("${app.ingest.journal.path:}") String journalPath) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.journalPath = journalPath;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(Math.max(queueCapacity, 10_000))
+                .expireAfterWrite(Duration.ofSeconds(statusTtlSeconds))
+                .build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public IngestStatus submit(User user) {
+        if (!running) {
+            throw new IllegalStateException("La création différée n'est pas active");
+        }
+        String error = validate(user);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+
+        Pending item = new Pending(UUID.randomUUID().toString(), user);
+        IngestStatus status = IngestStatus.pending(item.trackingId());
+        pending.put(item.trackingId(), status);
+        try {
+            if (journal == null) {
+                if (!queue.offer(item)) {
+                    throw new IngestQueueFullException(RETRY_AFTER_SECONDS);
+                }
+            } else {
+                // Seul le worker retire des éléments : la place vérifiée ici ne peut que grandir avant l'offer
+                synchronized (journal) {
+                    if (queue.remainingCapacity() == 0) {
+                        throw new IngestQueueFullException(RETRY_AFTER_SECONDS);
+                    }
+                    journal.accepted(item.trackingId(), user);
+                    queue.add(item);
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(item.trackingId());
+            throw new UncheckedIOException("Écriture du journal impossible", e);
+        } catch (RuntimeException e) {
+            pending.remove(item.trackingId());
+            throw e;
+        }
+        return status;
+    }
+
+    @Override
+    public Optional<IngestStatus> getStatus(String trackingId) {
+        // Ordre inverse de complete() : un élément terminé est dans completed avant de quitter pending
+        IngestStatus status = pending.get(trackingId);
+        return Optional.ofNullable(status != null ? status : completed.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!journalPath.isBlank()) {
+            journal = new IngestJournal(Path.of(journalPath), objectMapper);
+            try {
+                List<IngestJournal.Entry> replay = journal.open();
+                for (IngestJournal.Entry entry : replay) {
+                    pending.put(entry.id(), IngestStatus.pending(entry.id()));
+                    if (!queue.offer(new Pending(entry.id(), entry.toUser()))) {
+                        // Capacité réduite depuis l'arrêt précédent : le reste du journal est traité au fil de l'eau
+                        processWithRetry(List.of(new Pending(entry.id(), entry.toUser())));
+                    }
+                }
+                if (!replay.isEmpty()) {
+                    log.info("{} création(s) différée(s) reprise(s) depuis {}", replay.size(), journalPath);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lecture du journal impossible: " + journalPath, e);
+            } catch (InterruptedException e) {
+                // Les créations non traitées restent dans le journal et seront reprises au prochain démarrage
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "user-ingest");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // Le worker vide la file avant de s'arrêter : la base est encore disponible à ce stade de la fermeture
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Fermeture du journal impossible", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("users.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Créations différées en attente d'écriture")
+                .register(registry);
+        FunctionCounter.builder("users.ingest.completed", createdCount, AtomicLong::get)
+                .description("Créations différées traitées")
+                .tag("result", "created")
+                .register(registry);
+        FunctionCounter.builder("users.ingest.completed", failedCount, AtomicLong::get)
+                .description("Créations différées traitées")
+                .tag("result", "failed")
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Échec du traitement d'un lot de créations différées", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Erreur passagère (lecture des emails existants, connexion perdue) : les éléments non terminés sont retentés
+    // avec un délai croissant, puis marqués en échec. Le journal n'est mis à jour qu'une fois tout le lot terminé.
+    private void processWithRetry(List<Pending> batch) throws InterruptedException {
+        List<Pending> remaining = batch;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                process(remaining);
+                break;
+            } catch (RuntimeException e) {
+                remaining = remaining.stream().filter(item -> pending.containsKey(item.trackingId())).toList();
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.error("Échec du traitement de {} création(s) différée(s) après {} tentatives",
+                            remaining.size(), attempt, e);
+                    for (Pending item : remaining) {
+                        complete(item, IngestStatus.failed(item.trackingId(), "Échec de l'enregistrement: " + e.getMessage()));
+                    }
+                    break;
+                }
+                log.warn("Échec du traitement d'un lot de créations différées (tentative {}/{}), nouvel essai",
+                        attempt, MAX_ATTEMPTS, e);
+                Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 1));
+            }
+        }
+        markDone(batch);
+    }
+
+    private void process(List<Pending> batch) {
+        List<Pending> toSave = new ArrayList<>(batch.size());
+        Set<String> seenEmails = new HashSet<>();
+        Map<String, Long> existing = repository.findIdsByEmails(batch.stream().map(p -> p.user().getEmail().trim()).toList());
+        for (Pending item : batch) {
+            String email = item.user().getEmail().trim();
+            if (existing.containsKey(email)) {
+                complete(item, IngestStatus.failed(item.trackingId(), DUPLICATE_EMAIL));
+            } else if (!seenEmails.add(email)) {
+                complete(item, IngestStatus.failed(item.trackingId(), "Email en double dans la file"));
+            } else {
+                toSave.add(item);
+            }
+        }
+
+        if (!toSave.isEmpty()) {
+            try {
+                List<User> saved = repository.saveAll(toSave.stream().map(p -> copyOf(p.user())).toList());
+                for (int i = 0; i < toSave.size(); i++) {
+                    complete(toSave.get(i), IngestStatus.created(toSave.get(i).trackingId(), saved.get(i).getId()));
+                }
+            } catch (RuntimeException e) {
+                // Conflit concurrent dans le lot : repli élément par élément pour ne rejeter que les fautifs
+                toSave.forEach(this::saveOne);
+            }
+        }
+    }
+
+    private void saveOne(Pending item) {
+        try {
+            Optional<User> saved = repository.insertIfEmailAbsent(copyOf(item.user()));
+            complete(item, saved
+                    .map(user -> IngestStatus.created(item.trackingId(), user.getId()))
+                    .orElseGet(() -> IngestStatus.failed(item.trackingId(), DUPLICATE_EMAIL)));
+        } catch (RuntimeException e) {
+            complete(item, IngestStatus.failed(item.trackingId(), "Échec de l'enregistrement: " + e.getMessage()));
+        }
+    }
+
+    private void complete(Pending item, IngestStatus status) {
+        (status.getState() == IngestStatus.State.CREATED ? createdCount : failedCount).incrementAndGet();
+        completed.put(item.trackingId(), status);
+        pending.remove(item.trackingId());
+    }
+
+    private void markDone(List<Pending> batch) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            synchronized (journal) {
+                // Tous les éléments retirés de la file sont terminés : file vide, plus rien à reprendre
+                if (queue.isEmpty()) {
+                    journal.truncate();
+                } else {
+                    journal.done(batch.stream().map(Pending::trackingId).toList());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Mise à jour du journal impossible", e);
+        }
+    }
+
+    // Entité neuve à chaque tentative : un lot annulé laisse des IDs de séquence sur les objets persistés
+    private static User copyOf(User user) {
+        return new User(user.getFullName(), user.getEmail());
+    }
+
+    private static String validate(User user) {
+        if (user == null) {
+            return "L'utilisateur ne peut pas être null";
+        }
+        if (user.getFullName() == null || user.getFullName().trim().isEmpty()) {
+            return "Le nom complet est obligatoire";
+        }
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            return "L'email est obligatoire";
+        }
+        if (user.getId() != null) {
+            return "L'ID ne doit pas être fourni pour une création";
+        }
+        return null;
+    }
+}
@@ -1,21 +1,52 @@
 package com.example.springapi.service.impl;
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.exception.DuplicateEmailException;
+import com.example.springapi.exception.VersionMismatchException;
+import com.example.springapi.model.CollectionVersion;
+import com.example.springapi.model.CursorPage;
 import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
+import com.example.springapi.model.Versioned;
 import com.example.springapi.repository.IUserRepository;
 import com.example.springapi.service.IUserService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class UserServiceImpl implements IUserService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 1000;
     
     private final IUserRepository repository;
+    private final TransactionTemplate readOnly;
+    private final SingleFlight<Object, Object> reads;
     
-    public UserServiceImpl(IUserRepository repository) {
+    public UserServiceImpl(IUserRepository repository, PlatformTransactionManager transactionManager,
+                           @Qualifier("userReads") SingleFlight<Object, Object> reads) {
         this.repository = repository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.reads = reads;
     }
     
     @Override
@@ -23,15 +54,116 @@ public class UserServiceImpl implements IUserService {
     public List<User> getAll() {
         return repository.findAll();
     }
-    
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<User> getPage(String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        Long afterId = (cursor == null || cursor.isBlank()) ? null : CursorCodec.decodeId(cursor);
+
+        // Une ligne de plus que demandé permet de savoir s'il existe une page suivante
+        List<User> rows = repository.findPage(afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<User> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, CursorCodec.encodeId(items.get(pageSize - 1).getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<User> search(UserSearchCriteria criteria, String cursor, Integer limit) {
+        if (criteria == null) {
+            throw new IllegalArgumentException("Les critères de recherche ne peuvent pas être null");
+        }
+        int pageSize = pageSize(limit);
+
+        // Le curseur porte la clé de tri de la dernière ligne : (nom, ID), (email, ID) ou ID
+        String afterValue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            if (criteria.getSort() == UserSearchCriteria.SortField.ID) {
+                afterId = CursorCodec.decodeId(cursor);
+            } else {
+                String[] parts = CursorCodec.decode(cursor, 2);
+                afterValue = parts[0];
+                afterId = parseCursorId(parts[1]);
+            }
+        }
+
+        List<User> rows = repository.search(criteria, afterValue, afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<User> items = rows.subList(0, pageSize);
+        User last = items.get(pageSize - 1);
+        String nextCursor = switch (criteria.getSort()) {
+            case NAME -> CursorCodec.encode(last.getFullName(), String.valueOf(last.getId()));
+            case EMAIL -> CursorCodec.encode(last.getEmail(), String.valueOf(last.getId()));
+            case ID -> CursorCodec.encodeId(last.getId());
+        };
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CollectionVersion getCollectionVersion() {
+        return coalesced("version", repository::findCollectionVersion);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Versioned<List<User>> getAllVersioned() {
+        return coalesced("all", () -> readVersioned(this::getAll));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Versioned<CursorPage<User>> getPageVersioned(String cursor, Integer limit) {
+        return coalesced(List.of("page", String.valueOf(cursor), pageSize(limit)), () -> readVersioned(() -> getPage(cursor, limit)));
+    }
+
+    // Version relevée avant les données, dans la même transaction (donc sur le même réplica) :
+    // l'ETag renvoyé n'est jamais plus récent que le contenu qu'il accompagne.
+    private <T> Versioned<T> readVersioned(Supplier<T> reader) {
+        CollectionVersion version = repository.findCollectionVersion();
+        return new Versioned<>(reader.get(), version);
+    }
+
+    // Hors transaction, les lectures identiques simultanées partagent un seul chargement, exécuté en lecture seule :
+    // les appelants en attente n'ont pas encore ouvert de transaction et n'occupent aucune connexion du pool.
+    // Dans une transaction appelante, la lecture doit voir ses écritures non validées : pas de regroupement.
+    @SuppressWarnings("unchecked")
+    private <T> T coalesced(Object key, Supplier<T> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        return (T) reads.load(key, () -> readOnly.execute(status -> loader.get()));
+    }
+
     @Override
     @Transactional(readOnly = true)
+    public void streamAll(Consumer<User> consumer) {
+        try (Stream<User> users = repository.streamAll()) {
+            users.forEach(consumer);
+        }
+    }
+    
+    // Pas de transaction propre : un succès de cache ne doit pas emprunter de connexion au pool.
+    // Cache froid : les lectures simultanées d'un même ID partagent un seul chargement.
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @SuppressWarnings("unchecked")
     public User getById(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("L'ID ne peut pas être null");
         }
         
-        Optional<User> user = repository.findById(id);
+        Optional<User> user = TransactionSynchronizationManager.isActualTransactionActive()
+            ? repository.findById(id)
+            : (Optional<User>) reads.load(id, () -> repository.findById(id));
         if (user.isEmpty()) {
             throw new NoSuchElementException("Utilisateur non trouvé avec l'ID: " + id);
         }
@@ -39,44 +171,98 @@ public class UserServiceImpl implements IUserService {
         return user.get();
     }
     
+    // Une seule requête pour les IDs absents du cache ; les IDs inconnus sont omis, l'ordre de la demande est conservé
     @Override
-    public User save(User user) {
-        if (user == null) {
-            throw new IllegalArgumentException("L'utilisateur ne peut pas être null");
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<User> getByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("La liste d'IDs ne peut pas être vide");
         }
-        
-        if (user.getFullName() == null || user.getFullName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Le nom complet est obligatoire");
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        if (unique.contains(null)) {
+            throw new IllegalArgumentException("L'ID ne peut pas être null");
         }
-        
-        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
-            throw new IllegalArgumentException("L'email est obligatoire");
+        if (unique.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Au plus " + MAX_PAGE_SIZE + " IDs par requête");
         }
 
+        Map<Long, User> found = repository.findAllByIds(unique).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        return unique.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public User save(User user) {
+        validate(user);
+
+        // Une seule instruction SQL : l'unicité de l'email et l'existence sont vérifiées par la base
         if (user.getId() == null) {
-            if (repository.existsByEmail(user.getEmail())) {
-                throw new IllegalArgumentException("Un utilisateur avec cet email existe déjà");
-            }
-        } else {
-            Optional<User> existingUser = repository.findByEmail(user.getEmail());
-            if (existingUser.isPresent() && !existingUser.get().getId().equals(user.getId())) {
-                throw new IllegalArgumentException("Un utilisateur avec cet email existe déjà");
-            }
+            return repository.insertIfEmailAbsent(user).orElseThrow(DuplicateEmailException::new);
         }
-        
-        return repository.save(user);
+        return repository.updateIfExists(user)
+            .orElseThrow(() -> new NoSuchElementException("Utilisateur non trouvé avec l'ID: " + user.getId()));
     }
     
+    // Verrouillage optimiste : la version attendue fait partie du WHERE de l'UPDATE, sans relecture préalable
+    @Override
+    public User update(User user, long expectedVersion) {
+        validate(user);
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("L'ID ne peut pas être null");
+        }
+
+        Optional<User> updated = repository.updateIfVersionMatches(user, expectedVersion);
+        if (updated.isPresent()) {
+            return updated.get();
+        }
+        // Aucune ligne modifiée : seul ce cas d'échec distingue l'absence de l'utilisateur d'une version périmée
+        if (!repository.existsById(user.getId())) {
+            throw new NoSuchElementException("Utilisateur non trouvé avec l'ID: " + user.getId());
+        }
+        throw new VersionMismatchException(user.getId());
+    }
+
     @Override
     public void delete(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("L'ID ne peut pas être null");
         }
         
-        if (!repository.existsById(id)) {
+        if (repository.deleteIfExists(id).isEmpty()) {
             throw new NoSuchElementException("Utilisateur non trouvé avec l'ID: " + id);
         }
+    }
+
+    private static void validate(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("L'utilisateur ne peut pas être null");
+        }
         
-        repository.deleteById(id);
+        if (user.getFullName() == null || user.getFullName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom complet est obligatoire");
+        }
+        
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            throw new IllegalArgumentException("L'email est obligatoire");
+        }
+        // ON CONFLICT (email) compare la valeur liée telle quelle : elle doit être normalisée
+        // comme pour findByEmail / existsByEmail, sinon " a@x.fr" échappe au doublon "a@x.fr"
+        user.setEmail(user.getEmail().trim());
+    }
+
+    private static int pageSize(Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    private static Long parseCursorId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
     }
 }
\ No newline at end of file
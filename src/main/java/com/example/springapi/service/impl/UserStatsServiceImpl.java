@@ -0,0 +1,126 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.model.UserStats;
+import com.example.springapi.repository.IUserStatsRepository;
+import com.example.springapi.service.IUserStatsService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistiques servies depuis la mémoire : une copie de la table de synthèse, relue à intervalle fixe
+ * par un thread dédié. Une requête ne touche donc jamais la base ; les écritures de toutes les instances
+ * sont visibles au plus tard après un intervalle. Les compteurs répartis sont regroupés toutes les heures.
+ */
+@Service
+public class UserStatsServiceImpl implements IUserStatsService, SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsServiceImpl.class);
+
+    static final int MAX_TOP = 10_000;
+
+    private record Snapshot(long total, List<UserStats.DomainCount> domains, Instant refreshedAt) {}
+
+    private final IUserStatsRepository repository;
+    private final long refreshMillis;
+
+    private volatile Snapshot snapshot;
+    private ScheduledExecutorService refresher;
+    private volatile boolean running;
+
+    public UserStatsServiceImpl(IUserStatsRepository repository,
+                                @Value("${app.stats.refresh-ms:2000}") long refreshMillis) {
+        this.repository = repository;
+        this.refreshMillis = refreshMillis;
+    }
+
+    @Override
+    public UserStats getStats(int top) {
+        if (top < 1 || top > MAX_TOP) {
+            throw new IllegalArgumentException("Le paramètre top doit être compris entre 1 et " + MAX_TOP);
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Premier appel avant le premier rafraîchissement
+            refresh();
+            current = snapshot;
+        }
+        List<UserStats.DomainCount> domains = current.domains();
+        return new UserStats(current.total(), domains.size(),
+                domains.subList(0, Math.min(top, domains.size())), current.refreshedAt());
+    }
+
+    @Override
+    public void start() {
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-stats-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshMillis, TimeUnit.MILLISECONDS);
+        refresher.scheduleWithFixedDelay(this::compact, 1, 1, TimeUnit.HOURS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("users.total", this, service -> service.snapshot == null ? Double.NaN : service.snapshot.total())
+                .description("Nombre d'utilisateurs (table de synthèse)")
+                .register(registry);
+    }
+
+    void refresh() {
+        Map<String, Long> counts = repository.findDomainCounts();
+        List<UserStats.DomainCount> domains = new ArrayList<>(counts.size());
+        long total = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            domains.add(new UserStats.DomainCount(entry.getKey(), entry.getValue()));
+            total += entry.getValue();
+        }
+        domains.sort(Comparator.comparingLong(UserStats.DomainCount::getUsers).reversed()
+                .thenComparing(UserStats.DomainCount::getDomain));
+        snapshot = new Snapshot(total, List.copyOf(domains), Instant.now());
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Lecture des statistiques impossible", e);
+        }
+    }
+
+    private void compact() {
+        try {
+            repository.compact();
+        } catch (RuntimeException e) {
+            log.warn("Regroupement des statistiques impossible", e);
+        }
+    }
+}
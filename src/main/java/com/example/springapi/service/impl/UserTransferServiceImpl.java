@@ -0,0 +1,334 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.model.ImportReport;
+import com.example.springapi.model.TransferFormat;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.example.springapi.service.IUserTransferService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Export et import en masse, un utilisateur par ligne (NDJSON ou CSV avec en-tête), en flux dans les deux sens :
+ * l'export est écrit depuis un curseur JDBC, l'import est validé ligne à ligne et transmis à COPY au fil de la lecture.
+ * Les IDs et versions éventuellement présents dans un fichier importé sont ignorés (nouvelles lignes).
+ */
+@Service
+public class UserTransferServiceImpl implements IUserTransferService {
+
+    private static final String DUPLICATE_EMAIL = "Un utilisateur avec cet email existe déjà";
+    private static final String CSV_HEADER = "id,fullName,email,version";
+    private static final int MAX_LENGTH = 255;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final IUserRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
+    private final ObjectReader userReader;
+    private final int maxErrors;
+
+    public UserTransferServiceImpl(IUserRepository repository, ObjectMapper objectMapper,
+                                   @Value("${app.transfer.max-errors:1000}") int maxErrors) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.userWriter = objectMapper.writerFor(User.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("\n");
+        this.userReader = objectMapper.readerFor(User.class);
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public long exportAll(TransferFormat format, OutputStream output) {
+        try {
+            return format == TransferFormat.CSV ? exportCsv(output) : exportNdjson(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long exportNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            long exported = repository.exportAll(user -> write(() -> userWriter.writeValue(generator, user)));
+            if (exported > 0) {
+                generator.writeRaw('\n');
+            }
+            return exported;
+        }
+    }
+
+    private long exportCsv(OutputStream output) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(CSV_HEADER + "\n");
+            return repository.exportAll(user -> write(() -> writer.write(user.getId() + "," + csvField(user.getFullName())
+                + "," + csvField(user.getEmail()) + "," + user.getVersion() + "\n")));
+        }
+    }
+
+    @Override
+    public ImportReport importAll(TransferFormat format, InputStream input) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Rows rows = format == TransferFormat.CSV ? new CsvRows(reader) : new NdjsonRows(reader);
+        // En-tête et première ligne lus avant d'ouvrir la transaction : une entrée vide ou sans en-tête n'en ouvre pas
+        if (!rows.hasNext()) {
+            return rows.report(0);
+        }
+        long inserted = repository.copyInsert(rows, line -> rows.reject(line, DUPLICATE_EMAIL));
+        return rows.report(inserted);
+    }
+
+    // Guillemets systématiques : les virgules, guillemets et retours à la ligne des valeurs restent dans leur champ
+    private static String csvField(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String validate(User user) {
+        if (user.getFullName() == null || user.getFullName().trim().isEmpty()) {
+            return "Le nom complet est obligatoire";
+        }
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            return "L'email est obligatoire";
+        }
+        if (user.getFullName().length() > MAX_LENGTH || user.getEmail().length() > MAX_LENGTH) {
+            return "Le nom complet et l'email sont limités à " + MAX_LENGTH + " caractères";
+        }
+        if (user.getFullName().indexOf('\0') >= 0 || user.getEmail().indexOf('\0') >= 0) {
+            return "Caractère nul interdit";
+        }
+        return null;
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Lignes valides de l'entrée (numéro de ligne, utilisateur), lues à la demande. Les lignes invalides sont
+     * comptées et détaillées dans le bilan sans être transmises.
+     */
+    private abstract class Rows implements Iterator<Map.Entry<Long, User>> {
+
+        private final List<ImportReport.Rejection> errors = new ArrayList<>();
+        private long total;
+        private long rejected;
+        private Map.Entry<Long, User> next;
+        private boolean done;
+
+        /** Prochaine ligne non vide (utilisateur ou rejet déjà enregistré), null en fin d'entrée. */
+        protected abstract Map.Entry<Long, User> read() throws IOException;
+
+        void reject(long line, String error) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.Rejection(line, error));
+            }
+        }
+
+        ImportReport report(long inserted) {
+            errors.sort(Comparator.comparingLong(ImportReport.Rejection::getLine));
+            return new ImportReport(total, inserted, rejected, List.copyOf(errors), rejected > errors.size());
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && !done) {
+                    Map.Entry<Long, User> row = read();
+                    if (row == null) {
+                        done = true;
+                        break;
+                    }
+                    total++;
+                    String error = row.getValue() == null ? null : validate(row.getValue());
+                    if (error != null) {
+                        reject(row.getKey(), error);
+                    } else if (row.getValue() != null) {
+                        next = row;
+                    }
+                }
+                return next != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Map.Entry<Long, User> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Long, User> row = next;
+            next = null;
+            return row;
+        }
+
+        // Ligne déjà rejetée par la lecture : comptée, mais sans utilisateur à valider
+        protected Map.Entry<Long, User> rejected(long line, String error) {
+            reject(line, error);
+            return new AbstractMap.SimpleImmutableEntry<>(line, null);
+        }
+    }
+
+    private final class NdjsonRows extends Rows {
+
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        protected Map.Entry<Long, User> read() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                User user = userReader.readValue(text);
+                return user == null ? rejected(line, "Ligne JSON vide") : Map.entry(line, user);
+            } catch (JsonProcessingException e) {
+                return rejected(line, "JSON invalide : " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /** CSV RFC 4180 : première ligne d'en-tête (colonnes fullName et email, les autres sont ignorées). */
+    private final class CsvRows extends Rows {
+
+        private final BufferedReader reader;
+        private long line = 1;
+        private int fullNameColumn = -1;
+        private int emailColumn = -1;
+        private boolean malformed;
+
+        CsvRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        protected Map.Entry<Long, User> read() throws IOException {
+            if (fullNameColumn < 0) {
+                readHeader();
+            }
+            List<String> fields;
+            long start;
+            do {
+                start = line;
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isEmpty() && !malformed);
+            if (fields == null) {
+                return null;
+            }
+            if (malformed) {
+                return rejected(start, "Guillemet non fermé");
+            }
+            if (fields.size() <= Math.max(fullNameColumn, emailColumn)) {
+                return rejected(start, "Nombre de colonnes insuffisant");
+            }
+            return Map.entry(start, new User(fields.get(fullNameColumn), fields.get(emailColumn)));
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("En-tête CSV manquant (colonnes fullName et email)");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                if (column.equals("fullname")) {
+                    fullNameColumn = i;
+                } else if (column.equals("email")) {
+                    emailColumn = i;
+                }
+            }
+            if (fullNameColumn < 0 || emailColumn < 0) {
+                throw new IllegalArgumentException("L'en-tête CSV doit contenir les colonnes fullName et email");
+            }
+        }
+
+        // Un enregistrement peut s'étendre sur plusieurs lignes (retours à la ligne entre guillemets)
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            malformed = false;
+            while (true) {
+                if (c < 0) {
+                    malformed = quoted;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+}
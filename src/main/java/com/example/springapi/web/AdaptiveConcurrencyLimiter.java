@@ -0,0 +1,105 @@
+package com.example.springapi.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de concurrence ajustée d'après la latence observée (gradient, à la manière de Netflix Gradient2).
+ * À chaque fenêtre, la latence moyenne récente est comparée à une moyenne longue : si elle se dégrade
+ * au-delà de la tolérance, la limite baisse en proportion ; sinon elle croît d'une marge de file (√limite).
+ * La limite ne croît pas tant que la charge n'en utilise pas la moitié, pour ne pas dériver au repos.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    // Nombre de fenêtres couvertes par la moyenne longue
+    private static final double LONG_WINDOWS = 100;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger windowMaxInflight = new AtomicInteger();
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart;
+
+    private volatile double limit;
+    // Écrit uniquement par le thread qui clôt la fenêtre
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1) {
+            throw new IllegalArgumentException("Bornes de concurrence invalides");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    /** Réserve une place ; false si la limite est atteinte (la requête doit être rejetée). */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                windowMaxInflight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /** Libère la place et enregistre la latence de la requête. */
+    public void release(long latencyNanos) {
+        inflight.decrementAndGet();
+        windowLatency.add(latencyNanos);
+        windowSamples.increment();
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= WINDOW_NANOS && windowSamples.sum() >= MIN_WINDOW_SAMPLES
+                && windowStart.compareAndSet(start, now)) {
+            update(windowLatency.sumThenReset(), windowSamples.sumThenReset(), windowMaxInflight.getAndSet(inflight.get()));
+        }
+    }
+
+    void update(long totalLatency, long samples, int maxInflight) {
+        if (samples == 0) {
+            return;
+        }
+        double shortLatency = (double) totalLatency / samples;
+        if (longLatency == 0) {
+            longLatency = shortLatency;
+        } else {
+            longLatency += (shortLatency - longLatency) / LONG_WINDOWS;
+            // Après une surcharge, la moyenne longue a absorbé des latences dégradées : on la laisse redescendre
+            if (longLatency > 2 * shortLatency) {
+                longLatency *= 0.95;
+            }
+        }
+        double current = limit;
+        if (maxInflight < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longLatency / shortLatency));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.min(Math.max(next, minLimit), maxLimit);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.springapi.web;
+
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.CursorPage;
+import com.example.springapi.model.User;
+import com.example.springapi.model.WarmupStatus;
+import com.example.springapi.model.WarmupStatus.Phase;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Préchauffage au démarrage, avant que GET /ready ne réponde 200 :
+ * <ol>
+ *   <li>pool : toutes les connexions sont ouvertes puis rendues, la première rafale ne paie pas leur établissement ;</li>
+ *   <li>sérialiseurs : les ObjectMapper construisent leurs (dé)sérialiseurs des réponses de l'API ;</li>
+ *   <li>requêtes : une boucle de requêtes GET synthétiques passe par Tomcat, les filtres et le DispatcherServlet
+ *   (JSON, Smile, CBOR, gzip), de sorte que le JIT compile les chemins chauds avant le trafic réel.</li>
+ * </ol>
+ * Les requêtes synthétiques, en boucle locale et porteuses d'un jeton tiré au démarrage, échappent à la limitation
+ * de débit. Le préchauffage ne bloque pas le démarrage. S'il échoue (pool impossible à remplir dans le délai,
+ * erreur), l'application n'est pas déclarée prête (FAILED) ; s'il dépasse le délai, elle ne l'est qu'avec
+ * {@code readyOnTimeout}, sinon elle reste TIMED_OUT.
+ */
+public class ApplicationWarmup implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationWarmup.class);
+
+    public static final String TOKEN_HEADER = "X-Warmup-Token";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final long SERVER_POLL_MILLIS = 250;
+    private static final long POOL_RETRY_MILLIS = 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final boolean enabled;
+    private final DataSource dataSource;
+    private final int connections;
+    private final List<ObjectMapper> objectMappers;
+    private final String baseUrl;
+    private final int requests;
+    private final Duration timeout;
+    private final boolean readyOnTimeout;
+    private final String token = UUID.randomUUID().toString();
+
+    private volatile Phase phase = Phase.PENDING;
+    private volatile int sent;
+    private volatile int failed;
+    private volatile long startedAt;
+    private volatile long elapsedMillis;
+    private volatile Thread thread;
+
+    public ApplicationWarmup(boolean enabled, DataSource dataSource, int connections, List<ObjectMapper> objectMappers,
+                             String baseUrl, int requests, Duration timeout, boolean readyOnTimeout) {
+        this.enabled = enabled;
+        this.dataSource = dataSource;
+        this.connections = connections;
+        this.objectMappers = objectMappers;
+        this.baseUrl = baseUrl;
+        this.requests = requests;
+        this.timeout = timeout;
+        this.readyOnTimeout = readyOnTimeout;
+    }
+
+    public WarmupStatus getStatus() {
+        Phase current = phase;
+        long elapsed = current.isFinished() || startedAt == 0 ? elapsedMillis : (System.nanoTime() - startedAt) / 1_000_000;
+        return new WarmupStatus(current, sent, failed, elapsed);
+    }
+
+    /** Requête synthétique du préchauffage en cours (jamais vrai une fois le préchauffage terminé). */
+    public boolean isWarmupRequest(HttpServletRequest request) {
+        return !phase.isFinished() && token.equals(request.getHeader(TOKEN_HEADER)) && isLoopback(request.getRemoteAddr());
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            phase = Phase.READY;
+            return;
+        }
+        startedAt = System.nanoTime();
+        Thread worker = new Thread(this::run, "warmup");
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread worker = thread;
+        if (worker != null) {
+            worker.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    // Dernier démarré : les autres composants (rafraîchissements, index) sont déjà en place
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    private void run() {
+        long deadline = startedAt + timeout.toNanos();
+        Phase outcome = Phase.FAILED;
+        try {
+            phase = Phase.POOL;
+            fillPool(deadline);
+            phase = Phase.SERIALIZERS;
+            primeSerializers();
+            phase = Phase.REQUESTS;
+            if (sendRequests(deadline)) {
+                log.info("Préchauffage terminé en {} ms ({} requêtes, {} en échec)",
+                        (System.nanoTime() - startedAt) / 1_000_000, sent, failed);
+                outcome = Phase.READY;
+            } else {
+                outcome = readyOnTimeout ? Phase.READY : Phase.TIMED_OUT;
+                log.warn("Préchauffage interrompu au bout de {} ms ({} requêtes) : application {}", timeout.toMillis(), sent,
+                        readyOnTimeout ? "déclarée prête" : "non prête");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Préchauffage en échec en phase {}, application non prête", phase, e);
+        } finally {
+            elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            phase = outcome;
+            thread = null;
+        }
+    }
+
+    // Base indisponible au démarrage : nouvel essai jusqu'au délai, puis échec
+    private void fillPool(long deadline) throws SQLException, InterruptedException {
+        while (true) {
+            try {
+                borrowAll();
+                return;
+            } catch (SQLException e) {
+                if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(POOL_RETRY_MILLIS) >= deadline) {
+                    throw e;
+                }
+                log.debug("Préchauffage : pool indisponible ({}), nouvel essai", e.toString());
+                Thread.sleep(POOL_RETRY_MILLIS);
+            }
+        }
+    }
+
+    // Connexions empruntées toutes ensemble : le pool doit en ouvrir autant
+    private void borrowAll() throws SQLException {
+        List<Connection> borrowed = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                borrowed.add(connection);
+                connection.isValid((int) CONNECT_TIMEOUT.toSeconds());
+            }
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // connexion invalide : le pool la remplacera
+                }
+            }
+        }
+    }
+
+    // Mêmes types déclarés que les contrôleurs : les sérialiseurs restent dans le cache de chaque ObjectMapper
+    private void primeSerializers() throws IOException {
+        User user = new User("Préchauffage", "warmup@example.com");
+        user.setId(1L);
+        user.setVersion(0L);
+        for (ObjectMapper mapper : objectMappers) {
+            mapper.writerFor(new TypeReference<ApiResponse<User>>() {}).writeValueAsBytes(ApiResponse.success("", user));
+            mapper.writerFor(new TypeReference<ApiResponse<List<User>>>() {}).writeValueAsBytes(ApiResponse.success("", List.of(user)));
+            mapper.writerFor(new TypeReference<ApiResponse<CursorPage<User>>>() {})
+                    .writeValueAsBytes(ApiResponse.success("", new CursorPage<>(List.of(user), "1")));
+            mapper.writerFor(new TypeReference<ApiResponse<Object>>() {}).writeValueAsBytes(ApiResponse.error("", ""));
+            mapper.readValue(mapper.writeValueAsBytes(user), User.class);
+        }
+    }
+
+    // Faux si le délai a été atteint avant la fin de la boucle
+    private boolean sendRequests(long deadline) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+        if (!awaitServer(client, deadline)) {
+            log.warn("Préchauffage : serveur injoignable sur {}", baseUrl);
+            return false;
+        }
+
+        List<HttpRequest> loop = new ArrayList<>();
+        String page = "/api/users?limit=" + PAGE_SIZE;
+        loop.add(request(page, MediaType.APPLICATION_JSON, false));
+        loop.add(request(page, SMILE, false));
+        loop.add(request(page, MediaType.APPLICATION_CBOR, false));
+        loop.add(request(page, MediaType.APPLICATION_JSON, true));
+        loop.add(request("/api/users/search?q=a&limit=" + PAGE_SIZE, MediaType.APPLICATION_JSON, false));
+        loop.add(request("/api/users/stats?top=10", MediaType.APPLICATION_JSON, false));
+        for (long id : discoverIds(client)) {
+            loop.add(request("/api/users/" + id, MediaType.APPLICATION_JSON, false));
+        }
+
+        for (int i = 0; i < requests; i++) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            try {
+                HttpResponse<Void> response = client.send(loop.get(i % loop.size()), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 500) {
+                    failed++;
+                }
+            } catch (IOException e) {
+                failed++;
+            }
+            sent++;
+        }
+        return true;
+    }
+
+    // Le connecteur Tomcat n'accepte les connexions qu'une fois toutes les applications déployées
+    private boolean awaitServer(HttpClient client, long deadline) throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            try {
+                client.send(request("/ready", MediaType.APPLICATION_JSON, false), HttpResponse.BodyHandlers.discarding());
+                return true;
+            } catch (IOException e) {
+                Thread.sleep(SERVER_POLL_MILLIS);
+            }
+        }
+        return false;
+    }
+
+    // IDs existants de la première page (aucun : un ID absent, le chemin 404 est chauffé à la place)
+    private List<Long> discoverIds(HttpClient client) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request("/api/users?limit=" + PAGE_SIZE, MediaType.APPLICATION_JSON, false),
+                HttpResponse.BodyHandlers.ofByteArray());
+        sent++;
+        List<Long> ids = new ArrayList<>();
+        if (response.statusCode() == 200) {
+            for (JsonNode item : objectMappers.get(0).readTree(response.body()).path("data").path("items")) {
+                ids.add(item.path("id").asLong());
+            }
+        }
+        return ids.isEmpty() ? List.of(0L) : ids;
+    }
+
+    private HttpRequest request(String path, MediaType accept, boolean gzip) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header(HttpHeaders.ACCEPT, accept.toString())
+                .header(TOKEN_HEADER, token);
+        if (gzip) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        return builder.GET().build();
+    }
+
+    private static boolean isLoopback(String address) {
+        try {
+            // Adresse IP littérale : pas de résolution DNS
+            return address != null && InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.springapi.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression gzip des réponses négociée via Accept-Encoding.
+ * Le corps est mis en tampon jusqu'au seuil : en dessous, il part tel quel avec son Content-Length ;
+ * au-delà, la suite est compressée au fil de l'eau (les flush des réponses en flux restent effectifs).
+ * Les requêtes asynchrones (Callable) sont terminées au dernier redispatch.
+ * <p>
+ * Un ETag fort reçoit le suffixe {@value #GZIP_ETAG_SUFFIX} dès que la réponse peut être compressée pour ce client
+ * (y compris un 304), quelle que soit sa taille : il ne désigne jamais à la fois le corps compressé et le corps brut.
+ * Le suffixe est retiré de If-None-Match et If-Match avant l'application, qui compare ses propres ETags.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private static final List<MediaType> COMPRESSIBLE_TYPES = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType("application/*+json"),
+            MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType("application/x-jackson-smile"),
+            MediaType.parseMediaType("text/*"));
+
+    private final boolean enabled;
+    private final int minSize;
+
+    public CompressionFilter(boolean enabled, int minSize) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || "HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean gzipAccepted = acceptsGzip(request);
+        CompressingResponse compressing = WebUtils.getNativeResponse(response, CompressingResponse.class);
+        if (compressing == null) {
+            compressing = new CompressingResponse(response, gzipAccepted, minSize);
+        }
+        filterChain.doFilter(gzipAccepted ? new ValidatorRequest(request) : request, compressing);
+        if (!isAsyncStarted(request)) {
+            compressing.finish();
+        }
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String token : header.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                return parts.length == 1 || !isZeroQuality(parts[1]);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String[] pair = parameter.trim().split("=");
+        if (pair.length != 2 || !pair[0].trim().equalsIgnoreCase("q")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(pair[1].trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            // Un flux d'événements doit partir immédiatement : jamais mis en tampon
+            if (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(type)) {
+                return false;
+            }
+            return COMPRESSIBLE_TYPES.stream().anyMatch(compressible -> compressible.includes(type));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // "7-gzip" -> "7" ; les ETags faibles et ceux d'une autre représentation restent tels quels
+    static String stripGzipETags(String tags) {
+        return tags.replace(GZIP_ETAG_SUFFIX + "\"", "\"");
+    }
+
+    static String gzipETag(String etag) {
+        if (etag == null || !etag.startsWith("\"") || !etag.endsWith("\"") || etag.length() < 2
+                || etag.endsWith(GZIP_ETAG_SUFFIX + "\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    static final class ValidatorRequest extends HttpServletRequestWrapper {
+
+        ValidatorRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return value != null && isValidator(name) ? stripGzipETags(value) : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!isValidator(name)) {
+                return super.getHeaders(name);
+            }
+            List<String> values = Collections.list(super.getHeaders(name));
+            values.replaceAll(CompressionFilter::stripGzipETags);
+            return Collections.enumeration(values);
+        }
+
+        private static boolean isValidator(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MATCH.equalsIgnoreCase(name);
+        }
+    }
+
+    private enum State { UNDECIDED, BUFFERING, COMPRESSING, PASSTHROUGH, FINISHED }
+
+    static final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final boolean gzipAccepted;
+        private final int minSize;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private State state = State.UNDECIDED;
+        private long contentLength = -1;
+        private GZIPOutputStream gzip;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletResponse response, boolean gzipAccepted, int minSize) {
+            super(response);
+            this.gzipAccepted = gzipAccepted;
+            this.minSize = minSize;
+        }
+
+        // La longueur est connue seulement une fois le choix de compression fait
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (state == State.PASSTHROUGH) {
+                super.setContentLengthLong(length);
+            } else {
+                contentLength = length;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() a déjà été appelé");
+            }
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() a déjà été appelé");
+                }
+                outputStream = new CompressingOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (state == State.COMPRESSING) {
+                gzip.flush();
+            }
+            // Avant le choix ou en tampon : rien n'est envoyé, les en-têtes peuvent encore changer
+            if (state == State.COMPRESSING || state == State.PASSTHROUGH) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            buffer.reset();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            buffer.reset();
+            contentLength = -1;
+            state = State.UNDECIDED;
+            super.reset();
+        }
+
+        void finish() throws IOException {
+            if (state == State.FINISHED) {
+                return;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            switch (state) {
+                case BUFFERING -> {
+                    super.setContentLengthLong(buffer.size());
+                    buffer.writeTo(getResponse().getOutputStream());
+                }
+                case COMPRESSING -> gzip.finish();
+                case UNDECIDED -> {
+                    // 304 sans corps : mêmes validateur et Vary que la réponse complète compressible
+                    if (getStatus() == SC_NOT_MODIFIED && gzipAccepted && getHeader(HttpHeaders.ETAG) != null) {
+                        addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                        setHeader(HttpHeaders.ETAG, gzipETag(getHeader(HttpHeaders.ETAG)));
+                    }
+                    if (contentLength >= 0) {
+                        super.setContentLengthLong(contentLength);
+                    }
+                }
+                default -> { }
+            }
+            state = State.FINISHED;
+        }
+
+        private void decide() {
+            boolean compressible = getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && getStatus() != SC_NO_CONTENT && getStatus() != SC_NOT_MODIFIED
+                    && getStatus() != SC_PARTIAL_CONTENT
+                    && isCompressible(getContentType());
+            if (compressible) {
+                addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (compressible && gzipAccepted) {
+                if (getHeader(HttpHeaders.ETAG) != null) {
+                    setHeader(HttpHeaders.ETAG, gzipETag(getHeader(HttpHeaders.ETAG)));
+                }
+                state = State.BUFFERING;
+            } else {
+                state = State.PASSTHROUGH;
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+            }
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (state == State.UNDECIDED) {
+                decide();
+            }
+            switch (state) {
+                case BUFFERING -> {
+                    buffer.write(bytes, offset, length);
+                    if (buffer.size() >= minSize) {
+                        startCompressing();
+                    }
+                }
+                case COMPRESSING -> gzip.write(bytes, offset, length);
+                case PASSTHROUGH -> getResponse().getOutputStream().write(bytes, offset, length);
+                case FINISHED -> throw new IOException("La réponse est déjà terminée");
+                default -> throw new IllegalStateException(state.name());
+            }
+        }
+
+        private void startCompressing() throws IOException {
+            setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            gzip = new GZIPOutputStream(getResponse().getOutputStream(), 8192, true);
+            buffer.writeTo(gzip);
+            buffer.reset();
+            state = State.COMPRESSING;
+        }
+
+        private final class CompressingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                CompressingResponse.this.write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(@NonNull byte[] bytes, int offset, int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (state == State.COMPRESSING) {
+                    gzip.flush();
+                } else if (state == State.PASSTHROUGH) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                finish();
+            }
+
+            // Avant le choix ou en tampon, l'écriture reste en mémoire ; ensuite, l'état du flux du conteneur
+            @Override
+            public boolean isReady() {
+                if (state != State.COMPRESSING && state != State.PASSTHROUGH) {
+                    return true;
+                }
+                try {
+                    return getResponse().getOutputStream().isReady();
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    getResponse().getOutputStream().setWriteListener(writeListener);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.springapi.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Convertisseur Jackson dont les types de réponse les plus fréquents disposent d'un ObjectWriter résolu au démarrage
+ * (sérialiseur racine inclus) : ni résolution de type ni recherche de sérialiseur par requête, écriture directe
+ * dans le flux de la réponse. Les autres types passent par le chemin standard d'AbstractJackson2HttpMessageConverter.
+ */
+public class PreResolvedJacksonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    private final Map<JavaType, ObjectWriter> preResolved;
+    private final Map<Type, Optional<ObjectWriter>> writersByType = new ConcurrentHashMap<>();
+
+    public PreResolvedJacksonHttpMessageConverter(ObjectMapper objectMapper, List<Type> preResolvedTypes,
+                                                  MediaType... supportedMediaTypes) {
+        super(objectMapper, supportedMediaTypes);
+        this.preResolved = preResolvedTypes.stream()
+                .map(objectMapper::constructType)
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), objectMapper::writerFor));
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        ObjectWriter writer = type == null || object instanceof MappingJacksonValue ? null : writerFor(type);
+        if (writer == null || !isUtf8(outputMessage.getHeaders().getContentType())) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        try (JsonGenerator generator = writer.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()))) {
+            writer.writeValue(generator, object);
+        }
+    }
+
+    private ObjectWriter writerFor(Type type) {
+        return writersByType.computeIfAbsent(type,
+                key -> Optional.ofNullable(preResolved.get(getObjectMapper().constructType(key)))).orElse(null);
+    }
+
+    // Formats binaires : pas de jeu de caractères ; JSON : seul l'UTF-8 est écrit directement
+    private static boolean isUtf8(@Nullable MediaType contentType) {
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        return charset == null || StandardCharsets.UTF_8.equals(charset);
+    }
+}
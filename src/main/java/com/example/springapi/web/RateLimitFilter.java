@@ -0,0 +1,251 @@
+package com.example.springapi.web;
+
+import com.example.springapi.model.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Protection de l'API contre les clients trop gourmands et la surcharge.
+ * <ul>
+ *   <li>Débit par client : un seau à jetons par client et par budget, les listes et recherches (qui parcourent
+ *   la table) ayant un budget plus strict que les accès unitaires. Dépassement : 429 avec Retry-After.</li>
+ *   <li>Délestage : une limite de concurrence adaptative (voir AdaptiveConcurrencyLimiter) rejette en 503
+ *   les requêtes excédentaires plutôt que de les laisser s'empiler devant le pool de connexions.</li>
+ * </ul>
+ * Les seaux sont gardés dans un cache borné : un seau inutilisé depuis sa durée de remplissage est plein,
+ * l'évincer ne change rien. Les requêtes longues (SSE /api/users/changes, /api/users/stream, export et import en
+ * masse) échappent au délestage : elles occuperaient une place pendant des minutes et leur durée, prise pour une
+ * latence, ferait tomber la limite au plancher au détriment des accès unitaires. Le budget « expensive » les borne.
+ * Les requêtes désignées par {@code exempt} (préchauffage au démarrage) ne sont ni comptées ni limitées.
+ * <p>
+ * Le client est l'adresse de la connexion, ou derrière {@code trustedProxies} proxys de confiance le saut
+ * ajouté par le plus éloigné d'entre eux dans {@code clientHeader} (ex. X-Forwarded-For) : chaque proxy ajoute
+ * à droite l'adresse de son pair, les éléments plus à gauche viennent du client et peuvent être falsifiés.
+ */
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    /** Budget d'un client : débit soutenu et rafale tolérée. */
+    public record Budget(double permitsPerSecond, int burst) {
+        long refillNanos() {
+            return (long) (burst * 1_000_000_000L / permitsPerSecond);
+        }
+    }
+
+    private static final Set<String> EXPENSIVE_PATHS = Set.of("/api/users/search", "/api/users/stream", "/api/users/batch",
+            "/api/users/export", "/api/users/import");
+    private static final String CHANGES_PATH = "/api/users/changes";
+    private static final Set<String> STREAMING_PATHS = Set.of(CHANGES_PATH, "/api/users/stream",
+            "/api/users/export", "/api/users/import");
+    private static final long OVERLOAD_RETRY_AFTER_SECONDS = 1;
+
+    private record ClientBuckets(TokenBucket expensive, TokenBucket lookup) {}
+
+    private final boolean enabled;
+    private final Budget expensiveBudget;
+    private final Budget lookupBudget;
+    private final String clientHeader;
+    private final int trustedProxies;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Predicate<HttpServletRequest> exempt;
+    private final LongSupplier nanoClock;
+    private final Cache<String, ClientBuckets> buckets;
+
+    private final LongAdder rateLimitedExpensive = new LongAdder();
+    private final LongAdder rateLimitedLookup = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public RateLimitFilter(boolean enabled, Budget expensiveBudget, Budget lookupBudget, long maxClients,
+                           String clientHeader, int trustedProxies, AdaptiveConcurrencyLimiter limiter,
+                           ObjectMapper objectMapper, Predicate<HttpServletRequest> exempt) {
+        this(enabled, expensiveBudget, lookupBudget, maxClients, clientHeader, trustedProxies, limiter, objectMapper, exempt,
+                System::nanoTime);
+    }
+
+    RateLimitFilter(boolean enabled, Budget expensiveBudget, Budget lookupBudget, long maxClients,
+                    String clientHeader, int trustedProxies, AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+                    Predicate<HttpServletRequest> exempt, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.expensiveBudget = expensiveBudget;
+        this.lookupBudget = lookupBudget;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader.trim();
+        if (this.clientHeader != null && trustedProxies < 1) {
+            throw new IllegalArgumentException("Au moins un proxy de confiance est requis pour lire l'en-tête " + this.clientHeader);
+        }
+        this.trustedProxies = trustedProxies;
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.exempt = exempt;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(expensiveBudget.refillNanos(), lookupBudget.refillNanos())))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !path(request).startsWith("/api/") || exempt.test(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = path(request);
+        boolean expensive = isExpensive(request.getMethod(), path);
+
+        long now = nanoClock.getAsLong();
+        ClientBuckets client = buckets.get(clientKey(request), key -> new ClientBuckets(
+                new TokenBucket(expensiveBudget.permitsPerSecond(), expensiveBudget.burst(), now),
+                new TokenBucket(lookupBudget.permitsPerSecond(), lookupBudget.burst(), now)));
+        long waitNanos = (expensive ? client.expensive() : client.lookup()).tryAcquire(now);
+        if (waitNanos > 0) {
+            (expensive ? rateLimitedExpensive : rateLimitedLookup).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L),
+                    "Trop de requêtes", "Limite de débit atteinte pour ce client, réessayez plus tard");
+            return;
+        }
+
+        if (limiter == null || STREAMING_PATHS.contains(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, OVERLOAD_RETRY_AFTER_SECONDS,
+                    "Service surchargé", "Capacité de traitement atteinte, réessayez plus tard");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Callable : la place est rendue à la fin du traitement asynchrone, pas au retour du premier passage
+                request.getAsyncContext().addListener(new ReleaseOnComplete(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("http.server.rate_limit.clients", buckets, Cache::estimatedSize)
+                .description("Clients suivis par la limitation de débit")
+                .register(registry);
+        FunctionCounter.builder("http.server.rejected", rateLimitedExpensive, LongAdder::sum)
+                .description("Requêtes rejetées par la limitation de débit ou le délestage")
+                .tag("reason", "rate_limit").tag("budget", "expensive")
+                .register(registry);
+        FunctionCounter.builder("http.server.rejected", rateLimitedLookup, LongAdder::sum)
+                .description("Requêtes rejetées par la limitation de débit ou le délestage")
+                .tag("reason", "rate_limit").tag("budget", "lookup")
+                .register(registry);
+        FunctionCounter.builder("http.server.rejected", shed, LongAdder::sum)
+                .description("Requêtes rejetées par la limitation de débit ou le délestage")
+                .tag("reason", "overload").tag("budget", "none")
+                .register(registry);
+        if (limiter != null) {
+            Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Limite de concurrence adaptative")
+                    .register(registry);
+            Gauge.builder("http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                    .description("Requêtes en cours comptées par la limite de concurrence")
+                    .register(registry);
+        }
+    }
+
+    static boolean isExpensive(String method, String path) {
+        return EXPENSIVE_PATHS.contains(path) || CHANGES_PATH.equals(path)
+                || ("GET".equals(method) && "/api/users".equals(path));
+    }
+
+    // Le proxy de confiance le plus proche a ajouté le dernier saut, le plus éloigné le trustedProxies-ième en partant
+    // de la droite. Moins de sauts que de proxys : la requête ne les a pas tous traversés, l'en-tête est ignoré.
+    String clientKey(HttpServletRequest request) {
+        if (clientHeader != null) {
+            List<String> hops = new ArrayList<>();
+            for (String value : Collections.list(request.getHeaders(clientHeader))) {
+                for (String hop : value.split(",")) {
+                    if (!hop.isBlank()) {
+                        hops.add(hop.trim());
+                    }
+                }
+            }
+            if (hops.size() >= trustedProxies) {
+                return hops.get(hops.size() - trustedProxies);
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                        String message, String error) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message, error));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+        private final long start;
+
+        private ReleaseOnComplete(long start) {
+            this.start = start;
+        }
+
+        // Appelé une seule fois, y compris après une erreur ou un dépassement de délai
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
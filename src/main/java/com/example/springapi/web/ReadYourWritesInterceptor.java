@@ -0,0 +1,101 @@
+package com.example.springapi.web;
+
+import com.example.springapi.datasource.ReadYourWrites;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Stickiness des réplicas par client (voir ReadWriteRoutingDataSource) : lit le cookie {@value #COOKIE_NAME}
+ * (date de la dernière écriture validée du client), rattache un {@link ReadYourWrites} au thread du contrôleur
+ * puis à celui du Callable, et renvoie le cookie mis à jour quand la requête valide une écriture. Le cookie expire
+ * avec la fenêtre de stickiness ; les horloges des instances sont supposées synchronisées à mieux que cette fenêtre.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    public static final String COOKIE_NAME = "last-write";
+
+    private static final String CLIENT_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".client";
+    private static final String PREVIOUS_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".previous";
+
+    private final Duration stickiness;
+
+    public ReadYourWritesInterceptor(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    // Premier passage comme redispatch asynchrone : le même client reste rattaché
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        ReadYourWrites client = (ReadYourWrites) request.getAttribute(CLIENT_ATTRIBUTE);
+        if (client == null) {
+            client = new ReadYourWrites(lastWriteMillis(request), millis -> writeCookie(response, millis));
+            request.setAttribute(CLIENT_ATTRIBUTE, client);
+        }
+        request.setAttribute(PREVIOUS_ATTRIBUTE, ReadYourWrites.bind(client));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        ReadYourWrites.bind((ReadYourWrites) request.getAttribute(PREVIOUS_ATTRIBUTE));
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        ReadYourWrites.bind((ReadYourWrites) request.getAttribute(PREVIOUS_ATTRIBUTE));
+    }
+
+    @Override
+    public <T> void preProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+        ReadYourWrites.bind((ReadYourWrites) request.getAttribute(CLIENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    public <T> void postProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task, Object concurrentResult) {
+        ReadYourWrites.bind(null);
+    }
+
+    private static long lastWriteMillis(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Réponse déjà engagée (flux) : l'en-tête ne peut plus être ajouté, la requête suivante lira peut-être un réplica
+    private void writeCookie(HttpServletResponse response, long millis) {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, String.valueOf(millis))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(Duration.ofSeconds(Math.max(1, (stickiness.toMillis() + 999) / 1000)))
+                .build()
+                .toString());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.springapi.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formats de réponse négociés via Accept (voir WebConfig), JSON par défaut. UserController choisit le format
+ * avant la sérialisation et le fixe par Content-Type : son ETag fort porte un suffixe propre au format,
+ * de sorte qu'il ne désigne qu'une seule représentation.
+ */
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON, ""),
+    SMILE(new MediaType("application", "x-jackson-smile"), "-smile"),
+    CBOR(MediaType.APPLICATION_CBOR, "-cbor");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    ResponseFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    // Type acceptable le plus spécifique puis de meilleure qualité ; JSON si Accept est absent, invalide ou sans format connu
+    public static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (ResponseFormat format : values()) {
+                if (type.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /** ETag fort de la représentation dans ce format ; {@code opaque} ne contient ni guillemet ni tiret. */
+    public String etag(String opaque) {
+        return "\"" + opaque + etagSuffix + "\"";
+    }
+
+    /** Fixe le Content-Type, ajoute Vary: Accept et suffixe l'ETag fort posé par le handler, s'il y en a un. */
+    public <T> ResponseEntity<T> apply(ResponseEntity<? extends T> entity) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(entity.getHeaders());
+        headers.setContentType(mediaType);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = entity.getHeaders().getETag();
+        if (etag != null && etag.startsWith("\"")) {
+            headers.setETag(etag(etag.substring(1, etag.length() - 1)));
+        }
+        return new ResponseEntity<>(entity.getBody(), headers, entity.getStatusCode());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.springapi.web;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mode threads virtuels (voir ExecutionConfig) : les handlers renvoyant un ResponseEntity ordinaire sont appelés
+ * comme un Callable sur l'exécuteur de requêtes, sans changer leur signature. Les arguments sont résolus sur le
+ * thread du conteneur ; au redispatch, le résultat est rendu avec le type de retour déclaré du handler.
+ * Les flux (SseEmitter, écriture directe dans la réponse) restent sur le thread du conteneur.
+ */
+public class VirtualThreadHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private static final String RESULT_ATTRIBUTE = VirtualThreadHandlerAdapter.class.getName() + ".result";
+
+    private final Map<Method, Boolean> offloaded = new ConcurrentHashMap<>();
+
+    @Override
+    protected ModelAndView invokeHandlerMethod(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull HandlerMethod handlerMethod) throws Exception {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        if (isOffloaded(handlerMethod) && asyncManager.hasConcurrentResult()) {
+            request.setAttribute(RESULT_ATTRIBUTE, Optional.ofNullable(asyncManager.getConcurrentResult()));
+            asyncManager.clearConcurrentResult();
+        }
+        return super.invokeHandlerMethod(request, response, handlerMethod);
+    }
+
+    @Override
+    @NonNull
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(@NonNull HandlerMethod handlerMethod) {
+        return isOffloaded(handlerMethod) ? new OffloadedHandlerMethod(handlerMethod) : super.createInvocableHandlerMethod(handlerMethod);
+    }
+
+    private boolean isOffloaded(HandlerMethod handlerMethod) {
+        return offloaded.computeIfAbsent(handlerMethod.getMethod(), method -> {
+            MethodParameter returnType = handlerMethod.getReturnType();
+            if (returnType.getParameterType() != ResponseEntity.class) {
+                return false;
+            }
+            Class<?> body = ResolvableType.forMethodParameter(returnType).getGeneric(0).resolve(Object.class);
+            return !ResponseBodyEmitter.class.isAssignableFrom(body) && !StreamingResponseBody.class.isAssignableFrom(body);
+        });
+    }
+
+    private static class OffloadedHandlerMethod extends ServletInvocableHandlerMethod {
+
+        OffloadedHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        // Premier passage : Callable exécuté sur l'exécuteur de requêtes ; redispatch : résultat (ou exception) de ce Callable
+        @Override
+        public Object invokeForRequest(@NonNull NativeWebRequest request, ModelAndViewContainer mavContainer,
+                                       @NonNull Object... providedArgs) throws Exception {
+            Object stored = request.getAttribute(RESULT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (stored == null) {
+                Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+                return (Callable<Object>) () -> doInvoke(args);
+            }
+            request.removeAttribute(RESULT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            Object result = ((Optional<?>) stored).orElse(null);
+            if (result instanceof Exception exception) {
+                throw exception;
+            }
+            if (result instanceof Throwable throwable) {
+                throw new ServletException("Échec du traitement asynchrone : " + result, throwable);
+            }
+            return result;
+        }
+    }
+}
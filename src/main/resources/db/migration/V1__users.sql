@@ -0,0 +1,15 @@
+-- Séquence des IDs utilisateurs : l'optimiseur "pooled" d'Hibernate réserve 50 IDs par appel (allocationSize = 50)
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT       NOT NULL PRIMARY KEY,
+    fullname VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL UNIQUE
+);
+
+-- Version de chaque utilisateur (verrouillage optimiste, ETag de GET /api/users/{id})
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Base créée avant les migrations (colonne IDENTITY, ou séquence déjà utilisée) : la séquence repart
+-- au-delà des IDs attribués et des blocs déjà réservés par le pooled optimizer
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_seq)) + 50, false);
@@ -0,0 +1,13 @@
+-- Index de la recherche (GET /api/users/search), alignés sur les expressions de UserSearchSql
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Nom par préfixe ou sous-chaîne (LIKE 'abc%' / '%abc%'), y compris en plan générique
+CREATE INDEX IF NOT EXISTS users_fullname_trgm_idx ON users USING gin (lower(fullname) gin_trgm_ops);
+
+-- Tri et pagination par nom, insensibles à la casse et indépendants de la collation de la base
+CREATE INDEX IF NOT EXISTS users_fullname_sort_idx ON users ((lower(fullname) COLLATE "C"), id);
+
+-- Filtre par domaine d'email, puis pagination par ID
+CREATE INDEX IF NOT EXISTS users_email_domain_idx ON users ((lower(split_part(email, '@', 2))), id);
+
+ANALYZE users;
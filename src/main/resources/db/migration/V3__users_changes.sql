@@ -0,0 +1,21 @@
+-- Compteur de modifications de la table (ETag / Last-Modified de GET /api/users).
+-- Un trigger par instruction l'incrémente dans la transaction d'écriture : il ne devient visible qu'au commit.
+-- Réparti sur 16 lignes pour que les transactions d'écriture concurrentes ne se sérialisent pas sur un seul verrou.
+CREATE TABLE IF NOT EXISTS users_changes (
+    slot        SMALLINT    NOT NULL PRIMARY KEY,
+    changes     BIGINT      NOT NULL DEFAULT 0,
+    modified_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+INSERT INTO users_changes (slot) SELECT generate_series(0, 15) ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION users_count_change() RETURNS trigger AS $$
+BEGIN
+    UPDATE users_changes SET changes = changes + 1, modified_at = clock_timestamp()
+    WHERE slot = pg_backend_pid() % 16;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_count_change ON users;
+CREATE TRIGGER users_count_change AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON users
+    FOR EACH STATEMENT EXECUTE FUNCTION users_count_change();
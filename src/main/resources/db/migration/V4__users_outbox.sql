@@ -0,0 +1,33 @@
+-- Outbox des modifications (GET /api/users/changes) : une ligne par utilisateur créé, modifié ou supprimé,
+-- écrite par trigger dans la transaction d'écriture. Les numéros de séquence sont attribués avant le commit,
+-- donc pas dans l'ordre des commits : le relais lit les lignes dans l'ordre (tx_id, seq) et seulement celles
+-- dont la transaction est antérieure à la plus ancienne transaction en cours, qui ne peuvent plus être
+-- précédées par une ligne validée plus tard.
+CREATE TABLE IF NOT EXISTS users_outbox (
+    seq         BIGSERIAL   NOT NULL PRIMARY KEY,
+    tx_id       BIGINT      NOT NULL DEFAULT pg_current_xact_id()::text::bigint,
+    operation   CHAR(1)     NOT NULL,
+    user_id     BIGINT      NOT NULL,
+    fullname    VARCHAR(255),
+    email       VARCHAR(255),
+    version     BIGINT,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+CREATE INDEX IF NOT EXISTS users_outbox_tx_idx ON users_outbox (tx_id, seq);
+CREATE INDEX IF NOT EXISTS users_outbox_created_at_idx ON users_outbox (created_at);
+
+CREATE OR REPLACE FUNCTION users_outbox_append() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO users_outbox (operation, user_id) VALUES ('D', OLD.id);
+    ELSE
+        INSERT INTO users_outbox (operation, user_id, fullname, email, version)
+        VALUES (CASE WHEN TG_OP = 'INSERT' THEN 'I' ELSE 'U' END, NEW.id, NEW.fullname, NEW.email, NEW.version);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_outbox_append ON users;
+CREATE TRIGGER users_outbox_append AFTER INSERT OR UPDATE OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_outbox_append();
@@ -0,0 +1,62 @@
+-- Nombre d'utilisateurs par domaine d'email (GET /api/users/stats), maintenu par des triggers par instruction
+-- dans la transaction d'écriture : les lectures ne parcourent jamais users. Comme users_changes, chaque domaine
+-- est réparti sur 16 lignes ; UserStatsRepositoryImpl les regroupe périodiquement.
+CREATE TABLE IF NOT EXISTS users_domain_stats (
+    domain VARCHAR(255) NOT NULL,
+    slot   SMALLINT     NOT NULL,
+    users  BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (domain, slot)
+);
+
+CREATE OR REPLACE FUNCTION users_domain_stats_apply() RETURNS trigger AS $$
+BEGIN
+    -- Domaines dans un ordre fixe : deux transactions sur le même slot verrouillent les lignes dans le même ordre
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO users_domain_stats AS s (domain, slot, users)
+        SELECT lower(split_part(email, '@', 2)), pg_backend_pid() % 16, COUNT(*) FROM new_rows GROUP BY 1 ORDER BY 1
+        ON CONFLICT (domain, slot) DO UPDATE SET users = s.users + EXCLUDED.users;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO users_domain_stats AS s (domain, slot, users)
+        SELECT lower(split_part(email, '@', 2)), pg_backend_pid() % 16, -COUNT(*) FROM old_rows GROUP BY 1 ORDER BY 1
+        ON CONFLICT (domain, slot) DO UPDATE SET users = s.users + EXCLUDED.users;
+    ELSIF TG_OP = 'UPDATE' THEN
+        -- Seuls les changements de domaine touchent les compteurs
+        INSERT INTO users_domain_stats AS s (domain, slot, users)
+        SELECT domain, pg_backend_pid() % 16, SUM(delta)
+        FROM (SELECT lower(split_part(email, '@', 2)) AS domain, 1 AS delta FROM new_rows
+              UNION ALL
+              SELECT lower(split_part(email, '@', 2)), -1 FROM old_rows) AS changes
+        GROUP BY domain HAVING SUM(delta) <> 0 ORDER BY domain
+        ON CONFLICT (domain, slot) DO UPDATE SET users = s.users + EXCLUDED.users;
+    ELSE
+        DELETE FROM users_domain_stats;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_domain_stats_insert ON users;
+CREATE TRIGGER users_domain_stats_insert AFTER INSERT ON users REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_domain_stats_apply();
+DROP TRIGGER IF EXISTS users_domain_stats_update ON users;
+CREATE TRIGGER users_domain_stats_update AFTER UPDATE ON users REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_domain_stats_apply();
+DROP TRIGGER IF EXISTS users_domain_stats_delete ON users;
+CREATE TRIGGER users_domain_stats_delete AFTER DELETE ON users REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_domain_stats_apply();
+DROP TRIGGER IF EXISTS users_domain_stats_truncate ON users;
+CREATE TRIGGER users_domain_stats_truncate AFTER TRUNCATE ON users
+    FOR EACH STATEMENT EXECUTE FUNCTION users_domain_stats_apply();
+
+-- Recalcul complet depuis users, écritures bloquées le temps du parcours. Exécuté ici à la création de la table ;
+-- à relancer (SELECT users_domain_stats_rebuild()) si des écritures ont contourné les triggers.
+CREATE OR REPLACE FUNCTION users_domain_stats_rebuild() RETURNS void AS $$
+BEGIN
+    LOCK TABLE users IN SHARE MODE;
+    DELETE FROM users_domain_stats;
+    INSERT INTO users_domain_stats (domain, slot, users)
+    SELECT lower(split_part(email, '@', 2)), 0, COUNT(*) FROM users GROUP BY 1;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT users_domain_stats_rebuild() WHERE NOT EXISTS (SELECT 1 FROM users_domain_stats);
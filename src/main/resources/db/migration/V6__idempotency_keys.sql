@@ -0,0 +1,13 @@
+-- Réponses des POST /api/users portant un en-tête Idempotency-Key (store "jdbc", partagé entre instances).
+-- Une ligne sans status est une requête en cours : sa réservation expire au bout de app.idempotency.wait-timeout-ms,
+-- une ligne terminée au bout de app.idempotency.ttl-seconds ; une clé expirée peut être réservée de nouveau.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    fingerprint     CHAR(64)     NOT NULL,
+    status          SMALLINT,
+    location        VARCHAR(255),
+    etag            VARCHAR(64),
+    body            TEXT,
+    expires_at      TIMESTAMPTZ  NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idempotency_keys_expires_at_idx ON idempotency_keys (expires_at);
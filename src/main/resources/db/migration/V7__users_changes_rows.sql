@@ -0,0 +1,35 @@
+-- Le compteur de V3 n'avance plus que si l'instruction a réellement modifié des lignes : un UPDATE ou un DELETE
+-- sans correspondance (version périmée, ID inconnu) ou un INSERT ... ON CONFLICT DO NOTHING écarté ne change
+-- plus l'ETag des listes. Un trigger avec tables de transition ne peut porter qu'un seul événement, d'où trois
+-- triggers ; la table de transition porte le même nom dans chacun.
+-- modified_at n'est plus tenu à jour : horodatée avant le commit, elle pouvait rester en deçà d'une date déjà
+-- servie (If-Modified-Since satisfait à tort). Les listes n'envoient plus de Last-Modified, seulement l'ETag.
+CREATE OR REPLACE FUNCTION users_count_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'TRUNCATE' THEN
+        IF NOT EXISTS (SELECT 1 FROM changed_rows) THEN
+            RETURN NULL;
+        END IF;
+    END IF;
+    UPDATE users_changes SET changes = changes + 1 WHERE slot = pg_backend_pid() % 16;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_count_change ON users;
+DROP TRIGGER IF EXISTS users_count_insert ON users;
+DROP TRIGGER IF EXISTS users_count_update ON users;
+DROP TRIGGER IF EXISTS users_count_delete ON users;
+DROP TRIGGER IF EXISTS users_count_truncate ON users;
+
+CREATE TRIGGER users_count_insert AFTER INSERT ON users
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_count_change();
+CREATE TRIGGER users_count_update AFTER UPDATE ON users
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_count_change();
+CREATE TRIGGER users_count_delete AFTER DELETE ON users
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION users_count_change();
+CREATE TRIGGER users_count_truncate AFTER TRUNCATE ON users
+    FOR EACH STATEMENT EXECUTE FUNCTION users_count_change();
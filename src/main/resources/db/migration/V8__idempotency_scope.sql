@@ -0,0 +1,6 @@
+-- Clés d'idempotence propres à chaque client : scope est l'empreinte SHA-256 de l'en-tête Authorization,
+-- vide pour les requêtes anonymes. Une ligne sans status reste réservée jusqu'à la fin de la requête ;
+-- son expires_at (app.idempotency.lease-seconds) ne sert qu'à reprendre la clé d'une instance arrêtée.
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS scope VARCHAR(64) NOT NULL DEFAULT '';
+ALTER TABLE idempotency_keys DROP CONSTRAINT IF EXISTS idempotency_keys_pkey;
+ALTER TABLE idempotency_keys ADD PRIMARY KEY (scope, idempotency_key);
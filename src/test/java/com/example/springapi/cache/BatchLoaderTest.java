@@ -0,0 +1,85 @@
+package com.example.springapi.cache;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class BatchLoaderTest {
+
+    private final List<Set<Long>> requested = new ArrayList<>();
+
+    private final Function<Set<Long>, Map<Long, String>> loader = ids -> {
+        synchronized (requested) {
+            requested.add(ids);
+        }
+        Map<Long, String> found = new HashMap<>();
+        ids.stream().filter(id -> id < 100).forEach(id -> found.put(id, "utilisateur " + id));
+        return found;
+    };
+
+    @Test
+    public void testFullBatchLoadedWithoutWaitingForWindow() throws Exception {
+        // Given
+        BatchLoader<Long, String> batches = new BatchLoader<>(true, Duration.ofSeconds(30), 3);
+
+        // When
+        List<CompletableFuture<Optional<String>>> results = new ArrayList<>();
+        for (long id : new long[] {1, 2, 150}) {
+            results.add(CompletableFuture.supplyAsync(() -> batches.load(id, loader)));
+        }
+
+        // Then
+        assertEquals(Optional.of("utilisateur 1"), results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of("utilisateur 2"), results.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.empty(), results.get(2).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Set.of(1L, 2L, 150L)), requested);
+        assertEquals(1, batches.getBatchCount());
+        assertEquals(3, batches.getKeyCount());
+    }
+
+    @Test
+    public void testPartialBatchLoadedAtEndOfWindow() {
+        // Given
+        BatchLoader<Long, String> batches = new BatchLoader<>(true, Duration.ofMillis(1), 100);
+
+        // When
+        Optional<String> first = batches.load(1L, loader);
+        Optional<String> second = batches.load(2L, loader);
+
+        // Then
+        assertEquals(Optional.of("utilisateur 1"), first);
+        assertEquals(Optional.of("utilisateur 2"), second);
+        assertEquals(List.of(Set.of(1L), Set.of(2L)), requested);
+    }
+
+    @Test
+    public void testFailureSharedWithWholeBatch() throws Exception {
+        // Given
+        BatchLoader<Long, String> batches = new BatchLoader<>(true, Duration.ofSeconds(30), 2);
+        Function<Set<Long>, Map<Long, String>> failing = ids -> {
+            throw new IllegalStateException("base indisponible");
+        };
+
+        // When
+        CompletableFuture<Optional<String>> first = CompletableFuture.supplyAsync(() -> batches.load(1L, failing));
+        CompletableFuture<Optional<String>> second = CompletableFuture.supplyAsync(() -> batches.load(2L, failing));
+
+        // Then
+        for (CompletableFuture<Optional<String>> result : List.of(first, second)) {
+            Throwable failure = result.handle((value, e) -> e.getCause()).get(5, TimeUnit.SECONDS);
+            assertTrue(failure instanceof IllegalStateException);
+        }
+        assertEquals(1, batches.getBatchCount());
+    }
+}
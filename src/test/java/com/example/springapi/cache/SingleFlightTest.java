@@ -0,0 +1,149 @@
+package com.example.springapi.cache;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentLoadsOfSameKeyCollapsed() throws Exception {
+        // Given
+        SingleFlight<String, Integer> reads = new SingleFlight<>(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> reads.load("all", () -> {
+            started.countDown();
+            await(release);
+            return loads.incrementAndGet();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(() -> reads.load("all", loads::incrementAndGet));
+        while (reads.getCollapsedCount() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Then
+        assertEquals(1, leader.get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(1, follower.get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(1, loads.get());
+        assertEquals(1, reads.getLoadCount());
+        assertEquals(0, reads.getInFlightCount());
+    }
+
+    @Test
+    public void testFailureSharedWithWaitingCallers() throws Exception {
+        // Given
+        SingleFlight<String, Integer> reads = new SingleFlight<>(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> reads.load("all", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("base indisponible");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Throwable> follower = CompletableFuture.supplyAsync(() -> {
+            try {
+                reads.load("all", () -> 0);
+                return null;
+            } catch (IllegalStateException e) {
+                return e;
+            }
+        });
+        while (reads.getCollapsedCount() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Then
+        Throwable shared = follower.get(5, TimeUnit.SECONDS);
+        assertNotNull(shared);
+        assertEquals("base indisponible", shared.getMessage());
+        assertSame(shared, leader.handle((value, e) -> e.getCause()).get(5, TimeUnit.SECONDS));
+        assertEquals(0, reads.getInFlightCount());
+    }
+
+    @Test
+    public void testForgetAllStartsNewLoad() throws Exception {
+        // Given
+        SingleFlight<String, Integer> reads = new SingleFlight<>(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> stale = CompletableFuture.supplyAsync(() -> reads.load("all", () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        reads.forgetAll();
+        Integer fresh = reads.load("all", () -> 2);
+        release.countDown();
+
+        // Then
+        assertEquals(2, fresh.intValue());
+        assertEquals(1, stale.get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(2, reads.getLoadCount());
+        assertEquals(0, reads.getCollapsedCount());
+    }
+
+    @Test
+    public void testForgetDetachesOnlyMatchingKeys() throws Exception {
+        // Given
+        SingleFlight<Object, Integer> reads = new SingleFlight<>(true);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (Object key : List.of(1L, 2L)) {
+            CompletableFuture.supplyAsync(() -> reads.load(key, () -> {
+                started.countDown();
+                await(release);
+                return 0;
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        reads.forget(1L);
+
+        // Then
+        assertEquals(1, reads.getInFlightCount());
+        release.countDown();
+    }
+
+    @Test
+    public void testDisabledAlwaysLoads() {
+        // Given
+        SingleFlight<String, Integer> reads = SingleFlight.disabled();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        reads.load("all", loads::incrementAndGet);
+        reads.load("all", loads::incrementAndGet);
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(0, reads.getCollapsedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
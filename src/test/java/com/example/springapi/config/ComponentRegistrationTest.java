@@ -0,0 +1,41 @@
+package com.example.springapi.config;
+
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Les composants sont déclarés par @Import dans AppConfig et WebConfig (pas de parcours du classpath au démarrage) :
+ * un @Service, @Repository ou @RestController ajouté sans y être importé ne serait jamais instancié.
+ */
+public class ComponentRegistrationTest {
+
+    @Test
+    public void testEveryComponentIsImported() {
+        // Given
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(true);
+        scanner.addExcludeFilter(new AnnotationTypeFilter(Configuration.class));
+        Set<String> components = scanner.findCandidateComponents("com.example.springapi").stream()
+                .map(BeanDefinition::getBeanClassName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        // When
+        Set<String> imported = Arrays.stream(new Class<?>[] {AppConfig.class, WebConfig.class})
+                .flatMap(config -> Arrays.stream(config.getAnnotation(Import.class).value()))
+                .map(Class::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        // Then
+        assertEquals(components, imported);
+    }
+}
@@ -1,6 +1,19 @@
 package com.example.springapi.controller;
 
+import com.example.springapi.exception.DuplicateEmailException;
+import com.example.springapi.exception.IdempotencyKeyReusedException;
+import com.example.springapi.exception.IngestQueueFullException;
+import com.example.springapi.exception.VersionMismatchException;
+import com.example.springapi.model.CollectionVersion;
+import com.example.springapi.model.CursorPage;
+import com.example.springapi.model.IdempotentResponse;
+import com.example.springapi.model.IngestStatus;
 import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
+import com.example.springapi.model.Versioned;
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.service.IIdempotencyService;
+import com.example.springapi.service.IUserIngestService;
 import com.example.springapi.service.IUserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
@@ -10,36 +23,61 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Supplier;
 
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @RunWith(org.mockito.junit.MockitoJUnitRunner.class)
 public class UserControllerTest {
 
+    private static final CollectionVersion COLLECTION_VERSION =
+            new CollectionVersion(7L);
+
     @Mock
     private IUserService userService;
 
+    @Mock
+    private IUserIngestService ingestService;
+
+    @Mock
+    private IIdempotencyService idempotencyService;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        UserController controller = new UserController(userService);
+        UserController controller = new UserController(userService, ingestService, idempotencyService);
         GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(exceptionHandler)
                 .build();
         objectMapper = new ObjectMapper();
+
+        lenient().when(userService.getCollectionVersion()).thenReturn(COLLECTION_VERSION);
+        lenient().when(userService.getAllVersioned()).thenAnswer(invocation ->
+                new Versioned<>(userService.getAll(), COLLECTION_VERSION));
+        lenient().when(userService.getPageVersioned(any(), any())).thenAnswer(invocation ->
+                new Versioned<>(userService.getPage(invocation.getArgument(0), invocation.getArgument(1)), COLLECTION_VERSION));
     }
 
     @Test
@@ -54,7 +92,7 @@ public class UserControllerTest {
         when(userService.getAll()).thenReturn(users);
 
         // When & Then
-        mockMvc.perform(get("/api/users"))
+        perform(get("/api/users"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.success").value(true))
@@ -62,7 +100,71 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.data").isArray())
                 .andExpect(jsonPath("$.data[0].id").value(1))
                 .andExpect(jsonPath("$.data[0].fullName").value("John Doe"))
-                .andExpect(jsonPath("$.data[0].email").value("john@example.com"));
+                .andExpect(jsonPath("$.data[0].email").value("john@example.com"))
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(header().doesNotExist("Last-Modified"));
+    }
+
+    @Test
+    public void testGetAllUsers_NotModified() throws Exception {
+        // When & Then
+        perform(get("/api/users").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(userService, never()).getAll();
+    }
+
+    @Test
+    public void testGetUsersPage_Success() throws Exception {
+        // Given
+        User user1 = new User("John Doe", "john@example.com");
+        user1.setId(1L);
+        when(userService.getPage("abc", 1)).thenReturn(new CursorPage<>(List.of(user1), "next"));
+
+        // When & Then
+        perform(get("/api/users").param("after", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.items[0].id").value(1))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"));
+    }
+
+    @Test
+    public void testGetUsersPage_InvalidLimit() throws Exception {
+        // Given
+        when(userService.getPage(null, 0)).thenThrow(new IllegalArgumentException("La limite doit être comprise entre 1 et 1000"));
+
+        // When & Then
+        perform(get("/api/users").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Paramètres de pagination invalides"));
+    }
+
+    @Test
+    public void testSearchUsers_Success() throws Exception {
+        // Given
+        User user1 = new User("John Doe", "john@example.com");
+        user1.setId(1L);
+        when(userService.search(any(UserSearchCriteria.class), eq("abc"), eq(10)))
+                .thenReturn(new CursorPage<>(List.of(user1), "next"));
+
+        // When & Then
+        perform(get("/api/users/search").param("q", "jo").param("domain", "example.com")
+                .param("sort", "name").param("after", "abc").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.items[0].fullName").value("John Doe"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"));
+    }
+
+    @Test
+    public void testSearchUsers_ShortSubstringRejected() throws Exception {
+        // When & Then
+        perform(get("/api/users/search").param("q", "jo").param("match", "contains"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Paramètres de recherche invalides"));
     }
 
     @Test
@@ -73,7 +175,7 @@ public class UserControllerTest {
         when(userService.getById(1L)).thenReturn(user);
 
         // When & Then
-        mockMvc.perform(get("/api/users/1"))
+        perform(get("/api/users/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.success").value(true))
@@ -83,13 +185,64 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.data.email").value("john@example.com"));
     }
 
+    @Test
+    public void testGetUserById_NotModified() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        user.setId(1L);
+        user.setVersion(3L);
+        when(userService.getById(1L)).thenReturn(user);
+
+        // When & Then
+        perform(get("/api/users/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    public void testGetUserById_ETagIsFormatSpecific() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        user.setId(1L);
+        user.setVersion(3L);
+        when(userService.getById(1L)).thenReturn(user);
+
+        // When & Then
+        perform(get("/api/users/1").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("ETag", "\"3-smile\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+        perform(get("/api/users/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-cbor\""));
+    }
+
+    @Test
+    public void testGetUserById_OtherFormatETagDoesNotMatch() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        user.setId(1L);
+        user.setVersion(3L);
+        when(userService.getById(1L)).thenReturn(user);
+
+        // When & Then
+        perform(get("/api/users/1").header("If-None-Match", "\"3-smile\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+        perform(get("/api/users/1").accept("application/x-jackson-smile").header("If-None-Match", "\"3-smile\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3-smile\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+    }
+
     @Test
     public void testGetUserById_NotFound() throws Exception {
         // Given
         when(userService.getById(999L)).thenThrow(new NoSuchElementException("Utilisateur non trouvé avec l'ID: 999"));
 
         // When & Then
-        mockMvc.perform(get("/api/users/999"))
+        perform(get("/api/users/999"))
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.success").value(false))
@@ -97,6 +250,33 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.error").value("Aucun utilisateur trouvé avec l'ID: 999"));
     }
 
+    @Test
+    public void testGetUsersByIds_Success() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        user.setId(1L);
+        when(userService.getByIds(List.of(1L, 999L))).thenReturn(List.of(user));
+
+        // When & Then
+        perform(get("/api/users").param("ids", "1,999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(1));
+        verify(userService, never()).getAllVersioned();
+    }
+
+    @Test
+    public void testLookupUsers_TooManyIds() throws Exception {
+        // Given
+        when(userService.getByIds(List.of(1L, 2L))).thenThrow(new IllegalArgumentException("Au plus 1000 IDs par requête"));
+
+        // When & Then
+        perform(post("/api/users/lookup").contentType(MediaType.APPLICATION_JSON).content("[1,2]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Paramètres invalides"))
+                .andExpect(jsonPath("$.error").value("Au plus 1000 IDs par requête"));
+    }
+
     @Test
     public void testCreateUser_Success() throws Exception {
         // Given
@@ -107,7 +287,7 @@ public class UserControllerTest {
         when(userService.save(any(User.class))).thenReturn(savedUser);
 
         // When & Then
-        mockMvc.perform(post("/api/users")
+        perform(post("/api/users")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(user)))
                 .andExpect(status().isCreated())
@@ -125,7 +305,7 @@ public class UserControllerTest {
         User user = new User("", "john@example.com"); // Nom vide
 
         // When & Then
-        mockMvc.perform(post("/api/users")
+        perform(post("/api/users")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(user)))
                 .andExpect(status().isBadRequest())
@@ -135,16 +315,154 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.error").value("Le nom est obligatoire"));
     }
 
+    @Test
+    public void testCreateUser_DuplicateEmail() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        when(userService.save(any(User.class))).thenThrow(new DuplicateEmailException());
+
+        // When & Then
+        perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("Un utilisateur avec cet email existe déjà"));
+    }
+
+    @Test
+    public void testCreateUser_WriteBehindAccepted() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        when(ingestService.isEnabled()).thenReturn(true);
+        when(ingestService.submit(any(User.class))).thenReturn(IngestStatus.pending("abc-123"));
+
+        // When & Then
+        perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/users/ingest/abc-123"))
+                .andExpect(jsonPath("$.data.trackingId").value("abc-123"))
+                .andExpect(jsonPath("$.data.state").value("PENDING"));
+        verify(userService, never()).save(any());
+    }
+
+    @Test
+    public void testCreateUser_WriteBehindQueueFull() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        when(ingestService.isEnabled()).thenReturn(true);
+        when(ingestService.submit(any(User.class))).thenThrow(new IngestQueueFullException(1));
+
+        // When & Then
+        perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    public void testCreateUser_IdempotencyKeyReplayed() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        User savedUser = new User("John Doe", "john@example.com");
+        savedUser.setId(1L);
+        when(idempotencyService.isEnabled()).thenReturn(true);
+        when(idempotencyService.execute(eq("cle-1"), isNull(), any(User.class), any())).thenReturn(
+                IdempotentResponse.of(201, null, "\"3\"", ApiResponse.success("Utilisateur créé avec succès", savedUser))
+                        .withFingerprint("empreinte").asReplay());
+
+        // When & Then
+        perform(post("/api/users")
+                .header("Idempotency-Key", "cle-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.data.id").value(1));
+        verify(userService, never()).save(any());
+    }
+
+    @Test
+    public void testCreateUser_IdempotencyKeyFirstExecution() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        User savedUser = new User("John Doe", "john@example.com");
+        savedUser.setId(1L);
+        when(userService.save(any(User.class))).thenReturn(savedUser);
+        when(idempotencyService.isEnabled()).thenReturn(true);
+        when(idempotencyService.execute(eq("cle-1"), isNull(), any(User.class), any())).thenAnswer(invocation ->
+                invocation.<Supplier<IdempotentResponse>>getArgument(3).get().withFingerprint("empreinte"));
+
+        // When & Then
+        perform(post("/api/users")
+                .header("Idempotency-Key", "cle-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(jsonPath("$.data.id").value(1));
+    }
+
+    @Test
+    public void testCreateUser_IdempotencyKeyReused() throws Exception {
+        // Given
+        User user = new User("John Doe", "john@example.com");
+        when(idempotencyService.isEnabled()).thenReturn(true);
+        when(idempotencyService.execute(eq("cle-1"), isNull(), any(User.class), any())).thenThrow(new IdempotencyKeyReusedException());
+
+        // When & Then
+        perform(post("/api/users")
+                .header("Idempotency-Key", "cle-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.success").value(false));
+        verify(userService, never()).save(any());
+    }
+
+    @Test
+    public void testGetIngestStatus() throws Exception {
+        // Given
+        when(ingestService.getStatus("abc-123")).thenReturn(Optional.of(IngestStatus.created("abc-123", 42L)));
+        when(ingestService.getStatus("unknown")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/users/ingest/abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.state").value("CREATED"))
+                .andExpect(jsonPath("$.data.userId").value(42));
+        mockMvc.perform(get("/api/users/ingest/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testUpdateUser_NotFound() throws Exception {
+        // Given
+        User user = new User("John Updated", "john.updated@example.com");
+        when(userService.save(any(User.class))).thenThrow(new NoSuchElementException("Utilisateur non trouvé avec l'ID: 999"));
+
+        // When & Then
+        perform(put("/api/users/999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Aucun utilisateur trouvé avec l'ID: 999"));
+    }
+
     @Test
     public void testUpdateUser_Success() throws Exception {
         // Given
         User user = new User("John Updated", "john.updated@example.com");
         user.setId(1L);
-        when(userService.getById(1L)).thenReturn(user);
         when(userService.save(any(User.class))).thenReturn(user);
 
         // When & Then
-        mockMvc.perform(put("/api/users/1")
+        perform(put("/api/users/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(user)))
                 .andExpect(status().isOk())
@@ -161,14 +479,55 @@ public class UserControllerTest {
         // Given
         User user = new User("John Doe", "john@example.com");
         user.setId(1L);
-        when(userService.getById(1L)).thenReturn(user);
         doNothing().when(userService).delete(1L);
 
         // When & Then
-        mockMvc.perform(delete("/api/users/1"))
+        perform(delete("/api/users/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Utilisateur supprimé avec succès"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateUser_IfMatchCurrentVersion() throws Exception {
+        // Given
+        User user = new User("John Updated", "john.updated@example.com");
+        User updated = new User("John Updated", "john.updated@example.com");
+        updated.setId(1L);
+        updated.setVersion(3L);
+        when(userService.update(any(User.class), eq(2L))).thenReturn(updated);
+
+        // When & Then
+        perform(put("/api/users/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.data.version").value(3));
+        verify(userService, never()).save(any(User.class));
+    }
+
+    @Test
+    public void testUpdateUser_IfMatchStaleVersion() throws Exception {
+        // Given
+        User user = new User("John Updated", "john.updated@example.com");
+        when(userService.update(any(User.class), eq(2L))).thenThrow(new VersionMismatchException(1L));
+
+        // When & Then
+        perform(put("/api/users/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Conflit de version"));
+    }
+
+    // Handlers synchrones par défaut : ni startAsync ni redispatch
+    private ResultActions perform(RequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncNotStarted());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.springapi.datasource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, 50);
+    }
+
+    @Test
+    public void testGetConnection_ReleasesPermitOnceOnClose() throws SQLException {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+
+        // When
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        int availableWhileBorrowed = dataSource.getAvailablePermits();
+        first.close();
+        first.close();
+
+        // Then
+        assertEquals(0, availableWhileBorrowed);
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+        second.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    public void testGetConnection_TimesOutWhenAllPermitsTaken() throws SQLException {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    public void testGetConnection_ReleasesPermitWhenPoolFails() throws SQLException {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("pool épuisé"));
+
+        // When & Then
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.springapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConnectionPoolFactoryTest {
+
+    private static final String URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1";
+
+    private final PoolSettings settings = new PoolSettings(4, 2, Duration.ofSeconds(1),
+        Duration.ofMinutes(10), Duration.ofMinutes(30), Duration.ofSeconds(5));
+
+    @Test
+    public void testHikari_AppliesSettingsAndPrewarmsMinimumIdle() {
+        // Given
+        HikariPoolFactory factory = new HikariPoolFactory();
+
+        // When
+        try (HikariDataSource ds = (HikariDataSource) factory.create("org.h2.Driver", URL, "sa", "", settings)) {
+            factory.prewarm(ds, settings);
+
+            // Then
+            assertEquals(4, ds.getMaximumPoolSize());
+            assertEquals(5000, ds.getLeakDetectionThreshold());
+            assertNull(ds.getConnectionTestQuery());
+            assertTrue(ds.getHikariPoolMXBean().getTotalConnections() >= 2);
+            assertEquals(0, ds.getHikariPoolMXBean().getActiveConnections());
+        }
+    }
+
+    @Test
+    public void testDbcp2_ValidatesWithIsValidAndPrewarmsMinimumIdle() throws SQLException {
+        // Given
+        Dbcp2PoolFactory factory = new Dbcp2PoolFactory();
+
+        // When
+        BasicDataSource ds = (BasicDataSource) factory.create("org.h2.Driver", URL, "sa", "", settings);
+        try {
+            factory.prewarm(ds, settings);
+
+            // Then
+            assertEquals(4, ds.getMaxTotal());
+            assertNull(ds.getValidationQuery());
+            assertFalse(ds.getTestOnBorrow());
+            assertTrue(ds.getRemoveAbandonedOnBorrow());
+            assertEquals(2, ds.getNumIdle());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void testPrewarm_FailsFastWhenDatabaseUnreachable() throws SQLException {
+        // Given
+        DataSource ds = mock(DataSource.class);
+        when(ds.getConnection()).thenThrow(new SQLException("Connexion refusée"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> new HikariPoolFactory().prewarm(ds, settings));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.springapi.datasource;
+
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Primaire et réplicas simulés par des bases H2 distinctes, chacune identifiée par une ligne "node".
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private static final DataSource PRIMARY = node("primary");
+    private static final DataSource REPLICA_0 = node("replica-0");
+    private static final DataSource REPLICA_1 = node("replica-1");
+
+    @Test
+    public void testReadOnlyTransaction_RoutedToReplica() {
+        // Given
+        Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO, REPLICA_0);
+
+        // When & Then
+        assertEquals("replica-0", routing.read());
+        assertEquals("primary", routing.write());
+    }
+
+    @Test
+    public void testReadAfterWrite_StaysOnPrimaryDuringStickinessWindow() {
+        // Given
+        Routing sticky = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofMinutes(1), REPLICA_0);
+        Routing notSticky = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO, REPLICA_0);
+        List<Long> writes = new ArrayList<>();
+        ReadYourWrites client = new ReadYourWrites(0, writes::add);
+
+        // When
+        ReadYourWrites previous = ReadYourWrites.bind(client);
+        try {
+            sticky.write();
+            notSticky.write();
+
+            // Then
+            assertEquals("primary", sticky.read());
+            assertEquals("replica-0", notSticky.read());
+            assertEquals(2, writes.size());
+        } finally {
+            ReadYourWrites.bind(previous);
+        }
+    }
+
+    @Test
+    public void testReadAfterWrite_OtherClientsStillUseReplica() {
+        // Given
+        Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofMinutes(1), REPLICA_0);
+        ReadYourWrites previous = ReadYourWrites.bind(new ReadYourWrites(0, millis -> {}));
+        try {
+            routing.write();
+        } finally {
+            ReadYourWrites.bind(previous);
+        }
+
+        // When
+        String otherClient = inClient(new ReadYourWrites(0, millis -> {}), routing::read);
+        String sameClientElsewhere = inClient(new ReadYourWrites(System.currentTimeMillis(), millis -> {}), routing::read);
+        String background = routing.read();
+
+        // Then
+        assertEquals("replica-0", otherClient);
+        assertEquals("primary", sameClientElsewhere);
+        assertEquals("replica-0", background);
+    }
+
+    @Test
+    public void testRoundRobin_AlternatesReplicas() {
+        // Given
+        Routing routing = routing(ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ZERO, REPLICA_0, REPLICA_1);
+
+        // When & Then
+        assertEquals("replica-0", routing.read());
+        assertEquals("replica-1", routing.read());
+        assertEquals("replica-0", routing.read());
+    }
+
+    @Test
+    public void testLeastConnections_PicksLeastBusyReplica() throws Exception {
+        // Given
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(PRIMARY, List.of(REPLICA_0, REPLICA_1),
+            ReadWriteRoutingDataSource.Strategy.LEAST_CONNECTIONS, Duration.ZERO);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            // When
+            Connection busy = routing.getConnection();
+            try (Connection next = routing.getConnection()) {
+                // Then
+                assertEquals(1, routing.getInFlight(0));
+                assertEquals(1, routing.getInFlight(1));
+                assertEquals("replica-1", name(next));
+            }
+            busy.close();
+            assertEquals(0, routing.getInFlight(0));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    // Date de dernière écriture reçue du client (cookie), par exemple posée par une autre instance
+    private static String inClient(ReadYourWrites client, Supplier<String> action) {
+        ReadYourWrites previous = ReadYourWrites.bind(client);
+        try {
+            return action.get();
+        } finally {
+            ReadYourWrites.bind(previous);
+        }
+    }
+
+    private static Routing routing(ReadWriteRoutingDataSource.Strategy strategy, Duration stickiness, DataSource... replicas) {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(PRIMARY, List.of(replicas), strategy, stickiness));
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return new Routing(lazy);
+    }
+
+    private static DataSource node(String name) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return ds;
+    }
+
+    private static String name(Connection connection) throws Exception {
+        try (var rs = connection.createStatement().executeQuery("SELECT name FROM node")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static final class Routing {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        Routing(DataSource dataSource) {
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbc = new JdbcTemplate(dataSource);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            return readWrite.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+}
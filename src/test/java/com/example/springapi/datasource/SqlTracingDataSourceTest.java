@@ -0,0 +1,114 @@
+package com.example.springapi.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SqlTracingDataSourceTest {
+
+    private SqlTracingDataSource dataSource;
+    private SqlStatementStats stats;
+
+    @Before
+    public void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqltracing;DB_CLOSE_DELAY=-1");
+        dataSource = new SqlTracingDataSource(h2, Duration.ofSeconds(10));
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS items (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("DELETE FROM items");
+        }
+        stats = new SqlStatementStats();
+        SqlStatementStats.bind(stats);
+    }
+
+    @After
+    public void tearDown() {
+        SqlStatementStats.bind(null);
+    }
+
+    @Test
+    public void testExecutionsCountedPerSqlText() throws SQLException {
+        // Given
+        String select = "SELECT name FROM items WHERE id = ?";
+
+        // When
+        try (Connection connection = dataSource.getConnection()) {
+            for (long id = 1; id <= 3; id++) {
+                try (PreparedStatement statement = connection.prepareStatement(select)) {
+                    statement.setLong(1, id);
+                    statement.executeQuery().close();
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO items VALUES (42, 'secret')");
+            }
+        }
+
+        // Then
+        assertEquals(4, stats.getCount());
+        assertTrue(stats.getNanos() > 0);
+        Map<String, Integer> repeated = stats.repeated(3);
+        assertEquals(Map.of(select, 3), repeated);
+        assertTrue(stats.repeated(1).containsKey("INSERT INTO items VALUES (?, ?)"));
+    }
+
+    @Test
+    public void testNothingRecordedWithoutBoundStats() throws SQLException {
+        // Given
+        SqlStatementStats.bind(null);
+
+        // When
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM items").close();
+        }
+
+        // Then
+        assertEquals(0, stats.getCount());
+    }
+
+    @Test
+    public void testRedactMasksLiteralsOfUnpreparedSqlOnly() {
+        // When
+        String unprepared = SqlTracingDataSource.redact("SELECT *\n  FROM users WHERE email = 'a@b.fr' AND id = 12", false);
+        String prepared = SqlTracingDataSource.redact("SELECT * FROM users WHERE id = ?", true);
+
+        // Then
+        assertEquals("SELECT * FROM users WHERE email = ? AND id = ?", unprepared);
+        assertEquals("SELECT * FROM users WHERE id = ?", prepared);
+    }
+
+    @Test
+    public void testRedactDropsCommentsAndDollarQuotedBodies() {
+        // Given
+        String script = "-- Compteur de l'outbox\nCREATE FUNCTION f() RETURNS trigger AS $$ BEGIN RETURN 'x'; END; $$"
+                + " LANGUAGE plpgsql; /* v2 */ SELECT col1 FROM t WHERE id = $1 AND n = 'l''API" + "a".repeat(100_000) + "'";
+
+        // When
+        String redacted = SqlTracingDataSource.redact(script, false);
+
+        // Then
+        assertEquals("CREATE FUNCTION f() RETURNS trigger AS ? LANGUAGE plpgsql; SELECT col1 FROM t WHERE id = $1 AND n = ?",
+                redacted);
+    }
+
+    @Test
+    public void testUnwrapReachesDriverConnection() throws SQLException {
+        // When
+        try (Connection connection = dataSource.getConnection()) {
+            // Then
+            assertTrue(connection.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+            assertNotNull(connection.unwrap(org.h2.jdbc.JdbcConnection.class));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.springapi.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.Assert.*;
+
+public class RequestMetricsInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private RequestMetricsInterceptor interceptor;
+
+    @Before
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        interceptor = new RequestMetricsInterceptor(registry);
+    }
+
+    @Test
+    public void testAfterCompletion_RecordsLatencyByRoutePattern() {
+        // Given
+        MockHttpServletRequest request = request("/api/users/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(200);
+
+        // When
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        Timer timer = registry.find("http.server.requests")
+                .tags("uri", "/api/users/{id}", "status", "200", "exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNull(registry.find("http.server.errors").counter());
+    }
+
+    @Test
+    public void testAfterCompletion_CountsErrorsByExceptionType() {
+        // Given
+        MockHttpServletRequest request = request("/api/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(500);
+
+        // When
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), new IllegalStateException("boom"));
+
+        // Then
+        assertEquals(1.0, registry.get("http.server.errors")
+                .tags("exception", "IllegalStateException", "status", "500")
+                .counter().count(), 0.0);
+        assertEquals(0, registry.get("http.server.requests.active").longTaskTimer().activeTasks());
+    }
+
+    @Test
+    public void testAsyncRedispatch_RecordsSingleSample() {
+        // Given
+        MockHttpServletRequest request = request("/api/users/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When : premier passage (Callable renvoyé) puis redispatch asynchrone
+        interceptor.preHandle(request, response, new Object());
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        assertEquals(1, registry.get("http.server.requests").timer().count());
+        assertEquals(0, registry.get("http.server.requests.active").longTaskTimer().activeTasks());
+    }
+
+    private MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springapi.metrics;
+
+import com.example.springapi.datasource.SqlStatementStats;
+import com.example.springapi.datasource.SqlTracingDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class SqlStatementsInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private SqlStatementsInterceptor interceptor;
+    private SqlTracingDataSource dataSource;
+
+    @Before
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        interceptor = new SqlStatementsInterceptor(registry, 2);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqlstatements");
+        dataSource = new SqlTracingDataSource(h2, Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void testAfterCompletion_RecordsStatementsPerRequestAndUnbinds() throws SQLException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        interceptor.preHandle(request, response, new Object());
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1").close();
+            statement.executeQuery("SELECT 1").close();
+            statement.executeQuery("SELECT 2").close();
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        DistributionSummary summary = registry.find("http.server.requests.sql")
+                .tags("method", "GET", "uri", "/api/users/{id}")
+                .summary();
+        assertNotNull(summary);
+        assertEquals(1, summary.count());
+        assertEquals(3.0, summary.totalAmount(), 0.0);
+        assertNull(SqlStatementStats.bind(null));
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.cache.BatchLoader;
+import com.example.springapi.cache.CaffeineEntityCache;
+import com.example.springapi.cache.EmailIndex;
+import com.example.springapi.cache.EntityCache;
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingUserRepositoryTest {
+
+    @Mock
+    private IUserRepository delegate;
+
+    private EntityCache<Long, User> byId;
+    private EntityCache<String, Long> idByEmail;
+    private EmailIndex emailIndex;
+    private CachingUserRepository repository;
+
+    @Before
+    public void setUp() {
+        byId = new CaffeineEntityCache<>(100, Duration.ofMinutes(1));
+        idByEmail = new CaffeineEntityCache<>(100, Duration.ofMinutes(1));
+        emailIndex = new EmailIndex(true, 100, 0.01);
+        repository = new CachingUserRepository(delegate, byId, idByEmail, emailIndex, new SingleFlight<>(true),
+                BatchLoader.disabled(), new String[0], 0);
+    }
+
+    @Test
+    public void testFindById_SecondCallServedFromCache() {
+        // Given
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "John Doe", "john@example.com")));
+
+        // When
+        repository.findById(1L);
+        Optional<User> result = repository.findById(1L);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals("John Doe", result.get().getFullName());
+        verify(delegate, times(1)).findById(1L);
+        assertEquals(1, byId.stats().getHitCount());
+        assertEquals(1, byId.stats().getMissCount());
+    }
+
+    @Test
+    public void testFindById_RowInvalidatedDuringLoadNotCached() {
+        // Given - une écriture validée pendant la lecture de l'ancienne ligne
+        when(delegate.findById(1L)).thenAnswer(invocation -> {
+            repository.updateIfExists(user(1L, "Jane Doe", "john@example.com"));
+            return Optional.of(user(1L, "John Doe", "john@example.com"));
+        }).thenReturn(Optional.of(user(1L, "Jane Doe", "john@example.com")));
+
+        // When
+        repository.findById(1L);
+        Optional<User> result = repository.findById(1L);
+
+        // Then
+        assertEquals("Jane Doe", result.get().getFullName());
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testFindById_WithReplicasRecentlyWrittenUserNotCached() {
+        // Given - une lecture juste après l'écriture peut venir d'un réplica en retard
+        CachingUserRepository withReplicas = new CachingUserRepository(delegate, byId, idByEmail, emailIndex,
+                new SingleFlight<>(true), BatchLoader.disabled(), new String[] {"jdbc:postgresql://replica/db"}, 60_000);
+        withReplicas.updateIfExists(user(1L, "Jane Doe", "john@example.com"));
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "John Doe", "john@example.com")));
+        when(delegate.findById(2L)).thenReturn(Optional.of(user(2L, "Ann Doe", "ann@example.com")));
+
+        // When
+        withReplicas.findById(1L);
+        withReplicas.findById(2L);
+
+        // Then
+        assertFalse(byId.getIfPresent(1L).isPresent());
+        assertTrue(byId.getIfPresent(2L).isPresent());
+    }
+
+    @Test
+    public void testFindById_ReturnsDefensiveCopy() {
+        // Given
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "John Doe", "john@example.com")));
+        repository.findById(1L).get().setFullName("Modifié");
+
+        // When
+        User result = repository.findById(1L).get();
+
+        // Then
+        assertEquals("John Doe", result.getFullName());
+    }
+
+    @Test
+    public void testFindById_ConcurrentMissesLoadedInOneBatch() throws Exception {
+        // Given
+        CachingUserRepository batching = new CachingUserRepository(delegate, byId, idByEmail, emailIndex,
+                new SingleFlight<>(true), new BatchLoader<>(true, Duration.ofSeconds(5), 2), new String[0], 0);
+        when(delegate.findAllByIds(Set.of(1L, 2L)))
+                .thenReturn(List.of(user(1L, "John Doe", "john@example.com"), user(2L, "Jane Doe", "jane@example.com")));
+
+        // When
+        CompletableFuture<Optional<User>> first = CompletableFuture.supplyAsync(() -> batching.findById(1L));
+        CompletableFuture<Optional<User>> second = CompletableFuture.supplyAsync(() -> batching.findById(2L));
+
+        // Then
+        assertEquals("John Doe", first.get(5, TimeUnit.SECONDS).get().getFullName());
+        assertEquals("Jane Doe", second.get(5, TimeUnit.SECONDS).get().getFullName());
+        verify(delegate, times(1)).findAllByIds(any());
+        verify(delegate, never()).findById(any());
+        assertTrue(byId.getIfPresent(2L).isPresent());
+    }
+
+    @Test
+    public void testFindAllByIds_QueriesOnlyUncachedIds() {
+        // Given
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "John Doe", "john@example.com")));
+        repository.findById(1L);
+        when(delegate.findAllByIds(List.of(2L, 3L))).thenReturn(List.of(user(2L, "Jane Doe", "jane@example.com")));
+
+        // When
+        List<User> users = repository.findAllByIds(List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(2, users.size());
+        verify(delegate).findAllByIds(List.of(2L, 3L));
+        assertTrue(byId.getIfPresent(2L).isPresent());
+    }
+
+    @Test
+    public void testSave_InvalidatesCachedEntry() {
+        // Given
+        User updated = user(1L, "John Updated", "john@example.com");
+        when(delegate.findById(1L))
+                .thenReturn(Optional.of(user(1L, "John Doe", "john@example.com")))
+                .thenReturn(Optional.of(updated));
+        when(delegate.save(any(User.class))).thenReturn(updated);
+        repository.findById(1L);
+
+        // When
+        repository.save(updated);
+        User result = repository.findById(1L).get();
+
+        // Then
+        assertEquals("John Updated", result.getFullName());
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testFindByEmail_StaleEntryIsIgnored() {
+        // Given
+        when(delegate.findByEmail("john@example.com"))
+                .thenReturn(Optional.of(user(1L, "John Doe", "john@example.com")))
+                .thenReturn(Optional.empty());
+        repository.findByEmail("john@example.com");
+
+        // L'utilisateur change d'email : l'entrée email -> ID ne correspond plus
+        when(delegate.save(any(User.class))).thenReturn(user(1L, "John Doe", "john.new@example.com"));
+        repository.save(user(1L, "John Doe", "john.new@example.com"));
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "John Doe", "john.new@example.com")));
+
+        // When
+        Optional<User> result = repository.findByEmail("john@example.com");
+
+        // Then
+        assertFalse(result.isPresent());
+        verify(delegate, times(2)).findByEmail("john@example.com");
+    }
+
+    @Test
+    public void testDeleteById_InvalidatesCachedEntry() {
+        // Given
+        when(delegate.findById(1L))
+                .thenReturn(Optional.of(user(1L, "John Doe", "john@example.com")))
+                .thenReturn(Optional.empty());
+        repository.findById(1L);
+
+        // When
+        repository.deleteById(1L);
+
+        // Then
+        assertFalse(repository.findById(1L).isPresent());
+        verify(delegate).deleteById(1L);
+    }
+
+    @Test
+    public void testFindIdsByEmails_QueriesOnlyProbableEmails() {
+        // Given
+        emailIndex.rebuild(1, sink -> sink.accept("john@example.com"));
+        when(delegate.findIdsByEmails(Set.of("john@example.com"))).thenReturn(Map.of("john@example.com", 1L));
+
+        // When
+        Map<String, Long> existing = repository.findIdsByEmails(List.of("john@example.com", "new@example.com"));
+        Map<String, Long> none = repository.findIdsByEmails(List.of("new@example.com", "other@example.com"));
+
+        // Then
+        assertEquals(Map.of("john@example.com", 1L), existing);
+        assertTrue(none.isEmpty());
+        verify(delegate, times(1)).findIdsByEmails(any());
+    }
+
+    @Test
+    public void testExistsByEmail_InsertedEmailIsIndexed() {
+        // Given
+        emailIndex.rebuild(0, sink -> {});
+        User inserted = user(1L, "John Doe", "john@example.com");
+        when(delegate.insertIfEmailAbsent(any())).thenReturn(Optional.of(inserted));
+        when(delegate.existsByEmail("john@example.com")).thenReturn(true);
+        assertFalse(repository.existsByEmail("john@example.com"));
+
+        // When
+        repository.insertIfEmailAbsent(new User("John Doe", "john@example.com"));
+
+        // Then
+        assertTrue(repository.existsByEmail("john@example.com"));
+        verify(delegate).existsByEmail("john@example.com");
+    }
+
+    private static User user(Long id, String fullName, String email) {
+        User user = new User(fullName, email);
+        user.setId(id);
+        return user;
+    }
+}
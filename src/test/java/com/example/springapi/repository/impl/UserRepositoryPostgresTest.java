@@ -0,0 +1,222 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.datasource.SchemaMigrator;
+import com.example.springapi.exception.DuplicateEmailException;
+import com.example.springapi.exception.VersionMismatchException;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.example.springapi.service.impl.UserServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Écritures en une instruction (INSERT ... ON CONFLICT / UPDATE / DELETE ... RETURNING, nextval) sur un vrai
+ * PostgreSQL, à travers UserServiceImpl. Ignoré si TEST_POSTGRES_URL n'est pas défini, ex. :
+ * TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/spring_db?user=user&password=password mvn test
+ */
+public class UserRepositoryPostgresTest {
+
+    private static final String SCHEMA = "user_writes_test";
+
+    private static String url;
+    private static AnnotationConfigApplicationContext context;
+
+    private IUserRepository repository;
+    private UserServiceImpl userService;
+
+    @BeforeClass
+    public static void setUpDatabase() throws Exception {
+        String baseUrl = System.getenv("TEST_POSTGRES_URL");
+        assumeTrue("TEST_POSTGRES_URL non défini", baseUrl != null && !baseUrl.isBlank());
+
+        execute(baseUrl, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE", "CREATE SCHEMA " + SCHEMA);
+        url = baseUrl + (baseUrl.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public";
+        context = new AnnotationConfigApplicationContext(PersistenceConfig.class);
+    }
+
+    @AfterClass
+    public static void tearDownDatabase() throws Exception {
+        if (context != null) {
+            context.close();
+            execute(System.getenv("TEST_POSTGRES_URL"), "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        execute(url, "TRUNCATE users");
+        repository = context.getBean(IUserRepository.class);
+        userService = new UserServiceImpl(repository, context.getBean(JpaTransactionManager.class), new SingleFlight<>(true));
+    }
+
+    @Test
+    public void testInsert_ReturnsRowWithSequenceId() {
+        // When
+        User first = userService.save(new User("Jean Dupont", "jean@example.com"));
+        User second = userService.save(new User("Marie Curie", "marie@example.com"));
+
+        // Then
+        assertNotNull(first.getId());
+        assertTrue(second.getId() > first.getId());
+        assertEquals(0L, first.getVersion().longValue());
+        assertEquals("jean@example.com", repository.findById(first.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    public void testInsert_DuplicateEmail() {
+        // Given
+        userService.save(new User("Jean Dupont", "jean@example.com"));
+
+        // When & Then
+        assertThrows(DuplicateEmailException.class, () -> userService.save(new User("Autre Jean", "jean@example.com")));
+        assertThrows(DuplicateEmailException.class, () -> userService.save(new User("Autre Jean", "  jean@example.com ")));
+    }
+
+    @Test
+    public void testUpdate_ReturnsNextVersion() {
+        // Given
+        User user = userService.save(new User("Jean Dupont", "jean@example.com"));
+
+        // When
+        User updated = userService.update(user(user.getId(), "Jean Martin", " jean.martin@example.com"), 0L);
+
+        // Then
+        assertEquals(1L, updated.getVersion().longValue());
+        assertEquals("jean.martin@example.com", updated.getEmail());
+        assertEquals("Jean Martin", repository.findById(user.getId()).orElseThrow().getFullName());
+    }
+
+    @Test
+    public void testUpdate_EmailOfAnotherUser() {
+        // Given
+        userService.save(new User("Jean Dupont", "jean@example.com"));
+        User marie = userService.save(new User("Marie Curie", "marie@example.com"));
+
+        // When & Then : violation d'unicité (SQLSTATE 23505) traduite par le dépôt
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.update(user(marie.getId(), "Marie Curie", "jean@example.com "), 0L));
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.save(user(marie.getId(), "Marie Curie", "jean@example.com")));
+    }
+
+    @Test
+    public void testUpdate_VersionMismatch() {
+        // Given
+        User user = userService.save(new User("Jean Dupont", "jean@example.com"));
+        userService.update(user(user.getId(), "Jean Martin", "jean@example.com"), 0L);
+
+        // When & Then
+        assertThrows(VersionMismatchException.class,
+                () -> userService.update(user(user.getId(), "Jean Durand", "jean@example.com"), 0L));
+        assertThrows(NoSuchElementException.class,
+                () -> userService.update(user(user.getId() + 1000, "Jean Durand", "jean@example.com"), 0L));
+        assertEquals("Jean Martin", repository.findById(user.getId()).orElseThrow().getFullName());
+    }
+
+    @Test
+    public void testDelete_ReturnsDeletedRowOnce() {
+        // Given
+        User user = userService.save(new User("Jean Dupont", "jean@example.com"));
+
+        // When
+        Optional<User> deleted = repository.deleteIfExists(user.getId());
+
+        // Then
+        assertEquals("jean@example.com", deleted.orElseThrow().getEmail());
+        assertTrue(repository.deleteIfExists(user.getId()).isEmpty());
+        assertThrows(NoSuchElementException.class, () -> userService.delete(user.getId()));
+    }
+
+    @Test
+    public void testCollectionVersion_OnlyCountsStatementsThatChangeRows() {
+        // Given
+        User user = userService.save(new User("Jean Dupont", "jean@example.com"));
+        long before = repository.findCollectionVersion().getChanges();
+
+        // When : doublon écarté, version périmée, ID inconnu
+        assertThrows(DuplicateEmailException.class, () -> userService.save(new User("Autre Jean", "jean@example.com")));
+        assertTrue(repository.updateIfVersionMatches(user(user.getId(), "Jean Martin", "jean@example.com"), 5L).isEmpty());
+        assertTrue(repository.deleteIfExists(user.getId() + 1000).isEmpty());
+
+        // Then
+        assertEquals(before, repository.findCollectionVersion().getChanges());
+        userService.update(user(user.getId(), "Jean Martin", "jean@example.com"), 0L);
+        assertEquals(before + 1, repository.findCollectionVersion().getChanges());
+        userService.delete(user.getId());
+        assertEquals(before + 2, repository.findCollectionVersion().getChanges());
+    }
+
+    private static User user(Long id, String fullName, String email) {
+        User user = new User(fullName, email);
+        user.setId(id);
+        return user;
+    }
+
+    private static void execute(String url, String... sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            for (String s : sql) {
+                statement.execute(s);
+            }
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class PersistenceConfig {
+
+        @Bean
+        public DataSource dataSource() throws Exception {
+            DataSource dataSource = new DriverManagerDataSource(url);
+            new SchemaMigrator(dataSource).migrate();
+            return dataSource;
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
+            emf.setDataSource(dataSource);
+            emf.setManagedTypes(PersistenceManagedTypes.of(User.class.getName()));
+            emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            Properties jpaProperties = new Properties();
+            jpaProperties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            jpaProperties.put("hibernate.cache.use_second_level_cache", false);
+            jpaProperties.put("jakarta.persistence.validation.mode", "none");
+            emf.setJpaProperties(jpaProperties);
+            return emf;
+        }
+
+        @Bean
+        public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public UserRepositoryImpl userRepository() {
+            return new UserRepositoryImpl();
+        }
+    }
+}
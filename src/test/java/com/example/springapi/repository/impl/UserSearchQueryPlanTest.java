@@ -0,0 +1,152 @@
+package com.example.springapi.repository.impl;
+
+import com.example.springapi.datasource.SchemaMigrator;
+import com.example.springapi.model.UserSearchCriteria;
+import com.example.springapi.model.UserSearchCriteria.NameMatch;
+import com.example.springapi.model.UserSearchCriteria.SortField;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Vérifie sur un vrai PostgreSQL que chaque forme de recherche utilise un index (pas de Seq Scan),
+ * en plan personnalisé comme en plan générique (requêtes préparées côté serveur par le pilote).
+ * Ignoré si TEST_POSTGRES_URL n'est pas défini, ex. :
+ * TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/spring_db?user=user&password=password mvn test
+ */
+public class UserSearchQueryPlanTest {
+
+    private static final String SCHEMA = "search_plan_test";
+    private static final int ROWS = 50_000;
+
+    private static Connection connection;
+
+    @BeforeClass
+    public static void setUpDatabase() throws Exception {
+        String url = System.getenv("TEST_POSTGRES_URL");
+        assumeTrue("TEST_POSTGRES_URL non défini", url != null && !url.isBlank());
+
+        connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+            new SchemaMigrator(new SingleConnectionDataSource(connection, true)).migrate();
+            statement.execute(
+                "INSERT INTO users (id, fullname, email) " +
+                "SELECT i, initcap(substr(md5(i::text), 1, 8)) || ' ' || initcap(substr(md5((i * 7)::text), 1, 10)), " +
+                "       'user' || i || '@domain' || (i % 500) || '.example' " +
+                "FROM generate_series(1, " + ROWS + ") AS i");
+            // Statistiques et liste d'attente GIN à jour, comme après le passage de l'autovacuum
+            statement.execute("VACUUM ANALYZE users");
+        }
+    }
+
+    @AfterClass
+    public static void tearDownDatabase() throws Exception {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testNamePrefix_UsesIndex() throws Exception {
+        assertNoSeqScan(criteria("ab", NameMatch.PREFIX, null, SortField.ID, false), null, null);
+    }
+
+    @Test
+    public void testNameSubstring_UsesIndex() throws Exception {
+        assertNoSeqScan(criteria("bcd", NameMatch.CONTAINS, null, SortField.NAME, false), null, null);
+    }
+
+    @Test
+    public void testEmailDomain_UsesIndex() throws Exception {
+        assertNoSeqScan(criteria(null, NameMatch.PREFIX, "domain42.example", SortField.ID, false), null, 100L);
+    }
+
+    @Test
+    public void testSortByName_KeysetPage_UsesIndex() throws Exception {
+        assertNoSeqScan(criteria(null, NameMatch.PREFIX, null, SortField.NAME, false), "Cafe Babe", 1234L);
+        assertNoSeqScan(criteria(null, NameMatch.PREFIX, null, SortField.NAME, true), "Cafe Babe", 1234L);
+    }
+
+    @Test
+    public void testSortByEmail_KeysetPage_UsesIndex() throws Exception {
+        assertNoSeqScan(criteria(null, NameMatch.PREFIX, null, SortField.EMAIL, true), "user25000@domain0.example", null);
+    }
+
+    private static UserSearchCriteria criteria(String name, NameMatch match, String domain, SortField sort, boolean descending) {
+        return new UserSearchCriteria(name, match, domain, sort, descending);
+    }
+
+    private static void assertNoSeqScan(UserSearchCriteria criteria, String afterValue, Long afterId) throws Exception {
+        UserSearchSql search = UserSearchSql.of(criteria, afterValue, afterId, 51);
+
+        String customPlan = explainCustom(search);
+        assertFalse("Seq Scan (plan personnalisé) :\n" + customPlan, customPlan.contains("\"Seq Scan\""));
+
+        String genericPlan = explainGeneric(search);
+        assertFalse("Seq Scan (plan générique) :\n" + genericPlan, genericPlan.contains("\"Seq Scan\""));
+    }
+
+    private static String explainCustom(UserSearchSql search) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + search.getSql())) {
+            List<Object> parameters = search.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return read(statement.executeQuery());
+        }
+    }
+
+    private static String explainGeneric(UserSearchSql search) throws Exception {
+        StringBuilder sql = new StringBuilder();
+        int index = 0;
+        for (char c : search.getSql().toCharArray()) {
+            sql.append(c == '?' ? "$" + (++index) : String.valueOf(c));
+        }
+        StringBuilder arguments = new StringBuilder();
+        for (Object parameter : search.getParameters()) {
+            if (arguments.length() > 0) {
+                arguments.append(", ");
+            }
+            arguments.append(parameter instanceof String s ? "'" + s.replace("'", "''") + "'" : parameter);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DEALLOCATE ALL");
+            statement.execute("SET plan_cache_mode = force_generic_plan");
+            statement.execute("PREPARE search AS " + sql);
+            try {
+                return read(statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE search(" + arguments + ")"));
+            } finally {
+                statement.execute("DEALLOCATE search");
+                statement.execute("RESET plan_cache_mode");
+            }
+        }
+    }
+
+    private static String read(ResultSet resultSet) throws Exception {
+        try (resultSet) {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1));
+            }
+            return plan.toString();
+        }
+    }
+}
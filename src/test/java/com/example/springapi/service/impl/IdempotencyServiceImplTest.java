@@ -0,0 +1,259 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.exception.IdempotencyKeyInProgressException;
+import com.example.springapi.exception.IdempotencyKeyReusedException;
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.IdempotentResponse;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IIdempotencyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdempotencyServiceImplTest {
+
+    private static final User JOHN = new User("John Doe", "john@example.com");
+
+    @Mock
+    private IIdempotencyRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testReplayServedFromMemoryWithoutExecuting() {
+        // Given
+        IdempotencyServiceImpl service = service("memory");
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<IdempotentResponse> create = () -> created(executions.incrementAndGet());
+
+        // When
+        IdempotentResponse first = service.execute("cle-1", null, JOHN, create);
+        IdempotentResponse second = service.execute("cle-1", null, new User("John Doe", "john@example.com"), create);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(201, second.getStatus());
+        assertSame(first.getBody(), second.getBody());
+        verifyNoInteractions(repository);
+    }
+
+    @Test(expected = IdempotencyKeyReusedException.class)
+    public void testSameKeyWithDifferentRequestRejected() {
+        // Given
+        IdempotencyServiceImpl service = service("memory");
+        service.execute("cle-1", null, JOHN, () -> created(1));
+
+        // When
+        service.execute("cle-1", null, new User("Jane Doe", "jane@example.com"), () -> created(2));
+    }
+
+    @Test
+    public void testServerErrorNotKeptForReplay() {
+        // Given
+        IdempotencyServiceImpl service = service("memory");
+        AtomicInteger executions = new AtomicInteger();
+
+        // When
+        service.execute("cle-1", null, JOHN, () -> {
+            executions.incrementAndGet();
+            return IdempotentResponse.of(500, null, null, ApiResponse.error("Erreur", "panne"));
+        });
+        IdempotentResponse retry = service.execute("cle-1", null, JOHN, () -> created(executions.incrementAndGet()));
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertFalse(retry.isReplayed());
+    }
+
+    @Test
+    public void testConcurrentDuplicateWaitsForInFlightRequest() throws Exception {
+        // Given
+        IdempotencyServiceImpl service = service("memory");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() ->
+                service.execute("cle-1", null, JOHN, () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return created(1);
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<IdempotentResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                service.execute("cle-1", null, JOHN, () -> created(executions.incrementAndGet())));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        assertTrue(duplicate.get(5, TimeUnit.SECONDS).isReplayed());
+        assertFalse(first.get(5, TimeUnit.SECONDS).isReplayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testJdbcStoreReplaysResponseCompletedElsewhere() {
+        // Given
+        IdempotencyServiceImpl service = service("jdbc");
+        when(repository.claim(eq(""), eq("cle-1"), anyString(), any(Instant.class))).thenReturn(false);
+        IdempotentResponse stored = created(7).withFingerprint(fingerprint(JOHN));
+        when(repository.findCompleted("", "cle-1")).thenReturn(Optional.of(stored));
+
+        // When
+        AtomicInteger executions = new AtomicInteger();
+        IdempotentResponse response = service.execute("cle-1", null, JOHN, () -> created(executions.incrementAndGet()));
+
+        // Then
+        assertTrue(response.isReplayed());
+        assertEquals(0, executions.get());
+        verify(repository, never()).complete(anyString(), anyString(), any(), any());
+    }
+
+    @Test(expected = IdempotencyKeyInProgressException.class)
+    public void testJdbcStoreKeyInProgressElsewhere() {
+        // Given
+        IdempotencyServiceImpl service = service("jdbc");
+        when(repository.claim(eq(""), eq("cle-1"), anyString(), any(Instant.class))).thenReturn(false);
+        when(repository.findCompleted("", "cle-1")).thenReturn(Optional.empty());
+
+        // When
+        service.execute("cle-1", null, JOHN, () -> created(1));
+    }
+
+    @Test
+    public void testJdbcStoreCompletesClaimedKey() {
+        // Given
+        IdempotencyServiceImpl service = service("jdbc");
+        when(repository.claim(eq(""), eq("cle-1"), anyString(), any(Instant.class))).thenReturn(true);
+
+        // When
+        IdempotentResponse response = service.execute("cle-1", null, JOHN, () -> created(1));
+
+        // Then
+        verify(repository).complete(eq(""), eq("cle-1"), eq(response), any(Instant.class));
+        assertEquals(fingerprint(JOHN), response.getFingerprint());
+    }
+
+    @Test
+    public void testJdbcStoreKeepsClaimForLeaseAndCompletesInCreationTransaction() {
+        // Given
+        IdempotencyServiceImpl service = service("jdbc");
+        when(repository.claim(eq(""), eq("cle-1"), anyString(), any(Instant.class))).thenReturn(true);
+        Instant before = Instant.now();
+
+        // When
+        service.execute("cle-1", null, JOHN, () -> created(1));
+
+        // Then : bail de 600 s, bien au-delà de l'attente de 2 s
+        ArgumentCaptor<Instant> lease = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).claim(eq(""), eq("cle-1"), anyString(), lease.capture());
+        assertFalse(lease.getValue().isBefore(before.plusSeconds(600)));
+        InOrder order = inOrder(transactionManager, repository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).complete(eq(""), eq("cle-1"), any(), any(Instant.class));
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testJdbcStoreFailsRequestWhenResponseCannotBeStored() {
+        // Given
+        IdempotencyServiceImpl service = service("jdbc");
+        when(repository.claim(eq(""), eq("cle-1"), anyString(), any(Instant.class))).thenReturn(true);
+        doThrow(new IllegalStateException("base indisponible")).when(repository)
+                .complete(eq(""), eq("cle-1"), any(), any(Instant.class));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> service.execute("cle-1", null, JOHN, () -> created(1)));
+
+        // Then : création annulée, clé libérée pour un nouvel essai
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(repository).release("", "cle-1");
+    }
+
+    @Test
+    public void testKeysScopedPerCredential() {
+        // Given
+        IdempotencyServiceImpl service = service("memory");
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<IdempotentResponse> create = () -> created(executions.incrementAndGet());
+
+        // When
+        IdempotentResponse alice = service.execute("cle-1", "Bearer alice", JOHN, create);
+        IdempotentResponse bob = service.execute("cle-1", "Bearer bob", JOHN, create);
+        IdempotentResponse aliceRetry = service.execute("cle-1", "Bearer alice", JOHN, create);
+
+        // Then
+        assertEquals(2, executions.get());
+        assertFalse(alice.isReplayed());
+        assertFalse(bob.isReplayed());
+        assertTrue(aliceRetry.isReplayed());
+    }
+
+    @Test
+    public void testJdbcStoreScopeIsCredentialDigest() {
+        // Given
+        IdempotencyServiceImpl service = service("jdbc");
+        when(repository.claim(anyString(), eq("cle-1"), anyString(), any(Instant.class))).thenReturn(true);
+
+        // When
+        service.execute("cle-1", "Bearer alice", JOHN, () -> created(1));
+
+        // Then
+        ArgumentCaptor<String> scope = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(scope.capture(), eq("cle-1"), anyString(), any(Instant.class));
+        assertEquals(64, scope.getValue().length());
+        assertFalse(scope.getValue().contains("alice"));
+    }
+
+    private IdempotencyServiceImpl service(String store) {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return new IdempotencyServiceImpl(repository, new ObjectMapper(), transactionManager, true, store, 3600, 1000, 2000, 600);
+    }
+
+    // Empreinte calculée par le service : réponse d'une première exécution pour la même requête
+    private String fingerprint(User user) {
+        return service("memory").execute("empreinte", null, user, () -> created(0)).getFingerprint();
+    }
+
+    private static IdempotentResponse created(long id) {
+        User user = new User("John Doe", "john@example.com");
+        user.setId(id);
+        return IdempotentResponse.of(201, null, "\"0\"", ApiResponse.success("Utilisateur créé avec succès", user));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
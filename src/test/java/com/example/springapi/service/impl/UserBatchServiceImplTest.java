@@ -0,0 +1,147 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.model.BatchResult;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserBatchServiceImplTest {
+
+    @Mock
+    private IUserRepository repository;
+
+    private UserBatchServiceImpl batchService;
+
+    @Before
+    public void setUp() {
+        batchService = new UserBatchServiceImpl(repository, 2, 100);
+    }
+
+    @Test
+    public void testCreateAll_ReportsPerItemErrors() {
+        // Given
+        List<User> users = Arrays.asList(
+            new User("John Doe", "john@example.com"),
+            new User("", "nobody@example.com"),
+            new User("Jane Doe", "jane@example.com"),
+            new User("John Bis", "john@example.com"));
+
+        when(repository.findIdsByEmails(anyCollection())).thenReturn(Map.of("jane@example.com", 7L));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> toSave = invocation.getArgument(0);
+            toSave.forEach(user -> user.setId(1L));
+            return toSave;
+        });
+
+        // When
+        BatchResult result = batchService.createAll(users);
+
+        // Then
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertTrue(result.getItems().get(0).isSuccess());
+        assertEquals(1L, result.getItems().get(0).getId().longValue());
+        assertEquals("Le nom complet est obligatoire", result.getItems().get(1).getError());
+        assertEquals("Un utilisateur avec cet email existe déjà", result.getItems().get(2).getError());
+        assertEquals("Email en double dans la requête", result.getItems().get(3).getError());
+    }
+
+    @Test
+    public void testCreateAll_SplitsIntoChunks() {
+        // Given
+        List<User> users = Arrays.asList(
+            new User("A", "a@example.com"),
+            new User("B", "b@example.com"),
+            new User("C", "c@example.com"));
+        when(repository.findIdsByEmails(anyCollection())).thenReturn(Map.of());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        BatchResult result = batchService.createAll(users);
+
+        // Then
+        assertEquals(3, result.getSucceeded());
+        verify(repository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    public void testCreateAll_FailedChunkIsReported() {
+        // Given
+        List<User> users = Collections.singletonList(new User("A", "a@example.com"));
+        when(repository.findIdsByEmails(anyCollection())).thenReturn(Map.of());
+        when(repository.saveAll(anyList())).thenThrow(new RuntimeException("violation de contrainte"));
+
+        // When
+        BatchResult result = batchService.createAll(users);
+
+        // Then
+        assertEquals(1, result.getFailed());
+        assertNull(result.getItems().get(0).getId());
+        assertTrue(result.getItems().get(0).getError().contains("violation de contrainte"));
+    }
+
+    @Test
+    public void testUpdateAll_UnknownIdAndEmailConflict() {
+        // Given
+        User known = new User("John", "john@example.com");
+        known.setId(1L);
+        User unknown = new User("Ghost", "ghost@example.com");
+        unknown.setId(2L);
+        User conflict = new User("Jane", "taken@example.com");
+        conflict.setId(3L);
+
+        when(repository.findExistingIds(anyCollection())).thenReturn(Set.of(1L, 3L));
+        when(repository.findIdsByEmails(anyCollection())).thenReturn(Map.of("taken@example.com", 9L));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        BatchResult result = batchService.updateAll(Arrays.asList(known, unknown, conflict));
+
+        // Then
+        assertTrue(result.getItems().get(0).isSuccess());
+        assertEquals("Utilisateur non trouvé avec l'ID: 2", result.getItems().get(1).getError());
+        assertEquals("Un utilisateur avec cet email existe déjà", result.getItems().get(2).getError());
+    }
+
+    @Test
+    public void testDeleteAll_MissingIdsAreReported() {
+        // Given
+        when(repository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        when(repository.deleteAllByIds(Set.of(1L))).thenReturn(1);
+
+        // When
+        BatchResult result = batchService.deleteAll(Arrays.asList(1L, 2L));
+
+        // Then
+        assertTrue(result.getItems().get(0).isSuccess());
+        assertFalse(result.getItems().get(1).isSuccess());
+        verify(repository).deleteAllByIds(Set.of(1L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateAll_TooManyItems() {
+        // Given
+        List<User> users = Collections.nCopies(101, new User("A", "a@example.com"));
+
+        // When
+        batchService.createAll(users);
+
+        // Then - Exception expected
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.exception.ChangesExpiredException;
+import com.example.springapi.model.User;
+import com.example.springapi.model.UserChange;
+import com.example.springapi.repository.IUserChangeRepository;
+import com.example.springapi.service.IUserChangeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserChangeServiceImplTest {
+
+    @Mock
+    private IUserChangeRepository repository;
+
+    private UserChangeServiceImpl service;
+
+    @Before
+    public void setUp() {
+        service = new UserChangeServiceImpl(repository, 200, 2, 15, 168, 4, Runnable::run);
+    }
+
+    @Test
+    public void testPoll_DeliversChangesAndAdvancesCursor() {
+        // Given
+        when(repository.findTxId(5L)).thenReturn(OptionalLong.of(700L));
+        when(repository.findAfter(700L, 5L, 2)).thenReturn(List.of(change(8, 701), change(6, 702)));
+        when(repository.findAfter(702L, 6L, 2)).thenReturn(List.of(change(9, 703)));
+        RecordingListener listener = new RecordingListener();
+        service.subscribe(5L, listener);
+
+        // When
+        service.poll();
+
+        // Then
+        assertEquals(List.of(8L, 6L, 9L), listener.received);
+        verify(repository).findAfter(702L, 6L, 2);
+    }
+
+    @Test
+    public void testPoll_SubscribersAtSamePositionShareQuery() {
+        // Given
+        when(repository.findLatest()).thenReturn(Optional.of(change(4, 700)));
+        when(repository.findAfter(700L, 4L, 2)).thenReturn(List.of(change(5, 701)));
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        service.subscribe(null, first);
+        service.subscribe(null, second);
+
+        // When
+        service.poll();
+
+        // Then
+        assertEquals(List.of(5L), first.received);
+        assertEquals(List.of(5L), second.received);
+        verify(repository, times(1)).findAfter(700L, 4L, 2);
+    }
+
+    @Test
+    public void testPoll_FailingSubscriberIsDropped() {
+        // Given
+        when(repository.findAfter(0L, 0L, 2)).thenReturn(List.of(change(1, 700)));
+        RecordingListener listener = new RecordingListener();
+        listener.failing = true;
+        service.subscribe(0L, listener);
+
+        // When
+        service.poll();
+        service.poll();
+
+        // Then
+        assertTrue(listener.closed);
+        verify(repository, times(1)).findAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testPoll_SlowSubscriberDroppedWithoutBlockingRelay() {
+        // Given - envois jamais exécutés : le client ne lit plus
+        List<Runnable> sends = new ArrayList<>();
+        service = new UserChangeServiceImpl(repository, 200, 2, 15, 168, 4, sends::add);
+        when(repository.findAfter(0L, 0L, 2)).thenReturn(List.of(change(1, 700), change(2, 701)));
+        when(repository.findAfter(701L, 2L, 2)).thenReturn(List.of(change(3, 702), change(4, 703)));
+        when(repository.findAfter(703L, 4L, 2)).thenReturn(List.of(change(5, 704)));
+        RecordingListener listener = new RecordingListener();
+        service.subscribe(0L, listener);
+
+        // When
+        service.poll();
+        sends.forEach(Runnable::run);
+
+        // Then
+        assertTrue(listener.closed);
+        assertTrue(listener.received.isEmpty());
+        service.poll();
+        verify(repository, times(3)).findAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test(expected = ChangesExpiredException.class)
+    public void testSubscribe_PurgedPosition() {
+        // Given
+        when(repository.findTxId(3L)).thenReturn(OptionalLong.empty());
+
+        // When
+        service.subscribe(3L, new RecordingListener());
+
+        // Then - Exception expected
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubscribe_NegativePosition() {
+        // When
+        service.subscribe(-1L, new RecordingListener());
+
+        // Then - Exception expected
+    }
+
+    private static UserChange change(long seq, long txId) {
+        User user = new User("John Doe", "john@example.com");
+        user.setId(1L);
+        return new UserChange(seq, txId, UserChange.Type.UPDATED, 1L, user, Instant.now());
+    }
+
+    private static final class RecordingListener implements IUserChangeService.Listener {
+        private final List<Long> received = new ArrayList<>();
+        private boolean failing;
+        private boolean closed;
+
+        @Override
+        public void onChange(UserChange change) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            received.add(change.getSeq());
+        }
+
+        @Override
+        public void onHeartbeat() {
+        }
+
+        @Override
+        public void onClose() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.exception.IngestQueueFullException;
+import com.example.springapi.model.IngestStatus;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserIngestServiceImplTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private IUserRepository repository;
+
+    private UserIngestServiceImpl ingestService;
+
+    @After
+    public void tearDown() {
+        if (ingestService != null) {
+            ingestService.stop();
+        }
+    }
+
+    @Test
+    public void testSubmit_SavedInBatch() throws Exception {
+        // Given
+        stubSaveAll();
+        when(repository.findIdsByEmails(anyCollection())).thenReturn(Map.of("taken@example.com", 9L));
+        ingestService = start(10, "");
+
+        // When
+        IngestStatus first = ingestService.submit(new User("John Doe", "john@example.com"));
+        IngestStatus duplicate = ingestService.submit(new User("Jane Doe", "taken@example.com"));
+
+        // Then
+        assertEquals(IngestStatus.State.PENDING, first.getState());
+        IngestStatus created = awaitCompletion(first.getTrackingId());
+        assertEquals(IngestStatus.State.CREATED, created.getState());
+        assertNotNull(created.getUserId());
+        IngestStatus failed = awaitCompletion(duplicate.getTrackingId());
+        assertEquals(IngestStatus.State.FAILED, failed.getState());
+        assertEquals("Un utilisateur avec cet email existe déjà", failed.getError());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubmit_InvalidUser() {
+        // Given
+        ingestService = start(10, "");
+
+        // When
+        ingestService.submit(new User("John Doe", ""));
+
+        // Then - Exception expected
+    }
+
+    @Test
+    public void testSubmit_QueueFull() throws Exception {
+        // Given - le worker reste bloqué sur le premier lot
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findIdsByEmails(anyCollection())).thenAnswer(invocation -> {
+            taken.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+        stubSaveAll();
+        ingestService = start(1, "");
+        ingestService.submit(new User("User 1", "user1@example.com"));
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        ingestService.submit(new User("User 2", "user2@example.com"));
+
+        // When
+        try {
+            ingestService.submit(new User("User 3", "user3@example.com"));
+            fail("File pleine attendue");
+        } catch (IngestQueueFullException e) {
+            // Then
+            assertEquals(1, e.getRetryAfterSeconds());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testStart_ReplaysJournal() throws Exception {
+        // Given - une création acceptée mais jamais traitée avant l'arrêt
+        Path journal = folder.getRoot().toPath().resolve("ingest.journal");
+        Files.writeString(journal,
+                "{\"id\":\"t1\",\"fullName\":\"John Doe\",\"email\":\"john@example.com\"}\n"
+                + "{\"id\":\"t2\",\"fullName\":\"Jane Doe\",\"email\":\"jane@example.com\"}\n"
+                + "{\"id\":\"t2\",\"done\":true}\n",
+                StandardCharsets.UTF_8);
+        when(repository.findIdsByEmails(anyCollection())).thenReturn(Map.of());
+        stubSaveAll();
+
+        // When
+        ingestService = start(10, journal.toString());
+
+        // Then
+        assertEquals(IngestStatus.State.CREATED, awaitCompletion("t1").getState());
+        assertFalse(ingestService.getStatus("t2").isPresent());
+        verify(repository).saveAll(argThat(users -> users.size() == 1 && users.get(0).getEmail().equals("john@example.com")));
+    }
+
+    @Test
+    public void testTransientFailureRetried() throws Exception {
+        // Given
+        when(repository.findIdsByEmails(anyCollection()))
+                .thenThrow(new RuntimeException("connexion perdue"))
+                .thenReturn(Map.of());
+        stubSaveAll();
+        ingestService = start(10, "");
+
+        // When
+        IngestStatus status = ingestService.submit(new User("John Doe", "john@example.com"));
+
+        // Then
+        assertEquals(IngestStatus.State.CREATED, awaitCompletion(status.getTrackingId()).getState());
+        verify(repository, times(2)).findIdsByEmails(anyCollection());
+    }
+
+    @Test
+    public void testPersistentFailureMarkedFailed() throws Exception {
+        // Given
+        when(repository.findIdsByEmails(anyCollection())).thenThrow(new RuntimeException("base indisponible"));
+        ingestService = start(10, "");
+
+        // When
+        IngestStatus status = ingestService.submit(new User("John Doe", "john@example.com"));
+
+        // Then
+        IngestStatus failed = awaitCompletion(status.getTrackingId());
+        assertEquals(IngestStatus.State.FAILED, failed.getState());
+        assertTrue(failed.getError().contains("base indisponible"));
+        verify(repository, times(3)).findIdsByEmails(anyCollection());
+    }
+
+    private UserIngestServiceImpl start(int capacity, String journalPath) {
+        UserIngestServiceImpl service = new UserIngestServiceImpl(repository, new ObjectMapper(), true, capacity, 100, 60, journalPath);
+        service.start();
+        return service;
+    }
+
+    private void stubSaveAll() {
+        AtomicLong ids = new AtomicLong();
+        lenient().when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return users;
+        });
+    }
+
+    private IngestStatus awaitCompletion(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            IngestStatus status = ingestService.getStatus(trackingId).orElseThrow();
+            if (status.getState() != IngestStatus.State.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Création toujours en attente: " + trackingId);
+    }
+}
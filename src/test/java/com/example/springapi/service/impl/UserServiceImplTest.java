@@ -1,6 +1,11 @@
 package com.example.springapi.service.impl;
 
+import com.example.springapi.cache.SingleFlight;
+import com.example.springapi.exception.DuplicateEmailException;
+import com.example.springapi.exception.VersionMismatchException;
+import com.example.springapi.model.CursorPage;
 import com.example.springapi.model.User;
+import com.example.springapi.model.UserSearchCriteria;
 import com.example.springapi.repository.IUserRepository;
 import org.junit.Before;
 import org.junit.Test;
@@ -8,11 +13,14 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,12 +32,17 @@ public class UserServiceImplTest {
     @Mock
     private IUserRepository repository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SingleFlight<Object, Object> reads;
     private UserServiceImpl userService;
 
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        userService = new UserServiceImpl(repository);
+        reads = new SingleFlight<>(true);
+        userService = new UserServiceImpl(repository, transactionManager, reads);
     }
 
     @Test
@@ -54,6 +67,109 @@ public class UserServiceImplTest {
         verify(repository).findAll();
     }
 
+    @Test
+    public void testGetPage_FirstPageWithNextCursor() {
+        // Given
+        User user1 = new User("John Doe", "john@example.com");
+        user1.setId(1L);
+        User user2 = new User("Jane Doe", "jane@example.com");
+        user2.setId(2L);
+        User user3 = new User("Jim Doe", "jim@example.com");
+        user3.setId(3L);
+
+        when(repository.findPage(null, 3)).thenReturn(Arrays.asList(user1, user2, user3));
+
+        // When
+        CursorPage<User> page = userService.getPage(null, 2);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getItems().get(1).getId().longValue());
+        assertNotNull(page.getNextCursor());
+        assertEquals(2L, CursorCodec.decodeId(page.getNextCursor()).longValue());
+    }
+
+    @Test
+    public void testGetPage_LastPageHasNoCursor() {
+        // Given
+        User user3 = new User("Jim Doe", "jim@example.com");
+        user3.setId(3L);
+        String cursor = CursorCodec.encodeId(2L);
+
+        when(repository.findPage(2L, 3)).thenReturn(List.of(user3));
+
+        // When
+        CursorPage<User> page = userService.getPage(cursor, 2);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetPage_LimitTooLarge() {
+        // When
+        userService.getPage(null, UserServiceImpl.MAX_PAGE_SIZE + 1);
+
+        // Then - Exception expected
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetPage_InvalidCursor() {
+        // When
+        userService.getPage("not-a-cursor!", 10);
+
+        // Then - Exception expected
+    }
+
+    @Test
+    public void testSearch_SortByNameCursorCarriesNameAndId() {
+        // Given
+        UserSearchCriteria criteria = UserSearchCriteria.parse("j", null, null, "name", null);
+        User user1 = new User("Jane Doe", "jane@example.com");
+        user1.setId(7L);
+        User user2 = new User("Jim Doe", "jim@example.com");
+        user2.setId(3L);
+
+        when(repository.search(criteria, null, null, 2)).thenReturn(Arrays.asList(user1, user2));
+
+        // When
+        CursorPage<User> page = userService.search(criteria, null, 1);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertArrayEquals(new String[]{"Jane Doe", "7"}, CursorCodec.decode(page.getNextCursor(), 2));
+    }
+
+    @Test
+    public void testSearch_NextPageUsesCursorKeyset() {
+        // Given
+        UserSearchCriteria criteria = UserSearchCriteria.parse(null, null, "example.com", "email", "desc");
+        String cursor = CursorCodec.encode("jim@example.com", "3");
+        User user = new User("Jane Doe", "jane@example.com");
+        user.setId(7L);
+
+        when(repository.search(criteria, "jim@example.com", 3L, 11)).thenReturn(List.of(user));
+
+        // When
+        CursorPage<User> page = userService.search(criteria, cursor, 10);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearch_IdCursorRejectedForNameSort() {
+        // Given
+        UserSearchCriteria criteria = UserSearchCriteria.parse(null, null, null, "name", null);
+
+        // When
+        userService.search(criteria, CursorCodec.encodeId(5L), 10);
+
+        // Then - Exception expected
+    }
+
     @Test
     public void testGetById_Success() {
         // Given
@@ -80,6 +196,31 @@ public class UserServiceImplTest {
         // Then - Exception expected
     }
 
+    @Test
+    public void testGetByIds_OneQueryInRequestedOrder() {
+        // Given
+        User john = new User("John Doe", "john@example.com");
+        john.setId(1L);
+        User jane = new User("Jane Doe", "jane@example.com");
+        jane.setId(2L);
+        when(repository.findAllByIds(Set.of(2L, 1L, 999L))).thenReturn(List.of(john, jane));
+
+        // When
+        List<User> result = userService.getByIds(List.of(2L, 1L, 2L, 999L));
+
+        // Then
+        assertEquals(List.of(jane, john), result);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetByIds_TooManyIds() {
+        // When
+        userService.getByIds(LongStream.rangeClosed(1, UserServiceImpl.MAX_PAGE_SIZE + 1).boxed().toList());
+
+        // Then - Exception expected
+    }
+
     @Test(expected = NoSuchElementException.class)
     public void testGetById_NotFound() {
         // Given
@@ -98,8 +239,7 @@ public class UserServiceImplTest {
         User savedUser = new User("John Doe", "john@example.com");
         savedUser.setId(1L);
 
-        when(repository.existsByEmail("john@example.com")).thenReturn(false);
-        when(repository.save(any(User.class))).thenReturn(savedUser);
+        when(repository.insertIfEmailAbsent(user)).thenReturn(Optional.of(savedUser));
 
         // When
         User result = userService.save(user);
@@ -109,8 +249,8 @@ public class UserServiceImplTest {
         assertEquals(1L, result.getId().longValue());
         assertEquals("John Doe", result.getFullName());
         assertEquals("john@example.com", result.getEmail());
-        verify(repository).existsByEmail("john@example.com");
-        verify(repository).save(user);
+        verify(repository).insertIfEmailAbsent(user);
+        verify(repository, never()).existsByEmail(any());
     }
 
     @Test
@@ -121,8 +261,7 @@ public class UserServiceImplTest {
         User existingUser = new User("John Old", "john.old@example.com");
         existingUser.setId(1L);
 
-        when(repository.findByEmail("john.updated@example.com")).thenReturn(Optional.of(user));
-        when(repository.save(any(User.class))).thenReturn(user);
+        when(repository.updateIfExists(user)).thenReturn(Optional.of(user));
 
         // When
         User result = userService.save(user);
@@ -131,8 +270,34 @@ public class UserServiceImplTest {
         assertNotNull(result);
         assertEquals(1L, result.getId().longValue());
         assertEquals("John Updated", result.getFullName());
-        verify(repository).findByEmail("john.updated@example.com");
-        verify(repository).save(user);
+        verify(repository).updateIfExists(user);
+        verify(repository, never()).findByEmail(any());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testSave_UpdateUser_NotFound() {
+        // Given
+        User user = new User("John Updated", "john.updated@example.com");
+        user.setId(999L);
+        when(repository.updateIfExists(user)).thenReturn(Optional.empty());
+
+        // When
+        userService.save(user);
+
+        // Then - Exception expected
+    }
+
+    @Test(expected = DuplicateEmailException.class)
+    public void testSave_UpdateUser_DuplicateEmail() {
+        // Given
+        User user = new User("John Updated", "taken@example.com");
+        user.setId(1L);
+        when(repository.updateIfExists(user)).thenThrow(new DuplicateEmailException());
+
+        // When
+        userService.save(user);
+
+        // Then - Exception expected
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -165,11 +330,11 @@ public class UserServiceImplTest {
         // Then - Exception expected
     }
 
-    @Test(expected = IllegalArgumentException.class)
+    @Test(expected = DuplicateEmailException.class)
     public void testSave_DuplicateEmail() {
         // Given
         User user = new User("John Doe", "john@example.com");
-        when(repository.existsByEmail("john@example.com")).thenReturn(true);
+        when(repository.insertIfEmailAbsent(user)).thenReturn(Optional.empty());
 
         // When
         userService.save(user);
@@ -177,20 +342,93 @@ public class UserServiceImplTest {
         // Then - Exception expected
     }
 
+    @Test
+    public void testSave_EmailTrimmedBeforeInsert() {
+        // Given
+        User user = new User("John Doe", "  john@example.com ");
+        when(repository.insertIfEmailAbsent(user)).thenReturn(Optional.of(user));
+
+        // When
+        userService.save(user);
+
+        // Then
+        assertEquals("john@example.com", user.getEmail());
+        verify(repository).insertIfEmailAbsent(user);
+    }
+
+    @Test
+    public void testUpdate_EmailTrimmedBeforeUpdate() {
+        // Given
+        User user = new User("John Doe", " john@example.com");
+        user.setId(1L);
+        when(repository.updateIfVersionMatches(user, 3L)).thenReturn(Optional.of(user));
+
+        // When
+        userService.update(user, 3L);
+
+        // Then
+        assertEquals("john@example.com", user.getEmail());
+    }
+
+    @Test
+    public void testUpdate_MatchingVersion() {
+        // Given
+        User user = new User("John Updated", "john.updated@example.com");
+        user.setId(1L);
+        User updated = new User("John Updated", "john.updated@example.com");
+        updated.setId(1L);
+        updated.setVersion(4L);
+        when(repository.updateIfVersionMatches(user, 3L)).thenReturn(Optional.of(updated));
+
+        // When
+        User result = userService.update(user, 3L);
+
+        // Then
+        assertEquals(4L, result.getVersion().longValue());
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test(expected = VersionMismatchException.class)
+    public void testUpdate_StaleVersion() {
+        // Given
+        User user = new User("John Updated", "john.updated@example.com");
+        user.setId(1L);
+        when(repository.updateIfVersionMatches(user, 3L)).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(true);
+
+        // When
+        userService.update(user, 3L);
+
+        // Then - Exception expected
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testUpdate_NotFound() {
+        // Given
+        User user = new User("John Updated", "john.updated@example.com");
+        user.setId(999L);
+        when(repository.updateIfVersionMatches(user, 3L)).thenReturn(Optional.empty());
+        when(repository.existsById(999L)).thenReturn(false);
+
+        // When
+        userService.update(user, 3L);
+
+        // Then - Exception expected
+    }
+
     @Test
     public void testDelete_Success() {
         // Given
         User user = new User("John Doe", "john@example.com");
         user.setId(1L);
-        when(repository.existsById(1L)).thenReturn(true);
-        doNothing().when(repository).deleteById(1L);
+        when(repository.deleteIfExists(1L)).thenReturn(Optional.of(user));
 
         // When
         userService.delete(1L);
 
         // Then
-        verify(repository).existsById(1L);
-        verify(repository).deleteById(1L);
+        verify(repository).deleteIfExists(1L);
+        verify(repository, never()).existsById(any());
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -204,7 +442,7 @@ public class UserServiceImplTest {
     @Test(expected = NoSuchElementException.class)
     public void testDelete_NotFound() {
         // Given
-        when(repository.existsById(999L)).thenReturn(false);
+        when(repository.deleteIfExists(999L)).thenReturn(Optional.empty());
 
         // When
         userService.delete(999L);
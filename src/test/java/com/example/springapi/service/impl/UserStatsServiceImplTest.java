@@ -0,0 +1,67 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.model.UserStats;
+import com.example.springapi.repository.IUserStatsRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserStatsServiceImplTest {
+
+    @Mock
+    private IUserStatsRepository repository;
+
+    private UserStatsServiceImpl service;
+
+    @Before
+    public void setUp() {
+        service = new UserStatsServiceImpl(repository, 2000);
+    }
+
+    @Test
+    public void testGetStats_TotalAndTopDomains() {
+        // Given
+        when(repository.findDomainCounts()).thenReturn(Map.of("example.com", 3L, "gmail.com", 10L, "acme.org", 3L));
+
+        // When
+        UserStats stats = service.getStats(2);
+
+        // Then
+        assertEquals(16L, stats.getTotal());
+        assertEquals(3, stats.getDomainCount());
+        assertEquals(2, stats.getDomains().size());
+        assertEquals("gmail.com", stats.getDomains().get(0).getDomain());
+        assertEquals("acme.org", stats.getDomains().get(1).getDomain());
+        assertNotNull(stats.getRefreshedAt());
+    }
+
+    @Test
+    public void testGetStats_ServedFromSnapshot() {
+        // Given
+        when(repository.findDomainCounts()).thenReturn(Map.of("example.com", 1L));
+        service.refresh();
+
+        // When
+        service.getStats(10);
+        service.getStats(10);
+
+        // Then
+        verify(repository, times(1)).findDomainCounts();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetStats_InvalidTop() {
+        // When
+        service.getStats(0);
+
+        // Then - Exception expected
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.springapi.service.impl;
+
+import com.example.springapi.model.ImportReport;
+import com.example.springapi.model.TransferFormat;
+import com.example.springapi.model.User;
+import com.example.springapi.repository.IUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserTransferServiceImplTest {
+
+    @Mock
+    private IUserRepository repository;
+
+    private UserTransferServiceImpl service;
+    private final List<Map.Entry<Long, User>> copied = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        service = new UserTransferServiceImpl(repository, new ObjectMapper(), 2);
+    }
+
+    @Test
+    public void testExportCsvQuotesFields() {
+        // Given
+        exportUsers(user(1L, "Doe, \"John\"", "john@example.com"), user(2L, "Jane", "jane@example.com"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long exported = service.exportAll(TransferFormat.CSV, output);
+
+        // Then
+        assertEquals(2, exported);
+        assertEquals("id,fullName,email,version\n"
+                + "1,\"Doe, \"\"John\"\"\",\"john@example.com\",0\n"
+                + "2,\"Jane\",\"jane@example.com\",0\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testExportNdjsonOneUserPerLine() {
+        // Given
+        exportUsers(user(1L, "John", "john@example.com"), user(2L, "Jane", "jane@example.com"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        service.exportAll(TransferFormat.NDJSON, output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"email\":\"john@example.com\""));
+        assertTrue(lines[1].contains("\"email\":\"jane@example.com\""));
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    public void testImportCsvReportsInvalidAndDuplicateLines() {
+        // Given
+        String csv = "email,ignored,fullName\r\n"
+                + "john@example.com,x,John\r\n"
+                + "\r\n"
+                + "jane@example.com,x,\"Jane\n\"\"JD\"\" Doe\"\r\n"
+                + ",x,Nobody\r\n"
+                + "john@example.com,x,John bis\r\n";
+        importRejecting(7);
+
+        // When
+        ImportReport report = service.importAll(TransferFormat.CSV, input(csv));
+
+        // Then
+        assertEquals(List.of(2L, 4L, 7L), copied.stream().map(Map.Entry::getKey).toList());
+        assertEquals("Jane\n\"JD\" Doe", copied.get(1).getValue().getFullName());
+        assertEquals(4, report.getTotal());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(7, report.getErrors().get(1).getLine());
+        assertEquals("L'email est obligatoire", report.getErrors().get(0).getError());
+        assertEquals(6, report.getErrors().get(0).getLine());
+        assertFalse(report.isErrorsTruncated());
+    }
+
+    @Test
+    public void testImportNdjsonKeepsGoingAfterMalformedLine() {
+        // Given
+        String ndjson = "{\"fullName\":\"John\",\"email\":\"john@example.com\",\"id\":42}\n"
+                + "{\"fullName\":\"Jane\",\n"
+                + "{\"fullName\":\"\",\"email\":\"x@example.com\"}\n"
+                + "\n"
+                + "{\"fullName\":\"Ann\",\"email\":\"ann@example.com\"}";
+        importRejecting();
+
+        // When
+        ImportReport report = service.importAll(TransferFormat.NDJSON, input(ndjson));
+
+        // Then
+        assertEquals(List.of(1L, 5L), copied.stream().map(Map.Entry::getKey).toList());
+        assertEquals(4, report.getTotal());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getErrors().size());
+        assertTrue(report.getErrors().get(0).getError().startsWith("JSON invalide"));
+        assertEquals(3, report.getErrors().get(1).getLine());
+    }
+
+    @Test
+    public void testImportErrorDetailsBounded() {
+        // Given
+        importRejecting();
+
+        // When
+        ImportReport report = service.importAll(TransferFormat.NDJSON, input("{}\n{}\n{}\n{\"fullName\":\"A\",\"email\":\"a@b.fr\"}\n"));
+
+        // Then
+        assertEquals(3, report.getRejected());
+        assertEquals(2, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testImportCsvWithoutRequiredColumnsRejected() {
+        // When
+        service.importAll(TransferFormat.CSV, input("id,name\n1,John\n"));
+
+        // Then - Exception expected
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportUsers(User... users) {
+        when(repository.exportAll(any())).thenAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            for (User user : users) {
+                consumer.accept(user);
+            }
+            return (long) users.length;
+        });
+    }
+
+    // Simule COPY : lit toutes les lignes transmises puis signale comme doublons celles demandées
+    @SuppressWarnings("unchecked")
+    private void importRejecting(long... duplicateLines) {
+        when(repository.copyInsert(any(), any())).thenAnswer(invocation -> {
+            Iterator<Map.Entry<Long, User>> rows = invocation.getArgument(0);
+            LongConsumer rejected = invocation.getArgument(1);
+            rows.forEachRemaining(copied::add);
+            for (long line : duplicateLines) {
+                rejected.accept(line);
+            }
+            return copied.size() - duplicateLines.length;
+        });
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user(Long id, String fullName, String email) {
+        User user = new User(fullName, email);
+        user.setId(id);
+        user.setVersion(0L);
+        return user;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.springapi.web;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testLimitDropsWhenLatencyDegrades() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 4, 200, 1.5);
+        limiter.update(10 * 5_000_000L, 10, 40);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.update(10 * 50_000_000L, 10, 40);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() < 40);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    public void testLimitGrowsWhenLatencyStable() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.update(10 * 5_000_000L, 10, limiter.getLimit());
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() > 20);
+    }
+
+    @Test
+    public void testLimitUnchangedWhenUnderused() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.update(10 * 5_000_000L, 10, 3);
+        }
+
+        // Then
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    public void testAcquireRespectsLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5);
+
+        // When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+        limiter.release(1_000_000L);
+
+        // Then
+        assertTrue(first && second);
+        assertFalse(third);
+        assertTrue(limiter.tryAcquire());
+    }
+}
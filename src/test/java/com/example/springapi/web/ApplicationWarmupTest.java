@@ -0,0 +1,135 @@
+package com.example.springapi.web;
+
+import com.example.springapi.model.WarmupStatus;
+import com.example.springapi.model.WarmupStatus.Phase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ApplicationWarmupTest {
+
+    // Port réservé (discard) : aucun serveur n'y écoute, la boucle de requêtes est abandonnée au délai
+    private static final String UNREACHABLE = "http://127.0.0.1:9";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    public void testDisabledWarmupIsReadyImmediately() {
+        // Given
+        ApplicationWarmup warmup = new ApplicationWarmup(false, dataSource, 5, List.of(new ObjectMapper()),
+                UNREACHABLE, 100, Duration.ofSeconds(1), false);
+
+        // When
+        warmup.start();
+
+        // Then
+        assertTrue(warmup.getStatus().isReady());
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    public void testPoolFilledAndReadyOnTimeoutWhenAllowed() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        ApplicationWarmup warmup = new ApplicationWarmup(true, dataSource, 5, List.of(new ObjectMapper()),
+                UNREACHABLE, 100, Duration.ofMillis(300), true);
+
+        // When
+        warmup.start();
+        WarmupStatus status = awaitFinished(warmup);
+
+        // Then
+        assertTrue(status.isReady());
+        assertEquals(0, status.getRequests());
+        verify(dataSource, times(5)).getConnection();
+        verify(connection, times(5)).close();
+    }
+
+    @Test
+    public void testTimeoutLeavesApplicationNotReady() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        ApplicationWarmup warmup = new ApplicationWarmup(true, dataSource, 1, List.of(new ObjectMapper()),
+                UNREACHABLE, 100, Duration.ofMillis(300), false);
+
+        // When
+        warmup.start();
+        WarmupStatus status = awaitFinished(warmup);
+
+        // Then
+        assertFalse(status.isReady());
+        assertEquals(Phase.TIMED_OUT, status.getPhase());
+    }
+
+    @Test
+    public void testPoolFailureLeavesApplicationNotReady() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ApplicationWarmup warmup = new ApplicationWarmup(true, dataSource, 5, List.of(new ObjectMapper()),
+                UNREACHABLE, 100, Duration.ofMillis(300), true);
+
+        // When
+        warmup.start();
+        WarmupStatus status = awaitFinished(warmup);
+
+        // Then
+        assertFalse(status.isReady());
+        assertEquals(Phase.FAILED, status.getPhase());
+        assertEquals(0, status.getRequests());
+    }
+
+    @Test
+    public void testWarmupRequestRequiresTokenLoopbackAndPendingWarmup() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        ApplicationWarmup warmup = new ApplicationWarmup(true, dataSource, 1, List.of(new ObjectMapper()),
+                UNREACHABLE, 100, Duration.ofMillis(300), false);
+        MockHttpServletRequest local = request(warmup.getToken(), "127.0.0.1");
+        MockHttpServletRequest remote = request(warmup.getToken(), "203.0.113.7");
+        MockHttpServletRequest forged = request("devine", "127.0.0.1");
+
+        // When
+        boolean localExempt = warmup.isWarmupRequest(local);
+        boolean remoteExempt = warmup.isWarmupRequest(remote);
+        boolean forgedExempt = warmup.isWarmupRequest(forged);
+        warmup.start();
+        awaitFinished(warmup);
+
+        // Then
+        assertTrue(localExempt);
+        assertFalse(remoteExempt);
+        assertFalse(forgedExempt);
+        assertFalse(warmup.isWarmupRequest(local));
+    }
+
+    private static MockHttpServletRequest request(String token, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader(ApplicationWarmup.TOKEN_HEADER, token);
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private static WarmupStatus awaitFinished(ApplicationWarmup warmup) throws InterruptedException {
+        for (int i = 0; i < 100 && !warmup.getStatus().getPhase().isFinished(); i++) {
+            Thread.sleep(50);
+        }
+        return warmup.getStatus();
+    }
+}
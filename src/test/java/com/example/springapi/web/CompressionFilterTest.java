@@ -0,0 +1,225 @@
+package com.example.springapi.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class CompressionFilterTest {
+
+    private final CompressionFilter filter = new CompressionFilter(true, 1024);
+
+    @Test
+    public void testLargeJsonIsGzipped() throws Exception {
+        // Given
+        String body = "{\"data\":\"" + "x".repeat(5000) + "\"}";
+        MockHttpServletRequest request = request("gzip, deflate, br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, chain("application/json", body));
+
+        // Then
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertTrue(response.getContentAsByteArray().length < body.length());
+        assertEquals(body, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void testSmallBodySentAsIsWithLength() throws Exception {
+        // Given
+        String body = "{\"success\":true}";
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("gzip"), response, chain("application/json", body));
+
+        // Then
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(body.length(), response.getContentLength());
+        assertEquals(body, response.getContentAsString());
+    }
+
+    @Test
+    public void testNotCompressedWithoutAcceptEncoding() throws Exception {
+        // Given
+        String body = "x".repeat(5000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("gzip;q=0"), response, chain("application/json", body));
+
+        // Then
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(body, response.getContentAsString());
+    }
+
+    @Test
+    public void testBinaryContentNotCompressed() throws Exception {
+        // Given
+        String body = "x".repeat(5000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("gzip"), response, chain("image/png", body));
+
+        // Then
+        assertNull(response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Vary"));
+        assertEquals(body, response.getContentAsString());
+    }
+
+    @Test
+    public void testStrongETagSuffixedWhenGzipAccepted() throws Exception {
+        // Given
+        String large = "{\"data\":\"" + "x".repeat(5000) + "\"}";
+        MockHttpServletResponse gzipped = new MockHttpServletResponse();
+        MockHttpServletResponse small = new MockHttpServletResponse();
+        MockHttpServletResponse identity = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("gzip"), gzipped, chain("application/json", large, "\"7\""));
+        filter.doFilter(request("gzip"), small, chain("application/json", "{}", "\"7\""));
+        filter.doFilter(request("identity"), identity, chain("application/json", large, "\"7\""));
+
+        // Then
+        assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+        assertEquals("\"7-gzip\"", gzipped.getHeader("ETag"));
+        assertNull(small.getHeader("Content-Encoding"));
+        assertEquals("\"7-gzip\"", small.getHeader("ETag"));
+        assertEquals("\"7\"", identity.getHeader("ETag"));
+    }
+
+    @Test
+    public void testIfNoneMatchGzipETag_NotModifiedKeepsSuffix() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("gzip");
+        request.addHeader("If-None-Match", "\"7-gzip\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+                // L'application compare ses propres ETags, sans suffixe d'encodage
+                if ("\"7\"".equals(request.getHeader("If-None-Match"))) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    response.setHeader("ETag", "\"7\"");
+                }
+            }
+        });
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(304, response.getStatus());
+        assertEquals("\"7-gzip\"", response.getHeader("ETag"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    public void testWeakETagUnchanged() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request("gzip"), response, chain("application/json", "x".repeat(5000), "W/\"7\""));
+
+        // Then
+        assertEquals("W/\"7\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testSetWriteListenerDelegatesToContainerStream() throws Exception {
+        // Given
+        AtomicReference<WriteListener> registered = new AtomicReference<>();
+        HttpServletResponse container = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return false;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        registered.set(writeListener);
+                    }
+
+                    @Override
+                    public void write(int b) {
+                    }
+                };
+            }
+        };
+        WriteListener listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+
+        // When
+        filter.doFilter(request("gzip"), container, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getOutputStream().setWriteListener(listener);
+            }
+        }));
+
+        // Then
+        assertSame(listener, registered.get());
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+
+    private static MockFilterChain chain(String contentType, String body) {
+        return chain(contentType, body, null);
+    }
+
+    private static MockFilterChain chain(String contentType, String body, String etag) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                if (etag != null) {
+                    response.setHeader("ETag", etag);
+                }
+                response.setContentType(contentType);
+                response.setContentLength(bytes.length);
+                response.getOutputStream().write(bytes);
+                response.getOutputStream().flush();
+            }
+        });
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
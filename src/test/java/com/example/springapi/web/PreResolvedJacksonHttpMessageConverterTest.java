@@ -0,0 +1,56 @@
+package com.example.springapi.web;
+
+import com.example.springapi.config.JacksonConfig;
+import com.example.springapi.model.ApiResponse;
+import com.example.springapi.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PreResolvedJacksonHttpMessageConverterTest {
+
+    private static final Type USER_RESPONSE = new ParameterizedTypeReference<ApiResponse<User>>() {}.getType();
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final PreResolvedJacksonHttpMessageConverter converter =
+            new PreResolvedJacksonHttpMessageConverter(objectMapper, List.of(USER_RESPONSE), MediaType.APPLICATION_JSON);
+
+    @Test
+    public void testPreResolvedTypeWrittenLikeObjectMapper() throws Exception {
+        // Given
+        User user = new User("Jean Dupont", "jean@example.com");
+        user.setId(1L);
+        user.setVersion(2L);
+        ApiResponse<User> response = ApiResponse.success("Utilisateur récupéré avec succès", user);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // When
+        converter.write(response, USER_RESPONSE, MediaType.APPLICATION_JSON, output);
+
+        // Then
+        assertEquals(objectMapper.writeValueAsString(response), output.getBodyAsString());
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+    }
+
+    @Test
+    public void testOtherTypesUseStandardPath() throws Exception {
+        // Given
+        Type type = new ParameterizedTypeReference<ApiResponse<Map<String, Long>>>() {}.getType();
+        ApiResponse<Map<String, Long>> response = ApiResponse.success("ok", Map.of("hits", 3L));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // When
+        converter.write(response, type, MediaType.APPLICATION_JSON, output);
+
+        // Then
+        assertEquals("{\"success\":true,\"message\":\"ok\",\"data\":{\"hits\":3}}", output.getBodyAsString());
+    }
+}
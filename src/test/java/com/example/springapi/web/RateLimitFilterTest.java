@@ -0,0 +1,202 @@
+package com.example.springapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testExpensiveBudgetExhaustedReturns429() throws Exception {
+        // Given
+        RateLimitFilter filter = filter(null);
+        filter.doFilter(request("GET", "/api/users", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/api/users", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users", "10.0.0.1"), response, new MockFilterChain());
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"success\":false"));
+    }
+
+    @Test
+    public void testBudgetsAreSeparatePerEndpointClassAndClient() throws Exception {
+        // Given
+        RateLimitFilter filter = filter(null);
+        filter.doFilter(request("GET", "/api/users/search", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/api/users/search", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // When
+        MockHttpServletResponse lookup = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/42", "10.0.0.1"), lookup, new MockFilterChain());
+        MockHttpServletResponse otherClient = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/search", "10.0.0.2"), otherClient, new MockFilterChain());
+
+        // Then
+        assertEquals(200, lookup.getStatus());
+        assertEquals(200, otherClient.getStatus());
+    }
+
+    @Test
+    public void testBulkTransferUsesExpensiveBudget() throws Exception {
+        // Given
+        RateLimitFilter filter = filter(null);
+        filter.doFilter(request("GET", "/api/users/export", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("POST", "/api/users/import", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/export", "10.0.0.1"), response, new MockFilterChain());
+
+        // Then
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    public void testTokensRefillOverTime() throws Exception {
+        // Given
+        RateLimitFilter filter = filter(null);
+        filter.doFilter(request("GET", "/api/users", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/api/users", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // When
+        clock.addAndGet(1_000_000_000L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users", "10.0.0.1"), response, new MockFilterChain());
+
+        // Then
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void testConcurrencyLimitReachedReturns503() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5);
+        RateLimitFilter filter = filter(limiter);
+        assertTrue(limiter.tryAcquire());
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/42", "10.0.0.1"), response, new MockFilterChain());
+        MockHttpServletResponse changes = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/changes", "10.0.0.1"), changes, new MockFilterChain());
+
+        // Then
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(200, changes.getStatus());
+    }
+
+    @Test
+    public void testStreamingResponseNotSampledByLimiter() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5);
+        RateLimitFilter filter = filter(limiter);
+        assertTrue(limiter.tryAcquire());
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/stream", "10.0.0.1"), response, new MockFilterChain());
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(1, limiter.getInflight());
+    }
+
+    @Test
+    public void testPermitReleasedAfterRequest() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5);
+        RateLimitFilter filter = filter(limiter);
+
+        // When
+        filter.doFilter(request("GET", "/api/users/1", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users/2", "10.0.0.1"), response, new MockFilterChain());
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void testClientHeaderUsesHopAddedByTrustedProxy() throws Exception {
+        // Given
+        RateLimitFilter filter = forwardedFilter(1);
+        MockHttpServletRequest first = request("GET", "/api/users/1", "10.0.0.1");
+        first.addHeader("X-Forwarded-For", "203.0.113.7");
+        filter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+
+        // When : le client préfixe une adresse de son choix, le proxy ajoute la vraie à droite
+        MockHttpServletRequest spoofed = request("GET", "/api/users/1", "10.0.0.1");
+        spoofed.addHeader("X-Forwarded-For", "198.51.100.23, 203.0.113.7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(spoofed, response, new MockFilterChain());
+
+        // Then
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    public void testSpoofedMultiHopHeader_KeyedOnOutermostTrustedProxy() throws Exception {
+        // Given : deux proxys de confiance, le premier ajoute l'adresse du client, le second celle du premier
+        RateLimitFilter filter = forwardedFilter(2);
+        MockHttpServletRequest first = request("GET", "/api/users/1", "10.0.0.3");
+        first.addHeader("X-Forwarded-For", "192.0.2.1, 203.0.113.7, 10.0.0.2");
+        filter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+
+        // When : autres adresses falsifiées, même client réel ; puis un autre client réel
+        MockHttpServletRequest spoofed = request("GET", "/api/users/1", "10.0.0.3");
+        spoofed.addHeader("X-Forwarded-For", "192.0.2.99");
+        spoofed.addHeader("X-Forwarded-For", "192.0.2.98, 203.0.113.7, 10.0.0.2");
+        MockHttpServletResponse spoofedResponse = new MockHttpServletResponse();
+        filter.doFilter(spoofed, spoofedResponse, new MockFilterChain());
+        MockHttpServletRequest other = request("GET", "/api/users/1", "10.0.0.3");
+        other.addHeader("X-Forwarded-For", "203.0.113.7, 198.51.100.8, 10.0.0.2");
+        MockHttpServletResponse otherResponse = new MockHttpServletResponse();
+        filter.doFilter(other, otherResponse, new MockFilterChain());
+
+        // Then
+        assertEquals(429, spoofedResponse.getStatus());
+        assertEquals(200, otherResponse.getStatus());
+    }
+
+    @Test
+    public void testClientHeaderShorterThanProxyChain_UsesRemoteAddress() {
+        // Given
+        RateLimitFilter filter = forwardedFilter(2);
+        MockHttpServletRequest request = request("GET", "/api/users/1", "10.0.0.3");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+
+        // When & Then
+        assertEquals("10.0.0.3", filter.clientKey(request));
+    }
+
+    private RateLimitFilter forwardedFilter(int trustedProxies) {
+        return new RateLimitFilter(true, new RateLimitFilter.Budget(1, 1), new RateLimitFilter.Budget(1, 1),
+                100, "X-Forwarded-For", trustedProxies, null, new ObjectMapper(), request -> false, clock::get);
+    }
+
+    private RateLimitFilter filter(AdaptiveConcurrencyLimiter limiter) {
+        return new RateLimitFilter(true, new RateLimitFilter.Budget(1, 2), new RateLimitFilter.Budget(100, 100),
+                100, null, 1, limiter, new ObjectMapper(), request -> false, clock::get);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.springapi.web;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class VirtualThreadHandlerAdapterTest {
+
+    private VirtualThreadHandlerAdapter adapter;
+
+    @Before
+    public void setUp() throws Exception {
+        adapter = new VirtualThreadHandlerAdapter();
+        adapter.setTaskExecutor(new SimpleAsyncTaskExecutor("request-vt-"));
+        adapter.setApplicationContext(new StaticWebApplicationContext());
+        adapter.afterPropertiesSet();
+    }
+
+    @Test
+    public void testResponseEntityHandler_RunsOnRequestExecutor() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        handle(request, response, new HandlerMethod(new Handlers(), Handlers.class.getMethod("thread")));
+
+        // Then
+        assertEquals(DispatcherType.ASYNC, request.getDispatcherType());
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().startsWith("request-vt-"));
+    }
+
+    @Test
+    public void testNotModified_RendersEmpty304() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        handle(request, response, new HandlerMethod(new Handlers(), Handlers.class.getMethod("conditional", WebRequest.class)));
+
+        // Then
+        assertEquals(304, response.getStatus());
+        assertEquals("\"1\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    public void testHandlerException_RethrownOnRedispatch() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+        HandlerMethod handler = new HandlerMethod(new Handlers(), Handlers.class.getMethod("fail"));
+
+        // When & Then
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> handle(request, new MockHttpServletResponse(), handler));
+        assertEquals("échec", e.getMessage());
+    }
+
+    @Test
+    public void testOtherReturnTypes_StaySynchronous() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        adapter.handle(request, response, new HandlerMethod(new Handlers(), Handlers.class.getMethod("headers")));
+
+        // Then
+        assertFalse(request.isAsyncStarted());
+        assertEquals(Thread.currentThread().getName(), response.getHeader("X-Thread"));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    // Premier passage, attente du Callable puis redispatch, comme le fait le conteneur
+    private void handle(MockHttpServletRequest request, MockHttpServletResponse response, HandlerMethod handler) throws Exception {
+        adapter.handle(request, response, handler);
+        assertTrue(request.isAsyncStarted());
+        CountDownLatch dispatched = new CountDownLatch(1);
+        ((MockAsyncContext) request.getAsyncContext()).addDispatchHandler(dispatched::countDown);
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        request.setDispatcherType(DispatcherType.ASYNC);
+        request.setAsyncStarted(false);
+        adapter.handle(request, response, handler);
+    }
+
+    public static class Handlers {
+
+        public ResponseEntity<String> thread() {
+            return ResponseEntity.ok(Thread.currentThread().getName());
+        }
+
+        public ResponseEntity<String> conditional(WebRequest request) {
+            if (request.checkNotModified("\"1\"")) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag("\"1\"").body("corps");
+        }
+
+        public ResponseEntity<String> fail() {
+            throw new IllegalStateException("échec");
+        }
+
+        public HttpHeaders headers() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("X-Thread", Thread.currentThread().getName());
+            return headers;
+        }
+    }
+}